@@ -0,0 +1,38 @@
+/**
+ * A single micro-benchmark run by BenchmarkRunner.
+ * Each measurement iteration calls setUp once (untimed) and then run() a fixed
+ * number of times (timed).
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public interface BenchmarkCase {
+    /**
+     * Gets the benchmark name, e.g. "turn.endTurn".
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Gets how many operations make up one iteration.
+     *
+     * @return operations per iteration
+     */
+    int getOpsPerIteration();
+
+    /**
+     * Prepares state for the next iteration. Not timed.
+     *
+     * @param ops the number of operations the iteration will run
+     */
+    void setUp(int ops);
+
+    /**
+     * Runs one operation. Not timed individually.
+     *
+     * @param index the operation number within the iteration
+     * @return any value derived from the work, so the JIT cannot drop it
+     */
+    long run(int index);
+}
@@ -0,0 +1,90 @@
+import java.util.Locale;
+
+/**
+ * Measured numbers for one benchmark.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class BenchmarkResult {
+    private String name;
+    private double nanosPerOp;
+    private double errorNanos;
+    private double bytesPerOp;
+    private long gcCount;
+    private long gcMillis;
+
+    /**
+     * Constructs a new BenchmarkResult.
+     *
+     * @param name the benchmark name
+     * @param nanosPerOp mean time per operation
+     * @param errorNanos standard deviation of the per-iteration means
+     * @param bytesPerOp bytes allocated per operation (like gc.alloc.rate.norm)
+     * @param gcCount garbage collections during measurement
+     * @param gcMillis time spent in garbage collection during measurement
+     */
+    public BenchmarkResult(String name, double nanosPerOp, double errorNanos,
+                           double bytesPerOp, long gcCount, long gcMillis) {
+        this.name = name;
+        this.nanosPerOp = nanosPerOp;
+        this.errorNanos = errorNanos;
+        this.bytesPerOp = bytesPerOp;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    /**
+     * Gets the benchmark name.
+     * @return the name
+     */
+    public String getName() { return name; }
+
+    /**
+     * Gets the mean time per operation.
+     * @return nanoseconds per operation
+     */
+    public double getNanosPerOp() { return nanosPerOp; }
+
+    /**
+     * Gets the standard deviation of the iteration means.
+     * @return error in nanoseconds
+     */
+    public double getErrorNanos() { return errorNanos; }
+
+    /**
+     * Gets the bytes allocated per operation.
+     * @return bytes per operation
+     */
+    public double getBytesPerOp() { return bytesPerOp; }
+
+    /**
+     * Gets the number of garbage collections during measurement.
+     * @return the GC count
+     */
+    public long getGcCount() { return gcCount; }
+
+    /**
+     * Gets the time spent in garbage collection during measurement.
+     * @return GC time in milliseconds
+     */
+    public long getGcMillis() { return gcMillis; }
+
+    /**
+     * Gets the throughput.
+     * @return operations per second
+     */
+    public double getOpsPerSecond() {
+        return nanosPerOp == 0 ? 0 : 1_000_000_000.0 / nanosPerOp;
+    }
+
+    /**
+     * Formats the result as a CSV row (name,ns/op,error,ops/s,B/op,gc.count,gc.ms).
+     *
+     * @return the CSV line
+     */
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%.3f,%.3f,%.1f,%.1f,%d,%d",
+                name, nanosPerOp, errorNanos, getOpsPerSecond(), bytesPerOp, gcCount, gcMillis);
+    }
+}
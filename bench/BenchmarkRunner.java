@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Minimal benchmark harness in the style of JMH.
+ * Runs warmup and measurement iterations for each BenchmarkCase and reports
+ * time per operation, throughput, and allocation per operation (the same
+ * per-thread counter JMH's "-prof gc" reports as gc.alloc.rate.norm).
+ *
+ * Results can be written as CSV and compared against a baseline CSV so that
+ * regressions fail the run.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+    private static final String CSV_HEADER = "benchmark,ns_per_op,error_ns,ops_per_s,bytes_per_op,gc_count,gc_ms";
+
+    private int warmupIterations;
+    private int measurementIterations;
+    private com.sun.management.ThreadMXBean threads;
+    private long blackhole;
+
+    /**
+     * Constructs a BenchmarkRunner.
+     *
+     * @param warmupIterations untimed iterations run before measuring
+     * @param measurementIterations timed iterations
+     */
+    public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Runs one benchmark and measures it.
+     *
+     * @param bench the benchmark to run
+     * @return the measured result
+     */
+    public BenchmarkResult run(BenchmarkCase bench) {
+        int ops = bench.getOpsPerIteration();
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(bench, ops);
+        }
+
+        double[] means = new double[measurementIterations];
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        for (int i = 0; i < measurementIterations; i++) {
+            bench.setUp(ops);
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int op = 0; op < ops; op++) {
+                sum += bench.run(op);
+            }
+            long elapsed = System.nanoTime() - start;
+            totalBytes += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            blackhole = blackhole * 31 + sum;
+
+            totalNanos += elapsed;
+            means[i] = (double) elapsed / ops;
+        }
+
+        long measuredOps = (long) ops * measurementIterations;
+        double mean = (double) totalNanos / measuredOps;
+        double variance = 0;
+        for (double m : means) {
+            variance += (m - mean) * (m - mean);
+        }
+        double error = measurementIterations > 1 ? Math.sqrt(variance / (measurementIterations - 1)) : 0;
+
+        return new BenchmarkResult(bench.getName(), mean, error, (double) totalBytes / measuredOps,
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+    }
+
+    /**
+     * Measures how much slower one benchmark is than another. Their iterations
+     * alternate (A B B A ...) and each is timed by the thread's CPU time, so a
+     * machine that speeds up or slows down affects both alike; the result is the
+     * median of the per-pair ratios. Use it when the difference is smaller than
+     * the spread between two separate runs.
+     *
+     * @param a the reference benchmark
+     * @param b the benchmark compared with it
+     * @param out where to print the comparison
+     * @return the median slowdown of b against a, in percent
+     */
+    public double comparePaired(BenchmarkCase a, BenchmarkCase b, PrintStream out) {
+        out.println("# Pairing " + a.getName() + " with " + b.getName() + " ...");
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(a, a.getOpsPerIteration());
+            iteration(b, b.getOpsPerIteration());
+        }
+
+        double[] ratios = new double[measurementIterations];
+        double[] nanosA = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            double first;
+            double second;
+            if ((i & 1) == 0) {
+                first = cpuNanosPerOp(a);
+                second = cpuNanosPerOp(b);
+            } else {
+                second = cpuNanosPerOp(b);
+                first = cpuNanosPerOp(a);
+            }
+            ratios[i] = second / first;
+            nanosA[i] = first;
+        }
+        Arrays.sort(ratios);
+        Arrays.sort(nanosA);
+
+        int n = measurementIterations;
+        double median = 100 * (ratios[n / 2] - 1);
+        out.println(String.format(Locale.ROOT, "%-32s %14.1f ns/op (CPU)", a.getName(), nanosA[n / 2]));
+        out.println(String.format(Locale.ROOT, "%-32s %+13.1f%% (quartiles %+.1f%% .. %+.1f%%, %d pairs)",
+                b.getName(), median, 100 * (ratios[n / 4] - 1), 100 * (ratios[3 * n / 4] - 1), n));
+        return median;
+    }
+
+    /**
+     * Runs every benchmark whose name contains the filter and prints a table.
+     *
+     * @param benches the benchmarks
+     * @param filter substring to select benchmarks, or null for all
+     * @param out where to print progress and results
+     * @return the results in run order
+     */
+    public List<BenchmarkResult> runAll(List<BenchmarkCase> benches, String filter, PrintStream out) {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (BenchmarkCase bench : benches) {
+            if (filter != null && !bench.getName().contains(filter)) continue;
+            out.println("# Running " + bench.getName() + " ...");
+            results.add(run(bench));
+        }
+        printTable(results, out);
+        return results;
+    }
+
+    /**
+     * Prints results in a JMH-like table.
+     *
+     * @param results the results to print
+     * @param out the stream to print to
+     */
+    public static void printTable(List<BenchmarkResult> results, PrintStream out) {
+        out.println();
+        out.println(String.format(Locale.ROOT, "%-32s %14s %12s %14s %12s %6s",
+                "Benchmark", "ns/op", "error", "ops/s", "B/op", "gc"));
+        for (BenchmarkResult r : results) {
+            out.println(String.format(Locale.ROOT, "%-32s %14.1f %12.1f %14.0f %12.1f %6d",
+                    r.getName(), r.getNanosPerOp(), r.getErrorNanos(), r.getOpsPerSecond(),
+                    r.getBytesPerOp(), r.getGcCount()));
+        }
+        out.println();
+    }
+
+    /**
+     * Writes results as CSV.
+     *
+     * @param results the results to write
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCsv(List<BenchmarkResult> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (BenchmarkResult r : results) {
+            lines.add(r.toCsv());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares results with a baseline CSV written by writeCsv.
+     * A benchmark regresses when it is slower than the baseline by more than the threshold.
+     *
+     * @param results the new results
+     * @param baseline the baseline CSV file
+     * @param thresholdPercent allowed slowdown in percent
+     * @param out where to print the comparison
+     * @return the number of regressed benchmarks
+     * @throws IOException if the baseline cannot be read
+     */
+    public static int compare(List<BenchmarkResult> results, Path baseline, double thresholdPercent,
+                              PrintStream out) throws IOException {
+        Map<String, Double> baselineNanos = new HashMap<>();
+        for (String line : Files.readAllLines(baseline, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("benchmark,")) continue;
+            String[] fields = line.split(",");
+            baselineNanos.put(fields[0], Double.parseDouble(fields[1]));
+        }
+
+        int regressions = 0;
+        out.println(String.format(Locale.ROOT, "%-32s %14s %14s %9s", "Benchmark", "baseline ns", "current ns", "change"));
+        for (BenchmarkResult r : results) {
+            Double before = baselineNanos.get(r.getName());
+            if (before == null) continue;
+            double change = 100.0 * (r.getNanosPerOp() - before) / before;
+            boolean regressed = change > thresholdPercent;
+            if (regressed) regressions++;
+            out.println(String.format(Locale.ROOT, "%-32s %14.1f %14.1f %+8.1f%%%s",
+                    r.getName(), before, r.getNanosPerOp(), change, regressed ? "  REGRESSION" : ""));
+        }
+        return regressions;
+    }
+
+    /**
+     * Gets the value folded from all benchmark results, so no work can be optimized away.
+     *
+     * @return the accumulated value
+     */
+    public long getBlackhole() {
+        return blackhole;
+    }
+
+    private void iteration(BenchmarkCase bench, int ops) {
+        bench.setUp(ops);
+        long sum = 0;
+        for (int op = 0; op < ops; op++) {
+            sum += bench.run(op);
+        }
+        blackhole = blackhole * 31 + sum;
+    }
+
+    private double cpuNanosPerOp(BenchmarkCase bench) {
+        int ops = bench.getOpsPerIteration();
+        long start = threads.getCurrentThreadCpuTime();
+        iteration(bench, ops);
+        return (double) (threads.getCurrentThreadCpuTime() - start) / ops;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,888 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark suite for the game's hot paths: full games, turns, command dispatch,
+ * item use, entity lookups, event triggering and loading large worlds.
+ *
+ * Compile together with the game sources and run, for example:
+ * <pre>
+ *   javac -d out src/*.java bench/*.java
+ *   java -cp out GameBenchmarks --out results.csv
+ *   java -cp out GameBenchmarks --baseline results.csv --threshold 10
+ *   java -cp out GameBenchmarks --pair game.full,game.full.journal --iterations 100
+ * </pre>
+ * Options: --filter NAME, --warmup N, --iterations N, --out FILE,
+ * --baseline FILE, --threshold PERCENT. Exits with status 1 when a benchmark
+ * regresses past the threshold. --pair A,B instead runs the two benchmarks in
+ * alternation and prints how much slower B is than A (see BenchmarkRunner.comparePaired).
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameBenchmarks {
+    private static final long SEED = 20260118L;
+    private static final int LARGE_WORLD_SIDE = 317; // 317 x 317 = 100,489 locations
+
+    private static Path largeTextWorld;
+    private static Map<Integer, GameManager> electionGames = new HashMap<>();
+    private static Path largeCompiledWorld;
+
+    /**
+     * Builds the list of all benchmarks.
+     *
+     * @return the benchmarks in run order
+     */
+    public static List<BenchmarkCase> all() {
+        List<BenchmarkCase> benches = new ArrayList<>();
+        benches.add(new FullGame());
+        benches.add(new JournalledGame());
+        benches.add(new NewGame());
+        benches.add(new EndTurn());
+        benches.add(new CrowdedEndTurn());
+        benches.add(new MovePlayer());
+        benches.add(new CommandDispatch());
+        benches.add(new LegacyCommandParse());
+        benches.add(new RegistryCommandParse());
+        benches.add(new UseItem());
+        benches.add(new LocationNpcs());
+        benches.add(new LocationFindItem());
+        benches.add(new PlayerAlliances());
+        benches.add(new EventByName());
+        benches.add(new EventTrigger());
+        benches.add(new WeightedEventDraw());
+        benches.add(new LoadTextWorld());
+        benches.add(new LoadCompiledWorld());
+        benches.add(new CompiledFirstVisit());
+        benches.add(new CompiledFindLocation());
+        benches.add(new CompiledGraph());
+        benches.add(new RouteRow());
+        benches.add(new RouteLookup());
+        benches.add(new Travel());
+        benches.add(new SnapshotSave());
+        benches.add(new SnapshotLoad());
+        benches.add(new ForkGame());
+        benches.add(new MctsDecision());
+        benches.add(new HistogramRecord());
+        benches.add(new ElectionTally());
+        benches.add(new ElectionRead(100_000));
+        benches.add(new ElectionRead(10_000_000));
+        benches.add(new ElectionUpdate());
+        return benches;
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args command line options (see class comment)
+     * @throws IOException if a CSV file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        String filter = null;
+        int warmup = 5;
+        int iterations = 10;
+        Path outFile = null;
+        Path baseline = null;
+        double threshold = 10;
+        String pair = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--filter": filter = args[i + 1]; break;
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--out": outFile = Path.of(args[i + 1]); break;
+                case "--baseline": baseline = Path.of(args[i + 1]); break;
+                case "--threshold": threshold = Double.parseDouble(args[i + 1]); break;
+                case "--pair": pair = args[i + 1]; break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations);
+        if (pair != null) {
+            List<BenchmarkCase> benches = all();
+            String[] names = pair.split(",");
+            BenchmarkCase a = find(benches, names[0]);
+            BenchmarkCase b = names.length == 2 ? find(benches, names[1]) : null;
+            if (a == null || b == null) {
+                System.out.println("--pair needs two benchmark names, e.g. game.full,game.full.journal");
+                return;
+            }
+            runner.comparePaired(a, b, System.out);
+            System.out.println("(blackhole " + runner.getBlackhole() + ")");
+            return;
+        }
+        List<BenchmarkResult> results = runner.runAll(all(), filter, System.out);
+
+        if (outFile != null) {
+            BenchmarkRunner.writeCsv(results, outFile);
+            System.out.println("Results written to " + outFile);
+        }
+        if (baseline != null) {
+            int regressions = BenchmarkRunner.compare(results, baseline, threshold, System.out);
+            if (regressions > 0) {
+                System.out.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+                System.exit(1);
+            }
+        }
+        System.out.println("(blackhole " + runner.getBlackhole() + ")");
+    }
+
+    /**
+     * Finds a benchmark by its full name.
+     *
+     * @param benches the benchmarks to look in
+     * @param name the benchmark name
+     * @return the benchmark, or null if there is none by that name
+     */
+    private static BenchmarkCase find(List<BenchmarkCase> benches, String name) {
+        for (BenchmarkCase bench : benches) {
+            if (bench.getName().equals(name)) return bench;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a silent, seeded game.
+     */
+    static GameManager newGame(long seed) {
+        return new GameManager(new Player("Benchmark", CharacterType.CAREER_POLITICIAN), NullSink.INSTANCE, seed);
+    }
+
+    /**
+     * Writes (once) a generated grid world of about 100,000 districts as a text
+     * file and as a compiled world.
+     *
+     * @param compiled true for the compiled file, false for the text file
+     * @return the file
+     */
+    static synchronized Path largeWorld(boolean compiled) {
+        if (largeTextWorld == null) {
+            try {
+                Path dir = Files.createTempDirectory("worlds");
+                dir.toFile().deleteOnExit();
+                largeTextWorld = dir.resolve("grid.world");
+                largeCompiledWorld = dir.resolve("grid.dpw");
+                largeTextWorld.toFile().deleteOnExit();
+                largeCompiledWorld.toFile().deleteOnExit();
+                writeGridWorld(largeTextWorld, LARGE_WORLD_SIDE);
+                WorldCompiler.compile(WorldFile.read(largeTextWorld), largeCompiledWorld);
+                System.out.printf("# Generated %d-location world: text %d KB, compiled %d KB%n",
+                        LARGE_WORLD_SIDE * LARGE_WORLD_SIDE,
+                        Files.size(largeTextWorld) / 1024, Files.size(largeCompiledWorld) / 1024);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return compiled ? largeCompiledWorld : largeTextWorld;
+    }
+
+    /**
+     * Writes a square grid of districts connected north/south/east/west, with an
+     * NPC in every tenth district and an item in every seventh.
+     *
+     * @param path the text world file to write
+     * @param side the grid size
+     * @throws IOException if the file cannot be written
+     */
+    static void writeGridWorld(Path path, int side) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(path)) {
+            for (int r = 0; r < side; r++) {
+                for (int c = 0; c < side; c++) {
+                    String name = "District " + r + "-" + c;
+                    out.write("location " + name + " | Ward " + (r * side + c) + " of the region.\n");
+                    if ((r * side + c) % 10 == 0) out.write("npc " + name + " | Voter " + r + "-" + c + " | neutral\n");
+                    if ((r * side + c) % 7 == 0) out.write("item " + name + " | Flyer | Campaign flyers | political | 5\n");
+                    if (r > 0) out.write("exit " + name + " | north | District " + (r - 1) + "-" + c + "\n");
+                    if (r < side - 1) out.write("exit " + name + " | south | District " + (r + 1) + "-" + c + "\n");
+                    if (c > 0) out.write("exit " + name + " | west | District " + r + "-" + (c - 1) + "\n");
+                    if (c < side - 1) out.write("exit " + name + " | east | District " + r + "-" + (c + 1) + "\n");
+                }
+            }
+            out.write("opponent Prime Minister\nopponent Opposition Leader\n");
+            out.write("ally Union Leader | 65 | 18\nally Campaign Manager | 80 | 20\n");
+            out.write("event Public Support | Your policies resonate with the public | 12 | 0\n");
+        }
+    }
+
+    /**
+     * A complete game played by the random bot.
+     */
+    static class FullGame implements BenchmarkCase {
+        private BatchSimulator simulator = new BatchSimulator(new RandomBotStrategy());
+        private long iteration;
+
+        public String getName() { return "game.full"; }
+        public int getOpsPerIteration() { return 500; }
+        public void setUp(int ops) { iteration++; }
+        public long run(int index) {
+            return simulator.playGame(SEED + iteration, index).ordinal();
+        }
+    }
+
+    /**
+     * The same games as game.full, recorded to a journal in a temporary file.
+     * The difference between the two is the cost of journalling; measure it with
+     * --pair game.full,game.full.journal, as it is smaller than the spread between runs.
+     */
+    static class JournalledGame implements BenchmarkCase {
+        private BatchSimulator simulator = new BatchSimulator(new RandomBotStrategy());
+        private long iteration;
+
+        JournalledGame() {
+            try {
+                Path file = Files.createTempFile("bench", ".dpj");
+                file.toFile().deleteOnExit();
+                simulator.setJournal(GameJournal.open(file, false));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public String getName() { return "game.full.journal"; }
+        public int getOpsPerIteration() { return 500; }
+        public void setUp(int ops) { iteration++; }
+        public long run(int index) {
+            return simulator.playGame(SEED + iteration, index).ordinal();
+        }
+    }
+
+    /**
+     * Constructing a new game session (world, opponents, allies, events).
+     */
+    static class NewGame implements BenchmarkCase {
+        public String getName() { return "game.new"; }
+        public int getOpsPerIteration() { return 5_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return newGame(SEED + index).getCurrentTurn();
+        }
+    }
+
+    /**
+     * A single endTurn on a fresh game.
+     */
+    static class EndTurn implements BenchmarkCase {
+        private GameManager[] games;
+
+        public String getName() { return "turn.endTurn"; }
+        public int getOpsPerIteration() { return 5_000; }
+        public void setUp(int ops) {
+            games = new GameManager[ops];
+            for (int i = 0; i < ops; i++) {
+                games[i] = newGame(SEED + i);
+            }
+        }
+        public long run(int index) {
+            games[index].endTurn();
+            return games[index].getCurrentTurn();
+        }
+    }
+
+    /**
+     * A single endTurn on a fresh game against 500 opponents, whose moves are
+     * decided on the common fork-join pool.
+     */
+    static class CrowdedEndTurn implements BenchmarkCase {
+        private WorldTemplate world;
+        private GameManager[] games;
+
+        CrowdedEndTurn() {
+            try {
+                Path file = Files.createTempFile("crowded", ".world");
+                file.toFile().deleteOnExit();
+                try (BufferedWriter out = Files.newBufferedWriter(file)) {
+                    out.write("location Capital | Where every candidate campaigns.\n");
+                    for (int i = 0; i < 500; i++) {
+                        out.write("opponent Candidate " + i + "\n");
+                    }
+                }
+                world = WorldFile.read(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public String getName() { return "turn.endTurn.500"; }
+        public int getOpsPerIteration() { return 200; }
+        public void setUp(int ops) {
+            games = new GameManager[ops];
+            for (int i = 0; i < ops; i++) {
+                games[i] = new GameManager(new Player("Benchmark", CharacterType.CAREER_POLITICIAN),
+                        NullSink.INSTANCE, new SessionRandom(SEED + i), world);
+            }
+        }
+        public long run(int index) {
+            games[index].endTurn();
+            return games[index].getCurrentTurn();
+        }
+    }
+
+    /**
+     * Walking back and forth between two locations by Direction.
+     */
+    static class MovePlayer implements BenchmarkCase {
+        private GameManager game = newGame(SEED);
+
+        public String getName() { return "move.direction"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            game.movePlayer((index & 1) == 0 ? Direction.NORTH : Direction.SOUTH);
+            return game.getCurrentLocation().getId();
+        }
+    }
+
+    /**
+     * Command parsing and dispatch over a mix of commands and aliases
+     * that do not change game state.
+     */
+    static class CommandDispatch implements BenchmarkCase {
+        private static final String[] LINES = {
+            "stats", "  look ", "inv", "opponents", "allies", "help", "H",
+            "Status", "i", "l", "move", "take", "bribe", "talk", "xyzzy plugh", "  "
+        };
+        private GameManager game = newGame(SEED);
+
+        public String getName() { return "command.dispatch"; }
+        public int getOpsPerIteration() { return 200_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            game.executeCommand(LINES[index % LINES.length]);
+            return game.getCurrentTurn();
+        }
+    }
+
+    /** Typical scripted command lines used by the parse benchmarks. */
+    static final String[] PARSE_LINES = {
+        "move north", "GO east", "take Voting Records", "  use   coffee ", "speech", "bribe Prime Minister",
+        "ally Media Magnate", "sabotage Corporate CEO", "pr", "talk Concerned Citizen", "stats", "end", "xyzzy"
+    };
+
+    /**
+     * Command line parsing as CommandProcessor did it before the registry:
+     * regex split, toLowerCase, then a string switch. Kept here for comparison.
+     */
+    static class LegacyCommandParse implements BenchmarkCase {
+        public String getName() { return "command.parse.legacy"; }
+        public int getOpsPerIteration() { return 500_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            String input = PARSE_LINES[index % PARSE_LINES.length].trim();
+            String[] parts = input.split("\\s+", 2);
+            String command = parts[0].toLowerCase();
+            String args = parts.length > 1 ? parts[1] : "";
+            int id;
+            switch (command) {
+                case "move": case "go": id = 1; break;
+                case "take": case "get": case "pickup": id = 2; break;
+                case "drop": id = 3; break;
+                case "use": id = 4; break;
+                case "speech": id = 5; break;
+                case "bribe": id = 6; break;
+                case "ally": case "alliance": case "negotiate": id = 7; break;
+                case "sabotage": case "attack": id = 8; break;
+                case "media": case "pr": id = 9; break;
+                case "talk": case "interact": case "speak": id = 10; break;
+                case "stats": case "status": id = 11; break;
+                case "end": case "endturn": id = 12; break;
+                default: id = 0;
+            }
+            return id + args.length();
+        }
+    }
+
+    /**
+     * Command line parsing with CommandTokenizer and the CommandRegistry lookup.
+     */
+    static class RegistryCommandParse implements BenchmarkCase {
+        private CommandTokenizer tokenizer = new CommandTokenizer();
+        private CommandRegistry registry = CommandRegistry.standard();
+
+        public String getName() { return "command.parse.registry"; }
+        public int getOpsPerIteration() { return 500_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            String input = PARSE_LINES[index % PARSE_LINES.length];
+            if (!tokenizer.tokenize(input)) return 0;
+            GameCommand command = registry.find(input, tokenizer.getCommandStart(), tokenizer.getCommandEnd());
+            return (command == null ? 0 : command.getName().length()) + tokenizer.args().length();
+        }
+    }
+
+    /**
+     * GameManager.useItem on a political item.
+     */
+    static class UseItem implements BenchmarkCase {
+        private GameManager[] games;
+
+        public String getName() { return "command.useItem"; }
+        public int getOpsPerIteration() { return 5_000; }
+        public void setUp(int ops) {
+            games = new GameManager[ops];
+            for (int i = 0; i < ops; i++) {
+                games[i] = newGame(SEED + i);
+                games[i].takeItem("Flyer");
+            }
+        }
+        public long run(int index) {
+            games[index].useItem("flyer");
+            return games[index].getPlayer().itemCount();
+        }
+    }
+
+    /**
+     * Location.getNPCs() read.
+     */
+    static class LocationNpcs implements BenchmarkCase {
+        private Location location = newGame(SEED).getCurrentLocation();
+
+        public String getName() { return "lookup.location.getNPCs"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return location.getNPCs().size();
+        }
+    }
+
+    /**
+     * Location.findItem by name.
+     */
+    static class LocationFindItem implements BenchmarkCase {
+        private Location location = newGame(SEED).getCurrentLocation();
+
+        public String getName() { return "lookup.location.findItem"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return location.findItem((index & 1) == 0 ? "coffee" : "Missing Item") == null ? 0 : 1;
+        }
+    }
+
+    /**
+     * Player.getAlliances() read.
+     */
+    static class PlayerAlliances implements BenchmarkCase {
+        private Player player = newGame(SEED).getPlayer();
+
+        PlayerAlliances() {
+            // Loyalty 0 makes the negotiation a certain success for a career politician
+            player.negotiateAlliance(new Ally("Benchmark Ally A", 0, 1));
+            player.negotiateAlliance(new Ally("Benchmark Ally B", 0, 1));
+        }
+
+        public String getName() { return "lookup.player.getAlliances"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return player.getAlliances().size();
+        }
+    }
+
+    /**
+     * EventSystem.getEventByName.
+     */
+    static class EventByName implements BenchmarkCase {
+        private EventSystem events = new EventSystem(new SessionRandom(SEED));
+
+        public String getName() { return "lookup.event.byName"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return events.getEventByName("grassroots support") == null ? 0 : 1;
+        }
+    }
+
+    /**
+     * Picking and triggering a random event on a silent player.
+     */
+    static class EventTrigger implements BenchmarkCase {
+        private EventSystem events = new EventSystem(new SessionRandom(SEED));
+        private Player player = newGame(SEED).getPlayer();
+
+        public String getName() { return "event.trigger"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            Event event = events.triggerRandomEvent();
+            event.trigger(player, NullSink.INSTANCE);
+            return (long) player.getPopularity();
+        }
+    }
+
+    /**
+     * Weighted draws from 10,000 events, a quarter of them under eight distinct
+     * conditions. The player alternates between low and high scandal risk every
+     * 1024 draws, so the eligible set changes and the group table is rebuilt.
+     */
+    static class WeightedEventDraw implements BenchmarkCase {
+        private EventSystem events;
+        private Player[] players = {
+            new Player("Low Risk", CharacterType.OUTSIDER),
+            new Player("High Risk", CharacterType.MAFIA_LEADER)
+        };
+
+        WeightedEventDraw() {
+            WorldTemplate world = new WorldTemplate();
+            for (int i = 0; i < 10_000; i++) {
+                EventCondition condition = i % 4 == 0
+                        ? EventCondition.parse("scandalRisk >= " + (i / 4 % 8) * 5) : null;
+                world.addEvent(new Event("Event " + i, "", 0, 0, 1 + i % 10, condition));
+            }
+            events = new EventSystem(world, new SessionRandom(SEED));
+        }
+
+        public String getName() { return "event.draw.10k"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return (long) events.triggerRandomEvent(players[(index >>> 10) & 1], null).getWeight();
+        }
+    }
+
+    /**
+     * Parsing the ~100k-location text world.
+     */
+    static class LoadTextWorld implements BenchmarkCase {
+        private Path file = largeWorld(false);
+
+        public String getName() { return "world.load.text.100k"; }
+        public int getOpsPerIteration() { return 1; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            try {
+                return WorldFile.read(file).getLocationCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Opening the compiled ~100k-location world and reaching the start location.
+     */
+    static class LoadCompiledWorld implements BenchmarkCase {
+        private Path file = largeWorld(true);
+
+        public String getName() { return "world.load.compiled.100k"; }
+        public int getOpsPerIteration() { return 1_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            try {
+                WorldTemplate world = WorldTemplate.load(file);
+                return world.getLocation(world.getStartId()).npcCount() + world.getLocationCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Decoding a location of the compiled world on its first visit.
+     */
+    static class CompiledFirstVisit implements BenchmarkCase {
+        private Path file = largeWorld(true);
+        private WorldTemplate world;
+
+        public String getName() { return "world.firstVisit.compiled"; }
+        public int getOpsPerIteration() { return 50_000; }
+        public void setUp(int ops) {
+            try {
+                world = WorldTemplate.load(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        public long run(int index) {
+            return world.getLocation(index * 2).getExitCount();
+        }
+    }
+
+    /**
+     * Building the whole-world adjacency of the compiled world.
+     */
+    static class CompiledGraph implements BenchmarkCase {
+        private Path file = largeWorld(true);
+
+        public String getName() { return "world.graph.compiled.100k"; }
+        public int getOpsPerIteration() { return 1; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            try {
+                return WorldTemplate.load(file).getGraph().getEdgeCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Looking up a location of the compiled world by name.
+     */
+    static class CompiledFindLocation implements BenchmarkCase {
+        private WorldTemplate world;
+
+        CompiledFindLocation() {
+            try {
+                world = WorldTemplate.load(largeWorld(true));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public String getName() { return "world.findLocation.compiled"; }
+        public int getOpsPerIteration() { return 100_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return world.findLocation((index & 1) == 0 ? "district 158-200" : "Nowhere");
+        }
+    }
+
+    /**
+     * Building one uncached route row of the 100k-location world (one breadth-first search).
+     */
+    static class RouteRow implements BenchmarkCase {
+        private RouteTable routes;
+        private int count;
+
+        RouteRow() {
+            try {
+                WorldGraph graph = WorldTemplate.load(largeWorld(true)).getGraph();
+                routes = new RouteTable(graph, 0);
+                routes.nextHop(0, 0); // fills the one cached row, which run() never asks for
+                count = graph.getLocationCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public String getName() { return "route.row.100k"; }
+        public int getOpsPerIteration() { return 20; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return routes.nextHop(0, 1 + (int) ((index * 7919L) % (count - 1)));
+        }
+    }
+
+    /**
+     * Next-hop lookups in the precomputed route table of the standard world.
+     */
+    static class RouteLookup implements BenchmarkCase {
+        private RouteTable routes = new RouteTable(WorldTemplate.standard().getGraph());
+        private int count = WorldTemplate.standard().getLocationCount();
+
+        public String getName() { return "route.nextHop"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { routes.precomputeAll(); }
+        public long run(int index) {
+            return routes.nextHop(index % count, (index >>> 3) % count);
+        }
+    }
+
+    /**
+     * Travelling back and forth between two locations two steps apart.
+     */
+    static class Travel implements BenchmarkCase {
+        private GameManager game = newGame(SEED);
+
+        public String getName() { return "move.travel"; }
+        public int getOpsPerIteration() { return 100_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            game.travelTo((index & 1) == 0 ? "University Campus" : "Town Square");
+            return game.getCurrentLocation().getId();
+        }
+    }
+
+    /**
+     * A mid-game session: a few turns in, with items taken and an ally recruited.
+     *
+     * @return the game
+     */
+    static GameManager midGame() {
+        GameManager game = newGame(SEED);
+        for (String command : new String[] {"take flyer", "take coffee", "speech", "end", "move east",
+                "take press pass", "media", "end", "move west", "ally Local Business Owner", "end"}) {
+            game.executeCommand(command);
+        }
+        return game;
+    }
+
+    /**
+     * Encoding a snapshot of a mid-game session.
+     */
+    static class SnapshotSave implements BenchmarkCase {
+        private GameManager game = midGame();
+
+        public String getName() { return "snapshot.save"; }
+        public int getOpsPerIteration() { return 100_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return GameSnapshot.save(game).length;
+        }
+    }
+
+    /**
+     * Loading a snapshot back into a running session.
+     */
+    static class SnapshotLoad implements BenchmarkCase {
+        private GameManager game = newGame(SEED);
+        private byte[] snapshot = GameSnapshot.save(midGame());
+
+        public String getName() { return "snapshot.load"; }
+        public int getOpsPerIteration() { return 100_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            GameSnapshot.load(game, snapshot);
+            return game.getCurrentTurn();
+        }
+    }
+
+    /**
+     * Forking a mid-game session.
+     */
+    static class ForkGame implements BenchmarkCase {
+        private GameManager game = midGame();
+
+        public String getName() { return "game.fork"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return game.fork(NullSink.INSTANCE).getCurrentTurn();
+        }
+    }
+
+    /**
+     * One MCTS decision of 1,000 rollouts on a single thread, from a mid-game session.
+     */
+    static class MctsDecision implements BenchmarkCase {
+        private MctsBotStrategy bot = new MctsBotStrategy(0, 1_000, 1);
+        private GameManager game = midGame();
+        private SessionRandom random = new SessionRandom(SEED);
+
+        public String getName() { return "mcts.decision.1k"; }
+        public int getOpsPerIteration() { return 20; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            return bot.nextCommand(game, random).length();
+        }
+    }
+
+    /**
+     * Recording one duration into a latency histogram, as every timed call does while metrics are on.
+     */
+    static class HistogramRecord implements BenchmarkCase {
+        private LatencyHistogram histogram = new LatencyHistogram();
+
+        public String getName() { return "metrics.histogram.record"; }
+        public int getOpsPerIteration() { return 1_000_000; }
+        public void setUp(int ops) { }
+        public long run(int index) {
+            histogram.record(100 + (index & 0xFFFF));
+            return index;
+        }
+    }
+
+    /**
+     * Gets a game in the standard world with an electorate of the given size, generating
+     * it on first use. Ten million voters take about 3 seconds and 120 MB, so the
+     * election benchmarks share them.
+     *
+     * @param voters the number of voters, spread over the standard world's eight districts
+     * @return the game, shared by every benchmark that asks for the same size
+     */
+    private static synchronized GameManager electionGame(int voters) {
+        GameManager game = electionGames.get(voters);
+        if (game == null) {
+            WorldTemplate standard = WorldTemplate.standard();
+            Electorate electorate = Electorate.generate(standard, voters / standard.getLocationCount(), SEED);
+            game = new GameManager(new Player("Benchmark", CharacterType.CAREER_POLITICIAN), NullSink.INSTANCE,
+                    new SessionRandom(SEED), standard.withElectorate(electorate));
+            electionGames.put(voters, game);
+        }
+        return game;
+    }
+
+    /**
+     * A full tally of 10 million voters, recounting each one.
+     */
+    static class ElectionTally implements BenchmarkCase {
+        private GameManager game;
+
+        public String getName() { return "election.tally.10m"; }
+        public int getOpsPerIteration() { return 10; }
+        public void setUp(int ops) {
+            if (game == null) game = electionGame(10_000_000);
+        }
+        public long run(int index) {
+            return (long) game.tallyVotes().getPlayerVotes();
+        }
+    }
+
+    /**
+     * Reading what the polls command shows from the running totals: vote share,
+     * lead, rank, one opponent's share and one district's share. Each read picks
+     * its district and opponent from the index, so it cannot be hoisted out of
+     * the loop. Costs the same for any electorate; compare the two sizes.
+     */
+    static class ElectionRead implements BenchmarkCase {
+        private static final int MASK = 1023;
+
+        private int voters;
+        private VoteCount votes;
+        private int[] districts;
+        private int[] slots;
+
+        ElectionRead(int voters) {
+            this.voters = voters;
+        }
+
+        public String getName() { return "election.read." + (voters >= 1_000_000 ? voters / 1_000_000 + "m" : voters / 1_000 + "k"); }
+        public int getOpsPerIteration() { return 10_000_000; }
+        public void setUp(int ops) {
+            if (votes != null) return;
+            GameManager game = electionGame(voters);
+            votes = game.getVotes();
+            Electorate electorate = game.getWorld().getElectorate();
+            districts = new int[MASK + 1];
+            slots = new int[MASK + 1];
+            for (int i = 0; i <= MASK; i++) {
+                districts[i] = i % electorate.getDistrictCount();
+                slots[i] = i % electorate.getOpponentCount();
+            }
+        }
+        public long run(int index) {
+            int i = index & MASK;
+            return (long) ((votes.getPlayerShare() + votes.getLeadMargin() + votes.getOpponentShare(slots[i])
+                    + votes.getDistrictPlayerShare(districts[i])) * 1_000_000) + votes.getRank();
+        }
+    }
+
+    /**
+     * Moving the running totals after a speech-sized change in the player's
+     * popularity among 10 million voters: one binary search per district and opponent.
+     */
+    static class ElectionUpdate implements BenchmarkCase {
+        private VoteCount votes;
+
+        public String getName() { return "election.update.10m"; }
+        public int getOpsPerIteration() { return 100_000; }
+        public void setUp(int ops) {
+            if (votes == null) votes = new VoteCount(electionGame(10_000_000).getVotes());
+        }
+        public long run(int index) {
+            votes.setPlayerPopularity(40 + (index & 31));
+            return votes.getRank();
+        }
+    }
+}
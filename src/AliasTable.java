@@ -0,0 +1,105 @@
+/**
+ * Samples indices in proportion to fixed weights in constant time, using
+ * Vose's alias method. Building the table takes time linear in its size.
+ *
+ * Each draw uses a single value from the random source. When every weight is
+ * equal the draw is exactly random.nextInt(size()), so equal-weight tables pick
+ * the same entries as a plain uniform choice would.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class AliasTable {
+    private double[] probability;
+    private int[] alias;
+    private boolean uniform;
+    private double totalWeight;
+
+    /**
+     * Builds a table over the given weights.
+     *
+     * @param weights the weight of each index; none may be negative
+     * @throws IllegalArgumentException if a weight is negative or not a number
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        boolean equal = true;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight);
+            }
+            total += weight;
+            equal &= weight == weights[0];
+        }
+        this.totalWeight = total;
+        this.uniform = equal && total > 0;
+        this.probability = new double[n];
+        this.alias = new int[n];
+        if (uniform || total == 0) return;
+
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        double[] scaled = new double[n];
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding error
+        while (largeCount > 0) probability[large[--largeCount]] = 1;
+        while (smallCount > 0) probability[small[--smallCount]] = 1;
+    }
+
+    /**
+     * Draws an index. Does not allocate.
+     *
+     * @param random the random source
+     * @return an index chosen in proportion to its weight, or -1 if every weight is zero
+     */
+    public int sample(SessionRandom random) {
+        int n = probability.length;
+        if (uniform) return random.nextInt(n);
+        if (totalWeight == 0) return -1;
+
+        double u = random.nextDouble() * n;
+        int column = Math.min((int) u, n - 1);
+        return u - column < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Gets the number of indices.
+     *
+     * @return the table size
+     */
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * Gets the sum of all weights.
+     *
+     * @return the total weight
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+}
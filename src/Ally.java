@@ -1,6 +1,7 @@
 /**
  * Represents an ally character that can join the player's campaign.
  * Allies provide influence boosts and have loyalty requirements.
+ * The allies of a WorldTemplate are shared by every game session played in it.
  *
  * @author Usman
  * @version 1.0
@@ -9,6 +10,7 @@ public class Ally {
     private String name;
     private double loyalty;
     private double influenceBoost;
+    private int id = -1;
 
     /**
      * Constructs a new Ally with specified attributes.
@@ -29,6 +31,21 @@ public class Ally {
      */
     public String getName() { return name; }
 
+    /**
+     * Gets the ally's id: its index among its world's allies.
+     * @return the id, or -1 if the ally has not been added to a world
+     */
+    public int getId() { return id; }
+
+    /**
+     * Gives the ally its id when it is added to a world. An ally belongs to one world.
+     *
+     * @param id the ally's index among the world's allies
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Gets the loyalty value.
      * @return the loyalty value
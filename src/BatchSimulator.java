@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs many complete games headlessly and in parallel.
+ * Each game gets its own Player and GameManager and is driven by a BotStrategy;
+ * batches are split across all cores with a fork-join pool.
+ * Game narration goes to a NullSink so no text is produced at all.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class BatchSimulator {
+    private static final int MAX_COMMANDS_PER_GAME = 1000;
+    private static final int GAMES_PER_TASK = 64;
+    private static final long BOT_STREAM = 0x5DEECE66DL;
+
+    private BotStrategy strategy;
+    private CharacterType characterType;
+    private WorldTemplate world;
+    private GameRules rules;
+    private GameJournal journal;
+    private boolean checkVotes;
+    private LongAdder voteChecks = new LongAdder();
+    private DoubleAccumulator largestVoteDifference = new DoubleAccumulator(Math::max, 0);
+    private ForkJoinPool pool;
+
+    /**
+     * Constructs a BatchSimulator that rotates through all character types.
+     *
+     * @param strategy the bot that plays every game
+     */
+    public BatchSimulator(BotStrategy strategy) {
+        this(strategy, null);
+    }
+
+    /**
+     * Constructs a BatchSimulator for a fixed character type.
+     *
+     * @param strategy the bot that plays every game
+     * @param characterType the character type to play, or null to rotate through all types
+     */
+    public BatchSimulator(BotStrategy strategy, CharacterType characterType) {
+        this.strategy = strategy;
+        this.characterType = characterType;
+        this.world = WorldTemplate.standard();
+        this.rules = GameRules.standard();
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Sets the world the games are played in. Defaults to the standard world.
+     *
+     * @param world the world template
+     */
+    public void setWorld(WorldTemplate world) {
+        this.world = world;
+    }
+
+    /**
+     * Sets the rules every game is played by. Defaults to the standard rules.
+     *
+     * @param rules the balance constants
+     */
+    public void setRules(GameRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Records every game to a journal. Games are handed to the journal when they
+     * end and written in large batches.
+     *
+     * @param journal the journal, or null for none
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Recounts every voter after each command of every game and compares the
+     * result with the game's running vote totals. A developer check, and slow:
+     * a mismatch stops the batch with an IllegalStateException.
+     *
+     * @param checkVotes true to check games played in a world with an electorate
+     */
+    public void setCheckVotes(boolean checkVotes) {
+        this.checkVotes = checkVotes;
+    }
+
+    /**
+     * Gets how many recounts setCheckVotes() has made.
+     *
+     * @return the number of recounts
+     */
+    public long getVoteChecks() {
+        return voteChecks.sum();
+    }
+
+    /**
+     * Gets the largest difference a recount found, all within rounding.
+     *
+     * @return the difference in votes
+     */
+    public double getLargestVoteDifference() {
+        return largestVoteDifference.get();
+    }
+
+    /**
+     * Plays the given number of games across all cores and collects the results.
+     *
+     * @param games the number of games to play
+     * @return the aggregated report
+     */
+    public SimulationReport run(int games) {
+        return run(games, new SessionRandom().nextLong());
+    }
+
+    /**
+     * Plays a reproducible batch of games.
+     * Game i always gets the same seed for a given batch seed, whatever thread runs it.
+     *
+     * @param games the number of games to play
+     * @param seed the batch seed
+     * @return the aggregated report
+     */
+    public SimulationReport run(int games, long seed) {
+        long start = System.nanoTime();
+        long[] counts = pool.invoke(new GameBatchTask(seed, 0, games));
+        return new SimulationReport(counts, System.nanoTime() - start, seed);
+    }
+
+    /**
+     * Plays one complete game from start to finish.
+     *
+     * @param batchSeed the seed of the batch the game belongs to
+     * @param index the game number within the batch (used to pick a character type and seed)
+     * @return how the game ended
+     * @throws IllegalStateException if vote checks are on and a recount disagrees
+     */
+    public GameOutcome playGame(long batchSeed, int index) {
+        CharacterType type = characterType;
+        if (type == null) {
+            CharacterType[] types = CharacterType.values();
+            type = types[index % types.length];
+        }
+
+        long gameSeed = SessionRandom.deriveSeed(batchSeed, index);
+        GameManager game = new GameManager(new Player("Simulated Candidate", type, rules), NullSink.INSTANCE,
+                new SessionRandom(gameSeed), world);
+        SessionJournal session = journal == null ? null : journal.begin(game);
+        SessionRandom botRandom = new SessionRandom(gameSeed ^ BOT_STREAM);
+        int commands = 0;
+        while (game.isGameRunning() && commands < MAX_COMMANDS_PER_GAME) {
+            game.executeCommand(strategy.nextCommand(game, botRandom));
+            commands++;
+            if (checkVotes && game.getVotes() != null) {
+                largestVoteDifference.accumulate(game.getVotes().check(game.getPlayer(), game.getOpponents()));
+                voteChecks.increment();
+            }
+        }
+        if (session != null) {
+            try {
+                session.end(game);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return game.getOutcome();
+    }
+
+    /**
+     * Fork-join task that plays a range of games, splitting until the range is small.
+     */
+    @SuppressWarnings("serial")
+    private class GameBatchTask extends RecursiveTask<long[]> {
+        private long seed;
+        private int from;
+        private int to;
+
+        GameBatchTask(long seed, int from, int to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                long[] counts = new long[GameOutcome.values().length];
+                for (int i = from; i < to; i++) {
+                    counts[playGame(seed, i).ordinal()]++;
+                }
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            GameBatchTask left = new GameBatchTask(seed, from, mid);
+            left.fork();
+            long[] counts = new GameBatchTask(seed, mid, to).compute();
+            long[] leftCounts = left.join();
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += leftCounts[i];
+            }
+            return counts;
+        }
+    }
+}
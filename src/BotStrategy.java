@@ -0,0 +1,18 @@
+/**
+ * Strategy used to drive a game without a human at the keyboard.
+ * Implementations look at the current game state and return the next command line.
+ * Bots get their own random stream so their choices never disturb the game's.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public interface BotStrategy {
+    /**
+     * Chooses the next command to execute.
+     *
+     * @param game the game being played
+     * @param random the bot's own random source
+     * @return a command line such as "speech" or "move north"
+     */
+    String nextCommand(GameManager game, SessionRandom random);
+}
@@ -0,0 +1,59 @@
+/**
+ * Output sink that collects a session's text in memory.
+ * Used when output has to be sent somewhere other than the console,
+ * e.g. back over a network connection.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class BufferedSink implements OutputSink {
+    private StringBuilder buffer;
+
+    /**
+     * Constructs an empty BufferedSink.
+     */
+    public BufferedSink() {
+        this.buffer = new StringBuilder(256);
+    }
+
+    @Override
+    public void println(String text) {
+        buffer.append(text).append('\n');
+    }
+
+    @Override
+    public void print(String text) {
+        buffer.append(text);
+    }
+
+    @Override
+    public void println() {
+        buffer.append('\n');
+    }
+
+    /**
+     * Gets everything written so far without clearing it.
+     *
+     * @return the buffered text
+     */
+    public String getText() {
+        return buffer.toString();
+    }
+
+    /**
+     * Returns the buffered text and clears the buffer.
+     *
+     * @return the text written since the last drain
+     */
+    public String drain() {
+        String text = buffer.toString();
+        buffer.setLength(0);
+        return text;
+    }
+
+    /**
+     * Gets the number of buffered characters.
+     * @return the buffer length
+     */
+    public int length() { return buffer.length(); }
+}
@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 text lines straight from an NIO channel.
+ * Keeps one small byte buffer and no locks, so it is cheap to hold per session
+ * and never pins a virtual thread while it waits for input.
+ *
+ * Lines end with '\n'; a trailing '\r' is removed. A line longer than the
+ * reader's limit fails with an IOException instead of growing the line buffer
+ * without bound, and the buffer is shrunk back after any unusually long line.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class ChannelLineReader {
+    private static final int RETAINED_LINE_BYTES = 1024;
+
+    private ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private byte[] line;
+    private int lineLength;
+    private int maxLineLength;
+    private int initialLineBytes;
+    private boolean endOfStream;
+
+    /**
+     * Constructs a ChannelLineReader.
+     *
+     * @param channel the channel to read from
+     * @param bufferSize the read buffer size in bytes
+     * @param maxLineLength the longest line accepted, in bytes
+     */
+    public ChannelLineReader(ReadableByteChannel channel, int bufferSize, int maxLineLength) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+        this.maxLineLength = maxLineLength;
+        this.initialLineBytes = Math.min(Math.min(bufferSize, maxLineLength), 128);
+        this.line = new byte[initialLineBytes];
+    }
+
+    /**
+     * Reads the next line, blocking until one is available.
+     *
+     * @return the line without its terminator, or null at end of stream
+     * @throws IOException if reading fails or the line is longer than the limit
+     */
+    public String readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    return takeLine();
+                }
+                append(b);
+            }
+            if (endOfStream || !fill()) {
+                endOfStream = true;
+                return lineLength > 0 ? takeLine() : null;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private void append(byte b) throws IOException {
+        if (lineLength == line.length) {
+            if (lineLength >= maxLineLength) {
+                lineLength = 0;
+                shrink();
+                throw new IOException("Line longer than " + maxLineLength + " bytes");
+            }
+            line = Arrays.copyOf(line, Math.min(line.length * 2, maxLineLength));
+        }
+        line[lineLength++] = b;
+    }
+
+    private String takeLine() {
+        int length = lineLength;
+        if (length > 0 && line[length - 1] == '\r') length--;
+        lineLength = 0;
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        shrink();
+        return text;
+    }
+
+    private void shrink() {
+        if (line.length > RETAINED_LINE_BYTES) {
+            line = new byte[initialLineBytes];
+        }
+    }
+}
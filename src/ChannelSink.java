@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output sink that sends text to an NIO channel, such as a client connection.
+ * Text is buffered until flush() is called.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class ChannelSink implements OutputSink {
+    private static final int MAX_RETAINED_CHARS = 4096;
+
+    private WritableByteChannel channel;
+    private StringBuilder buffer;
+    private boolean failed;
+
+    /**
+     * Constructs a ChannelSink.
+     *
+     * @param channel where the text is sent
+     */
+    public ChannelSink(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = new StringBuilder(256);
+    }
+
+    @Override
+    public void println(String text) {
+        buffer.append(text).append('\n');
+    }
+
+    @Override
+    public void print(String text) {
+        buffer.append(text);
+    }
+
+    @Override
+    public void println() {
+        buffer.append('\n');
+    }
+
+    /**
+     * Sends everything written since the last flush.
+     *
+     * @return false if sending has failed (e.g. the client disconnected)
+     */
+    public boolean flush() {
+        if (failed) return false;
+        if (buffer.length() == 0) return true;
+
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        buffer.setLength(0);
+        if (buffer.capacity() > MAX_RETAINED_CHARS) {
+            // Don't let one long help screen pin a big buffer for an idle session
+            buffer.trimToSize();
+        }
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            failed = true;
+        }
+        return !failed;
+    }
+}
@@ -7,6 +7,7 @@
 public abstract class Character {
     protected String name;
     protected double popularity;
+    protected OutputSink output;
 
     /**
      * Constructs a Character with name and initial popularity.
@@ -17,6 +18,7 @@ public abstract class Character {
     public Character(String name, double popularity) {
         this.name = name;
         this.popularity = popularity;
+        this.output = ConsoleSink.INSTANCE;
     }
 
     /**
@@ -26,7 +28,17 @@ public abstract class Character {
      */
     public void updatePopularity(double amount) {
         this.popularity += amount;
-        System.out.println(name + " popularity updated: " + popularity);
+        output.record(NarrationKind.POPULARITY, name, popularity);
+        if (output.isEnabled()) output.println(name + " popularity updated: " + popularity);
+    }
+
+    /**
+     * Sets the sink the character's narration is written to.
+     *
+     * @param output the new OutputSink
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
     }
 
     /**
@@ -0,0 +1,40 @@
+/**
+ * Enum of the sections commands are grouped into on the help screen.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public enum CommandCategory {
+    /** Moving between locations */
+    MOVEMENT("MOVEMENT"),
+
+    /** Picking up, dropping and using items */
+    ITEMS("ITEMS"),
+
+    /** Speeches, bribes, alliances and other campaign actions */
+    CAMPAIGN_ACTIONS("CAMPAIGN ACTIONS"),
+
+    /** Commands that only display information */
+    INFORMATION("INFORMATION"),
+
+    /** Ending turns and quitting */
+    GAME_CONTROL("GAME CONTROL"),
+
+    /** Commands for whoever runs the process; left out of server sessions */
+    ADMIN("ADMIN");
+
+    private final String title;
+
+    CommandCategory(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Gets the heading shown on the help screen.
+     *
+     * @return the title
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one player command, from lookup to the end of
+ * everything it triggered. Off unless a recording enables
+ * "democraticprocess.Command"; while off, the event is never filled in or committed.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+@Name("democraticprocess.Command")
+@Label("Game Command")
+@Description("A player command and how long it took")
+@Category({"Democratic Process", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public class CommandFlightEvent extends jdk.jfr.Event {
+    @Label("Command")
+    String command;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Turn")
+    int turn;
+}
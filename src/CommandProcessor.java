@@ -1,3 +1,9 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -8,9 +14,19 @@ import java.util.Scanner;
  * @version 1.0
  */
 public class CommandProcessor {
+    static final Path DEFAULT_SAVE_DIRECTORY = Path.of("saves");
+    private static final String DEFAULT_SAVE = "game";
+    private static final int POLLED_OPPONENTS = 5;
+
     private GameManager gameManager;
     private Scanner scanner;
     private boolean running;
+    private OutputSink output;
+    private CommandRegistry registry;
+    private CommandTokenizer tokenizer;
+    private SessionJournal journal;
+    private Path saveDirectory;
+    private SessionParking parking;
 
     /**
      * Constructs a new CommandProcessor for the given game.
@@ -18,8 +34,21 @@ public class CommandProcessor {
      * @param gameManager the GameManager instance to control
      */
     public CommandProcessor(GameManager gameManager) {
+        this(gameManager, CommandRegistry.standard());
+    }
+
+    /**
+     * Constructs a new CommandProcessor that looks commands up in the given registry.
+     *
+     * @param gameManager the GameManager instance to control
+     * @param registry the commands this processor understands
+     */
+    public CommandProcessor(GameManager gameManager, CommandRegistry registry) {
         this.gameManager = gameManager;
-        this.scanner = new Scanner(System.in);
+        this.output = gameManager.getOutput();
+        this.registry = registry;
+        this.tokenizer = new CommandTokenizer();
+        this.saveDirectory = DEFAULT_SAVE_DIRECTORY;
         this.running = true;
     }
 
@@ -27,254 +56,466 @@ public class CommandProcessor {
      * Starts the main game loop, processing commands until game ends.
      */
     public void start() {
-        System.out.println("Welcome to Democratic Process!");
-        System.out.println("Type 'help' for a list of commands.\n");
+        scanner = new Scanner(System.in);
+        printWelcome();
+
+        while (running && gameManager.isGameRunning()) {
+            output.print("> ");
+            execute(scanner.nextLine());
+            commitJournal();
+        }
+
+        scanner.close();
+    }
+
+    /**
+     * Writes the journal out after each interactive command, so a crash loses nothing.
+     * Stops journalling if the journal cannot be written.
+     */
+    private void commitJournal() {
+        if (journal == null) return;
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            output.println("Journal write failed, no longer recording: " + e.getMessage());
+            journal = null;
+        }
+    }
+
+    /**
+     * Prints the welcome message and the starting location.
+     */
+    public void printWelcome() {
+        output.println("Welcome to Democratic Process!");
+        output.println("Type 'help' for a list of commands.\n");
 
         gameManager.displayCurrentLocation();
+    }
 
-        while (running && gameManager.isGameRunning()) {
-            System.out.print("> ");
-            String input = scanner.nextLine().trim();
+    /**
+     * Parses and executes a single line of input.
+     * Blank lines are ignored.
+     *
+     * @param input the raw command line
+     */
+    public void execute(String input) {
+        if (!tokenizer.tokenize(input)) return;
+
+        GameCommand command = registry.find(input, tokenizer.getCommandStart(), tokenizer.getCommandEnd());
+        if (command == null) {
+            GameMetrics.count("command.unknown");
+            if (output.isEnabled()) {
+                output.println("Unknown command: '" + tokenizer.command() + "'. Type 'help' for available commands.");
+            }
+            return;
+        }
+        String args = tokenizer.args();
+        if (journal != null) journal.record(command, args);
+        CommandFlightEvent flight = new CommandFlightEvent();
+        flight.begin();
+        long start = GameMetrics.start();
+        command.execute(this, args);
+        gameManager.countVotes();
+        GameMetrics.stop(command, start);
+        if (flight.shouldCommit()) {
+            flight.command = command.getName();
+            flight.arguments = args;
+            flight.turn = gameManager.getCurrentTurn();
+            flight.commit();
+        }
+    }
+
+    /**
+     * Sets the journal that accepted commands are recorded to.
+     *
+     * @param journal the session's journal, or null for none
+     */
+    public void setJournal(SessionJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the journal that accepted commands are recorded to.
+     *
+     * @return the SessionJournal, or null if there is none
+     */
+    public SessionJournal getJournal() {
+        return journal;
+    }
 
-            if (input.isEmpty()) continue;
+    /**
+     * Sets the commands this session understands, e.g. the server registry for a remote player.
+     *
+     * @param registry the registry
+     */
+    public void setRegistry(CommandRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Gets the commands this session understands.
+     *
+     * @return the registry
+     */
+    public CommandRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Sets where this session's games are saved and loaded from. Sessions sharing
+     * a process, such as remote players on a server, must not share a directory.
+     *
+     * @param directory the save directory, or null to turn save and load off
+     */
+    public void setSaveDirectory(Path directory) {
+        this.saveDirectory = directory;
+    }
+
+    /**
+     * Gets where this session's games are saved and loaded from.
+     *
+     * @return the save directory, or null if save and load are off
+     */
+    public Path getSaveDirectory() {
+        return saveDirectory;
+    }
+
+    /**
+     * Sets where the park command leaves this session's game.
+     *
+     * @param parking the server's parking, or null to turn park off
+     */
+    public void setParking(SessionParking parking) {
+        this.parking = parking;
+    }
+
+    /**
+     * Gets where the park command leaves this session's game.
+     *
+     * @return the server's parking, or null if park is off
+     */
+    public SessionParking getParking() {
+        return parking;
+    }
+
+    /**
+     * Returns whether the player is still issuing commands (has not quit).
+     *
+     * @return true until the quit command is processed
+     */
+    public boolean isRunning() {
+        return running;
+    }
 
-            String[] parts = input.split("\\s+", 2);
-            String command = parts[0].toLowerCase();
-            String args = parts.length > 1 ? parts[1] : "";
+    // Command handlers, registered in CommandRegistry
 
-            processCommand(command, args);
+    void move(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify a direction: north, south, east, west");
+        } else {
+            gameManager.movePlayer(args);
         }
+    }
 
-        scanner.close();
+    void travel(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify where to travel to");
+        } else {
+            gameManager.travelTo(args);
+        }
+    }
+
+    void take(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify which item to take");
+        } else {
+            gameManager.takeItem(args);
+        }
+    }
+
+    void drop(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify which item to drop");
+        } else {
+            gameManager.dropItem(args);
+        }
+    }
+
+    void use(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify which item to use");
+        } else {
+            gameManager.useItem(args);
+        }
+    }
+
+    void speech(String args) {
+        gameManager.playerGiveSpeech();
+    }
+
+    void bribe(String args) {
+        if (!args.isEmpty()) {
+            gameManager.playerBribe(args);
+            return;
+        }
+        if (!output.isEnabled()) return;
+        output.println("Specify which opponent to bribe");
+        output.println("Available opponents:");
+        for (var opp : gameManager.getOpponents()) {
+            output.println("  - " + opp.getName());
+        }
+    }
+
+    void ally(String args) {
+        if (!args.isEmpty()) {
+            gameManager.playerNegotiateAlliance(args);
+            return;
+        }
+        if (!output.isEnabled()) return;
+        output.println("Specify which ally to negotiate with");
+        output.println("Available allies:");
+        for (var ally : gameManager.getAvailableAllies()) {
+            output.println("  - " + ally.getName() +
+                    " (Loyalty: " + ally.getLoyalty() +
+                    ", Influence: +" + ally.getInfluenceBoost() + ")");
+        }
+    }
+
+    void sabotage(String args) {
+        if (!args.isEmpty()) {
+            gameManager.playerSabotage(args);
+            return;
+        }
+        if (!output.isEnabled()) return;
+        output.println("Specify which opponent to sabotage");
+        output.println("Available opponents:");
+        for (var opp : gameManager.getOpponents()) {
+            output.println("  - " + opp.getName() +
+                    " (Popularity: " + String.format("%.1f", opp.getPopularity()) + "%)");
+        }
+    }
+
+    void media(String args) {
+        gameManager.playerManageMedia();
+    }
+
+    void talk(String args) {
+        if (args.isEmpty()) {
+            output.println("Specify which NPC to talk to");
+        } else {
+            gameManager.playerInteractNPC(args);
+        }
+    }
+
+    void stats(String args) {
+        gameManager.displayPlayerStats();
+    }
+
+    void inventory(String args) {
+        gameManager.displayInventory();
+    }
+
+    void look(String args) {
+        gameManager.displayCurrentLocation();
+    }
+
+    void opponents(String args) {
+        displayOpponents();
+    }
+
+    void allies(String args) {
+        displayAllies();
+    }
+
+    void help(String args) {
+        displayHelp();
+    }
+
+    void metrics(String args) {
+        output.print(GameMetrics.report());
+    }
+
+    void polls(String args) {
+        displayPolls();
+    }
+
+    void endTurn(String args) {
+        gameManager.endTurn();
+    }
+
+    void quit(String args) {
+        running = false;
+        output.println("Thanks for playing!");
+    }
+
+    void park(String args) {
+        if (parking == null) {
+            output.println("Parking is only available when playing on a server.");
+            return;
+        }
+        try {
+            String token = parking.park(gameManager);
+            running = false;
+            output.println("Game parked. Reconnect and enter 'resume " + token + "' to carry on.");
+        } catch (IOException e) {
+            output.println("Could not park the game: " + e.getMessage());
+        }
+    }
+
+    void save(String args) {
+        Path file = saveFile(args);
+        if (file == null) return;
+        try {
+            byte[] snapshot = GameSnapshot.save(gameManager);
+            Files.createDirectories(saveDirectory);
+            Files.write(file, snapshot);
+            output.println("Game saved to " + file + " (" + snapshot.length + " bytes).");
+        } catch (IOException e) {
+            output.println("Could not save the game: " + e.getMessage());
+        }
+    }
+
+    void load(String args) {
+        Path file = saveFile(args);
+        if (file == null) return;
+        try {
+            GameSnapshot.load(gameManager, Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            output.println("There is no saved game called '" + (args.isEmpty() ? DEFAULT_SAVE : args) + "'.");
+            return;
+        } catch (IOException | IllegalArgumentException e) {
+            output.println("Could not load the game: " + e.getMessage());
+            return;
+        }
+        output.println("Game loaded from " + file + ". Turn " + gameManager.getCurrentTurn() + ".");
+        gameManager.displayCurrentLocation();
     }
 
     /**
-     * Processes a single command with its arguments.
+     * Gets the file a save name refers to.
+     * Names are restricted so that a player cannot write outside the save directory.
      *
-     * @param command the command to execute
-     * @param args the command arguments
+     * @param name the save name, or empty for the default
+     * @return the file, or null if the name is not allowed or saving is off
      */
-    private void processCommand(String command, String args) {
-        switch (command) {
-            case "move":
-            case "go":
-                if (args.isEmpty()) {
-                    System.out.println("Specify a direction: north, south, east, west");
-                } else {
-                    gameManager.movePlayer(args.toLowerCase());
-                }
-                break;
-
-            case "take":
-            case "get":
-            case "pickup":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which item to take");
-                } else {
-                    gameManager.takeItem(args);
-                }
-                break;
-
-            case "drop":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which item to drop");
-                } else {
-                    gameManager.dropItem(args);
-                }
-                break;
-
-            case "use":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which item to use");
-                } else {
-                    gameManager.useItem(args);
-                }
-                break;
-
-            case "speech":
-                gameManager.playerGiveSpeech();
-                break;
-
-            case "bribe":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which opponent to bribe");
-                    System.out.println("Available opponents:");
-                    for (var opp : gameManager.getOpponents()) {
-                        System.out.println("  - " + opp.getName());
-                    }
-                } else {
-                    gameManager.playerBribe(args);
-                }
-                break;
-
-            case "ally":
-            case "alliance":
-            case "negotiate":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which ally to negotiate with");
-                    System.out.println("Available allies:");
-                    for (var ally : gameManager.getAvailableAllies()) {
-                        System.out.println("  - " + ally.getName() +
-                                " (Loyalty: " + ally.getLoyalty() +
-                                ", Influence: +" + ally.getInfluenceBoost() + ")");
-                    }
-                } else {
-                    gameManager.playerNegotiateAlliance(args);
-                }
-                break;
-
-            case "sabotage":
-            case "attack":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which opponent to sabotage");
-                    System.out.println("Available opponents:");
-                    for (var opp : gameManager.getOpponents()) {
-                        System.out.println("  - " + opp.getName() +
-                                " (Popularity: " + String.format("%.1f", opp.getPopularity()) + "%)");
-                    }
-                } else {
-                    gameManager.playerSabotage(args);
-                }
-                break;
-
-            case "media":
-            case "pr":
-                gameManager.playerManageMedia();
-                break;
-
-            case "talk":
-            case "interact":
-            case "speak":
-                if (args.isEmpty()) {
-                    System.out.println("Specify which NPC to talk to");
-                } else {
-                    gameManager.playerInteractNPC(args);
-                }
-                break;
-
-            case "stats":
-            case "status":
-                gameManager.displayPlayerStats();
-                break;
-
-            case "inventory":
-            case "inv":
-            case "i":
-                gameManager.displayInventory();
-                break;
-
-            case "location":
-            case "look":
-            case "l":
-                gameManager.displayCurrentLocation();
-                break;
-
-            case "opponents":
-                displayOpponents();
-                break;
-
-            case "allies":
-                displayAllies();
-                break;
-
-            case "help":
-            case "h":
-            case "?":
-                displayHelp();
-                break;
-
-            case "end":
-            case "endturn":
-                gameManager.endTurn();
-                break;
-
-            case "quit":
-            case "exit":
-            case "q":
-                running = false;
-                System.out.println("Thanks for playing!");
-                break;
-
-            default:
-                System.out.println("Unknown command: '" + command + "'. Type 'help' for available commands.");
+    private Path saveFile(String name) {
+        if (saveDirectory == null) {
+            output.println("Saving and loading are not available in this session.");
+            return null;
         }
+        if (name.isEmpty()) name = DEFAULT_SAVE;
+        boolean valid = name.length() <= 64;
+        for (int i = 0; i < name.length() && valid; i++) {
+            char c = name.charAt(i);
+            valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+        }
+        if (!valid) {
+            output.println("Save names may only use letters, digits, '-' and '_'.");
+            return null;
+        }
+        return saveDirectory.resolve(name + ".dps");
+    }
+
+    /**
+     * Displays the vote share of the player and of the strongest opponents,
+     * the player's place, and the swing in the player's current district.
+     */
+    private void displayPolls() {
+        if (!output.isEnabled()) return;
+        VoteCount votes = gameManager.getVotes();
+        if (votes == null) {
+            output.println("No voters are modelled in this world. Start with --electorate N to poll them.");
+            return;
+        }
+
+        List<Opponent> opponents = gameManager.getOpponents();
+        Integer[] order = new Integer[opponents.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(votes.getOpponentVotes(b), votes.getOpponentVotes(a)));
+
+        output.println("\n--- POLLS ---");
+        output.println(String.format("%-24s %5.1f%%", gameManager.getPlayer().getName(), 100 * votes.getPlayerShare()));
+        for (int i = 0; i < Math.min(POLLED_OPPONENTS, order.length); i++) {
+            output.println(String.format("%-24s %5.1f%%", opponents.get(order[i]).getName(),
+                    100 * votes.getOpponentShare(order[i])));
+        }
+        if (order.length > POLLED_OPPONENTS) output.println("... and " + (order.length - POLLED_OPPONENTS) + " more");
+        output.println(String.format("You are %s of %d, %+.1f points on the leader", GameManager.ordinal(votes.getRank()),
+                order.length + 1, 100 * votes.getLeadMargin()));
+        output.println(String.format("Expected turnout: %.0f voters", votes.getTotal()));
+        int district = gameManager.getCurrentLocation().getId();
+        output.println(String.format("Local swing in %s: %+.1f points (you poll %.1f%% there)",
+                gameManager.getCurrentLocation().getName(), 100 * votes.getSwing(district),
+                100 * votes.getDistrictPlayerShare(district)));
+        output.println("-------------\n");
     }
 
     /**
      * Displays all current opponents and their stats.
      */
     private void displayOpponents() {
-        System.out.println("\n--- OPPONENTS ---");
-        for (var opp : gameManager.getOpponents()) {
-            System.out.println(opp.getName() +
+        if (!output.isEnabled()) return;
+
+        VoteCount votes = gameManager.getVotes();
+        List<Opponent> opponents = gameManager.getOpponents();
+        output.println("\n--- OPPONENTS ---");
+        for (int slot = 0; slot < opponents.size(); slot++) {
+            Opponent opp = opponents.get(slot);
+            output.println(opp.getName() +
                     " - Popularity: " + String.format("%.1f", opp.getPopularity()) + "%" +
-                    " | Defense: " + opp.getDefenseLevel());
+                    " | Defense: " + opp.getDefenseLevel() +
+                    " | Style: " + opp.getPolicy().getLabel() +
+                    (votes == null ? "" : String.format(" | Votes: %.1f%%", 100 * votes.getOpponentShare(slot))));
         }
-        System.out.println("-----------------\n");
+        output.println("-----------------\n");
     }
 
     /**
      * Displays all available allies and player's current allies.
      */
     private void displayAllies() {
-        System.out.println("\n--- YOUR ALLIES ---");
+        if (!output.isEnabled()) return;
+
+        output.println("\n--- YOUR ALLIES ---");
         if (gameManager.getPlayer().getAlliances().isEmpty()) {
-            System.out.println("No allies yet.");
+            output.println("No allies yet.");
         } else {
             for (var ally : gameManager.getPlayer().getAlliances()) {
-                System.out.println(ally.getName() + " (Influence: +" + ally.getInfluenceBoost() + ")");
+                output.println(ally.getName() + " (Influence: +" + ally.getInfluenceBoost() + ")");
             }
         }
 
-        System.out.println("\n--- AVAILABLE ALLIES ---");
+        output.println("\n--- AVAILABLE ALLIES ---");
         if (gameManager.getAvailableAllies().isEmpty()) {
-            System.out.println("No more allies available.");
+            output.println("No more allies available.");
         } else {
             for (var ally : gameManager.getAvailableAllies()) {
-                System.out.println(ally.getName() +
+                output.println(ally.getName() +
                         " - Loyalty: " + ally.getLoyalty() +
                         " | Influence: +" + ally.getInfluenceBoost());
             }
         }
-        System.out.println("------------------------\n");
+        output.println("------------------------\n");
     }
 
     /**
      * Displays the help menu with all available commands.
      */
     public void displayHelp() {
-        System.out.println("\n=== AVAILABLE COMMANDS ===");
-        System.out.println("MOVEMENT:");
-        System.out.println("  move/go <direction>  - Move north, south, east, west");
-        System.out.println("\nITEMS:");
-        System.out.println("  take/get <item>      - Pick up an item");
-        System.out.println("  drop <item>          - Drop an item from inventory");
-        System.out.println("  use <item>           - Use an item from your inventory");
-        System.out.println("\nCAMPAIGN ACTIONS:");
-        System.out.println("  speech               - Give a campaign speech (costs $15, 20% backfire risk!)");
-        System.out.println("  bribe <name>         - Bribe an opponent (costs $25-40, risky)");
-        System.out.println("  ally <name>          - Negotiate alliance with ally (needs 25+ influence)");
-        System.out.println("  sabotage <name>      - Sabotage opponent's campaign (costs $30, very risky!)");
-        System.out.println("  media                - Manage media narrative (costs $15)");
-        System.out.println("  talk/interact <name> - Talk to neutral NPCs for bonuses");
-        System.out.println("\nINFORMATION:");
-        System.out.println("  stats/status         - View your current stats");
-        System.out.println("  inventory/inv/i      - View your inventory");
-        System.out.println("  location/look/l      - View current location & NPCs");
-        System.out.println("  opponents            - View all opponents and their stats");
-        System.out.println("  allies               - View allied and available allies");
-        System.out.println("  help/h/?             - Show this help menu");
-        System.out.println("\nGAME CONTROL:");
-        System.out.println("  end/endturn          - End current turn");
-        System.out.println("  quit/exit/q          - Exit the game");
-        System.out.println("\nTIPS:");
-        System.out.println("  - Maintain a balance between popularity and money");
-        System.out.println("  - Build alliances early to meet the win requirement");
-        System.out.println("  - Watch your scandal risk - if it reaches 100%, you lose!");
-        System.out.println("  - Explore all locations to find valuable items");
-        System.out.println("  - Different character types have different starting advantages");
-        System.out.println("  - Talk to neutral NPCs for information and small bonuses");
-        System.out.println("  - Speeches have a 20% chance to backfire - use carefully!");
-        System.out.println("==========================\n");
-    }
-}
\ No newline at end of file
+        if (!output.isEnabled()) return;
+
+        output.println("\n=== AVAILABLE COMMANDS ===");
+        registry.printHelp(output);
+        output.println("\nTIPS:");
+        output.println("  - Maintain a balance between popularity and money");
+        output.println("  - Build alliances early to meet the win requirement");
+        output.println("  - Watch your scandal risk - if it reaches 100%, you lose!");
+        output.println("  - Explore all locations to find valuable items");
+        output.println("  - Different character types have different starting advantages");
+        output.println("  - Talk to neutral NPCs for information and small bonuses");
+        output.println("  - Speeches have a 20% chance to backfire - use carefully!");
+        output.println("==========================\n");
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lookup table from command words and aliases to GameCommands.
+ * Built once and then only read, so one registry is shared by every session.
+ * Remote players get the server registry, which leaves out the ADMIN commands.
+ *
+ * Lookups take a region of the input line and match it case-insensitively,
+ * so finding a command never allocates.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class CommandRegistry {
+    private static final CommandRegistry STANDARD = createStandard();
+    private static final CommandRegistry SERVER = createServer();
+
+    private List<GameCommand> commands;
+    private String[] keys;
+    private GameCommand[] values;
+    private int size;
+
+    /**
+     * Constructs an empty CommandRegistry.
+     */
+    public CommandRegistry() {
+        this.commands = new ArrayList<>();
+        this.keys = new String[64];
+        this.values = new GameCommand[64];
+    }
+
+    /**
+     * Gets the shared registry with all standard game commands.
+     *
+     * @return the standard registry
+     */
+    public static CommandRegistry standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Gets the shared registry for remote players: the standard commands without
+     * the ADMIN ones. Commands keep their standard ids, so journals record them alike.
+     *
+     * @return the server registry
+     */
+    public static CommandRegistry server() {
+        return SERVER;
+    }
+
+    /**
+     * Adds a command under its name and all aliases.
+     *
+     * @param command the command to add
+     * @throws IllegalArgumentException if a name is already registered
+     */
+    public void register(GameCommand command) {
+        for (String name : command.getNames()) {
+            if (find(name, 0, name.length()) != null) {
+                throw new IllegalArgumentException("Command name already registered: " + name);
+            }
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            insert(name, command);
+        }
+        command.assignId(commands.size());
+        commands.add(command);
+    }
+
+    /**
+     * Finds the command whose name or alias equals part of a line, ignoring case.
+     *
+     * @param line the text containing the command word
+     * @param start index of the first character of the word
+     * @param end index after the last character of the word
+     * @return the command, or null if there is none
+     */
+    public GameCommand find(CharSequence line, int start, int end) {
+        int length = end - start;
+        int mask = keys.length - 1;
+        for (int slot = hash(line, start, end) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key.length() == length && regionEquals(key, line, start)) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a command by exact name or alias, ignoring case.
+     *
+     * @param name the command word
+     * @return the command, or null if there is none
+     */
+    public GameCommand find(String name) {
+        return find(name, 0, name.length());
+    }
+
+    /**
+     * Gets all commands in registration order.
+     *
+     * @return a read-only view of the commands
+     */
+    public List<GameCommand> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * Writes the command section of the help screen, grouped by category.
+     *
+     * @param out where to write
+     */
+    public void printHelp(OutputSink out) {
+        boolean first = true;
+        for (CommandCategory category : CommandCategory.values()) {
+            boolean header = false;
+            for (GameCommand command : commands) {
+                if (command.getCategory() != category) continue;
+                if (!header) {
+                    out.println((first ? "" : "\n") + category.getTitle() + ":");
+                    header = true;
+                    first = false;
+                }
+                out.println(String.format("  %-20s - %s", command.getUsage(), command.getDescription()));
+            }
+        }
+    }
+
+    private void insert(String name, GameCommand command) {
+        int mask = keys.length - 1;
+        int slot = hash(name, 0, name.length()) & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = name.toLowerCase();
+        values[slot] = command;
+        size++;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        GameCommand[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new GameCommand[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) insert(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    // java.lang.Character is spelled out because the game has its own Character class
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + java.lang.Character.toLowerCase(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean regionEquals(String key, CharSequence line, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = line.charAt(start + i);
+            if (c != key.charAt(i) && java.lang.Character.toLowerCase(c) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the registry of standard game commands, in help-screen order.
+     */
+    private static CommandRegistry createStandard() {
+        CommandRegistry registry = new CommandRegistry();
+
+        registry.register(new GameCommand(CommandCategory.MOVEMENT, "move/go <direction>",
+                "Move north, south, east, west", CommandProcessor::move, "move", "go"));
+        registry.register(new GameCommand(CommandCategory.MOVEMENT, "travel <location>",
+                "Walk the shortest route to a location", CommandProcessor::travel, "travel", "goto"));
+
+        registry.register(new GameCommand(CommandCategory.ITEMS, "take/get <item>",
+                "Pick up an item", CommandProcessor::take, "take", "get", "pickup"));
+        registry.register(new GameCommand(CommandCategory.ITEMS, "drop <item>",
+                "Drop an item from inventory", CommandProcessor::drop, "drop"));
+        registry.register(new GameCommand(CommandCategory.ITEMS, "use <item>",
+                "Use an item from your inventory", CommandProcessor::use, "use"));
+
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "speech",
+                "Give a campaign speech (costs $15, 20% backfire risk!)", CommandProcessor::speech, "speech"));
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "bribe <name>",
+                "Bribe an opponent (costs $25-40, risky)", CommandProcessor::bribe, "bribe"));
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "ally <name>",
+                "Negotiate alliance with ally (needs 25+ influence)", CommandProcessor::ally,
+                "ally", "alliance", "negotiate"));
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "sabotage <name>",
+                "Sabotage opponent's campaign (costs $30, very risky!)", CommandProcessor::sabotage,
+                "sabotage", "attack"));
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "media",
+                "Manage media narrative (costs $15)", CommandProcessor::media, "media", "pr"));
+        registry.register(new GameCommand(CommandCategory.CAMPAIGN_ACTIONS, "talk/interact <name>",
+                "Talk to neutral NPCs for bonuses", CommandProcessor::talk, "talk", "interact", "speak"));
+
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "stats/status",
+                "View your current stats", CommandProcessor::stats, "stats", "status"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "inventory/inv/i",
+                "View your inventory", CommandProcessor::inventory, "inventory", "inv", "i"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "location/look/l",
+                "View current location & NPCs", CommandProcessor::look, "location", "look", "l"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "opponents",
+                "View all opponents and their stats", CommandProcessor::opponents, "opponents"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "allies",
+                "View allied and available allies", CommandProcessor::allies, "allies"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "help/h/?",
+                "Show this help menu", CommandProcessor::help, "help", "h", "?"));
+        registry.register(new GameCommand(CommandCategory.INFORMATION, "polls",
+                "Show the votes as they would fall today", CommandProcessor::polls, "polls"));
+
+        registry.register(new GameCommand(CommandCategory.GAME_CONTROL, "end/endturn",
+                "End current turn", CommandProcessor::endTurn, "end", "endturn"));
+        registry.register(new GameCommand(CommandCategory.GAME_CONTROL, "save [name]",
+                "Save the game to saves/<name>.dps", CommandProcessor::save, "save"));
+        registry.register(new GameCommand(CommandCategory.GAME_CONTROL, "load [name]",
+                "Load a saved game", CommandProcessor::load, "load", "restore"));
+        registry.register(new GameCommand(CommandCategory.GAME_CONTROL, "park",
+                "Leave the game on the server and get a token to resume it", CommandProcessor::park, "park"));
+        registry.register(new GameCommand(CommandCategory.GAME_CONTROL, "quit/exit/q",
+                "Exit the game", CommandProcessor::quit, "quit", "exit", "q"));
+
+        registry.register(new GameCommand(CommandCategory.ADMIN, "metrics",
+                "Show command latencies and outcome counts", CommandProcessor::metrics, "metrics"));
+
+        return registry;
+    }
+
+    /**
+     * Builds the server registry from the standard one.
+     */
+    private static CommandRegistry createServer() {
+        CommandRegistry registry = new CommandRegistry();
+        for (GameCommand command : STANDARD.commands) {
+            if (command.getCategory() != CommandCategory.ADMIN) registry.register(command);
+        }
+        return registry;
+    }
+}
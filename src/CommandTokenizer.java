@@ -0,0 +1,75 @@
+/**
+ * Splits a command line into the command word and its arguments without
+ * building intermediate arrays or regular expressions.
+ * One tokenizer is reused for every line a session reads, so it is not thread-safe.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class CommandTokenizer {
+    private String line;
+    private int commandStart;
+    private int commandEnd;
+    private int argsStart;
+    private int argsEnd;
+
+    /**
+     * Scans a line. Leading and trailing whitespace is ignored and the
+     * whitespace between the command word and the arguments is skipped.
+     *
+     * @param line the raw input line
+     * @return false if the line is blank
+     */
+    public boolean tokenize(String line) {
+        this.line = line;
+        int end = line.length();
+        int i = 0;
+        while (i < end && line.charAt(i) <= ' ') i++;
+        while (end > i && line.charAt(end - 1) <= ' ') end--;
+        if (i == end) return false;
+
+        commandStart = i;
+        while (i < end && line.charAt(i) > ' ') i++;
+        commandEnd = i;
+        while (i < end && line.charAt(i) <= ' ') i++;
+        argsStart = i;
+        argsEnd = end;
+        return true;
+    }
+
+    /**
+     * Gets the line last passed to tokenize.
+     * @return the line
+     */
+    public String getLine() { return line; }
+
+    /**
+     * Gets where the command word starts.
+     * @return the start index
+     */
+    public int getCommandStart() { return commandStart; }
+
+    /**
+     * Gets where the command word ends.
+     * @return the end index (exclusive)
+     */
+    public int getCommandEnd() { return commandEnd; }
+
+    /**
+     * Gets the command word in lower case. Allocates; only used for messages.
+     *
+     * @return the command word
+     */
+    public String command() {
+        return line.substring(commandStart, commandEnd).toLowerCase();
+    }
+
+    /**
+     * Gets the arguments after the command word.
+     *
+     * @return the trimmed arguments, or an empty string if there are none
+     */
+    public String args() {
+        return argsStart == argsEnd ? "" : line.substring(argsStart, argsEnd);
+    }
+}
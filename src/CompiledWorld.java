@@ -0,0 +1,269 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A world compiled by WorldCompiler, memory-mapped and read on demand.
+ *
+ * Opening a compiled world only maps the file and checks its header. Each
+ * location is decoded the first time WorldTemplate asks for it, and location
+ * names are found through a hash table stored in the file, so start-up time
+ * does not depend on the size of the map.
+ *
+ * File layout (all numbers big-endian, offsets in bytes from the start of the file):
+ * <pre>
+ *   header     magic "DPWD", version, location count, start id, location table offset,
+ *              name table offset, name table slots, catalog offset, string offset
+ *   locations  one int per location: offset of its record
+ *   names      open-addressing hash table of location id + 1 (0 = empty slot)
+ *   records    name, description, NPCs (name, type), items (name, description, type, value),
+ *              exits (direction, target id)
+ *   catalog    opponents (name), allies (name, loyalty, influence),
+ *              events (name, description, popularity impact, scandal risk impact, weight,
+ *              condition or -1; version 1 files end each event after the scandal risk impact)
+ *   strings    each string once: int length, UTF-8 bytes
+ * </pre>
+ * Strings are referred to by their offset within the string section.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class CompiledWorld {
+    static final int MAGIC = 0x44505744; // "DPWD"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 36;
+
+    private ByteBuffer data;
+    private int version;
+    private int locationCount;
+    private int startId;
+    private int locationTable;
+    private int nameTable;
+    private int nameSlots;
+    private int catalog;
+    private int strings;
+
+    /**
+     * Constructs a CompiledWorld over mapped file contents.
+     *
+     * @param data the whole file
+     * @throws IOException if the header is not a supported compiled world
+     */
+    private CompiledWorld(ByteBuffer data) throws IOException {
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled world file");
+        }
+        if (data.getInt(4) < 1 || data.getInt(4) > VERSION) {
+            throw new IOException("Unsupported compiled world version " + data.getInt(4));
+        }
+        this.data = data;
+        this.version = data.getInt(4);
+        this.locationCount = data.getInt(8);
+        this.startId = data.getInt(12);
+        this.locationTable = data.getInt(16);
+        this.nameTable = data.getInt(20);
+        this.nameSlots = data.getInt(24);
+        this.catalog = data.getInt(28);
+        this.strings = data.getInt(32);
+        if (locationCount < 1 || startId < 0 || startId >= locationCount
+                || Integer.bitCount(nameSlots) != 1 || strings > data.capacity()) {
+            throw new IOException("Corrupt compiled world header");
+        }
+    }
+
+    /**
+     * Maps a compiled world file.
+     *
+     * @param path the file
+     * @return the opened world
+     * @throws IOException if the file cannot be mapped or is not a compiled world
+     */
+    public static CompiledWorld open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CompiledWorld(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Checks whether a file starts with the compiled world magic number.
+     *
+     * @param path the file
+     * @return true if the file is a compiled world
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompiled(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) return false;
+            }
+            return magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Gets the number of locations.
+     *
+     * @return the location count
+     */
+    public int getLocationCount() {
+        return locationCount;
+    }
+
+    /**
+     * Gets the id of the starting location.
+     *
+     * @return the start id
+     */
+    public int getStartId() {
+        return startId;
+    }
+
+    /**
+     * Decodes one location as a location of the given template.
+     *
+     * @param template the template the location belongs to
+     * @param id the location id
+     * @return the new template location
+     */
+    Location readLocation(WorldTemplate template, int id) {
+        int pos = data.getInt(locationTable + id * 4);
+        Location location = new Location(string(pos), string(pos + 4));
+        location.attach(template, id);
+        pos += 8;
+
+        int npcs = data.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < npcs; i++, pos += 8) {
+            location.addNPC(string(pos), string(pos + 4));
+        }
+
+        int items = data.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < items; i++, pos += 20) {
+            location.addItem(template.newItem(string(pos), string(pos + 4), string(pos + 8), data.getDouble(pos + 12)));
+        }
+
+        int exits = data.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < exits; i++, pos += 8) {
+            location.setConnection(string(pos), data.getInt(pos + 4));
+        }
+        return location;
+    }
+
+    /**
+     * Builds the world's adjacency straight from the file, without decoding any locations.
+     *
+     * @return the graph
+     */
+    WorldGraph readGraph() {
+        int[] offsets = new int[locationCount + 1];
+        int[] exitPos = new int[locationCount];
+        for (int id = 0; id < locationCount; id++) {
+            int pos = data.getInt(locationTable + id * 4) + 8;
+            pos += 4 + data.getInt(pos) * 8;
+            pos += 4 + data.getInt(pos) * 20;
+            exitPos[id] = pos;
+            offsets[id + 1] = offsets[id] + data.getInt(pos);
+        }
+
+        int[] targets = new int[offsets[locationCount]];
+        byte[] directions = new byte[offsets[locationCount]];
+        Map<Integer, Byte> codes = new HashMap<>();
+        for (int id = 0; id < locationCount; id++) {
+            int pos = exitPos[id] + 4;
+            for (int edge = offsets[id]; edge < offsets[id + 1]; edge++, pos += 8) {
+                int ref = data.getInt(pos);
+                Byte code = codes.get(ref);
+                if (code == null) {
+                    Direction direction = Direction.find(string(pos));
+                    code = direction == null ? WorldGraph.NAMED_EXIT : (byte) direction.ordinal();
+                    codes.put(ref, code);
+                }
+                targets[edge] = data.getInt(pos + 4);
+                directions[edge] = code;
+            }
+        }
+        return new WorldGraph(offsets, targets, directions);
+    }
+
+    /**
+     * Finds a location id by name, ignoring case, using the file's hash table.
+     *
+     * @param name the location name
+     * @return the id, or -1 if there is no such location
+     */
+    int findLocation(String name) {
+        String key = NameIndex.fold(name);
+        int mask = nameSlots - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = data.getInt(nameTable + slot * 4);
+            if (entry == 0) return -1;
+            int id = entry - 1;
+            if (NameIndex.fold(string(data.getInt(locationTable + id * 4))).equals(key)) return id;
+        }
+    }
+
+    /**
+     * Reads the opponents, allies and events into a template.
+     *
+     * @param template the template to fill
+     */
+    void readCatalog(WorldTemplate template) {
+        int pos = catalog;
+
+        int opponents = data.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < opponents; i++, pos += 4) {
+            template.addOpponent(string(pos));
+        }
+
+        int allies = data.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < allies; i++, pos += 20) {
+            template.addAlly(new Ally(string(pos), data.getDouble(pos + 4), data.getDouble(pos + 12)));
+        }
+
+        int events = data.getInt(pos);
+        pos += 4;
+        int eventSize = version >= 2 ? 36 : 24;
+        for (int i = 0; i < events; i++, pos += eventSize) {
+            double weight = version >= 2 ? data.getDouble(pos + 24) : 1;
+            EventCondition condition = version >= 2 && data.getInt(pos + 32) >= 0
+                    ? EventCondition.parse(string(pos + 32)) : null;
+            template.addEvent(new Event(string(pos), string(pos + 4),
+                    data.getDouble(pos + 8), data.getDouble(pos + 16), weight, condition));
+        }
+    }
+
+    /**
+     * Reads the string whose reference is stored at the given position.
+     * Uses only absolute reads, so sessions can decode concurrently.
+     *
+     * @param refPos position of the string reference
+     * @return the string
+     */
+    private String string(int refPos) {
+        int pos = strings + data.getInt(refPos);
+        byte[] bytes = new byte[data.getInt(pos)];
+        data.get(pos + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hashes a case-folded location name for the name table.
+     *
+     * @param key the folded name
+     * @return the spread hash code
+     */
+    static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Output sink that prints straight to System.out.
+ * This is the default for interactive games.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class ConsoleSink implements OutputSink {
+    /** Shared console sink */
+    public static final ConsoleSink INSTANCE = new ConsoleSink();
+
+    @Override
+    public void println(String text) {
+        System.out.println(text);
+    }
+
+    @Override
+    public void print(String text) {
+        System.out.print(text);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Enum of the fixed directions a location can have an exit in.
+ * Each location keeps one exit slot per direction; any other exit
+ * (e.g. "tunnel") is stored as a named exit.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public enum Direction {
+    /** Towards the top of the map */
+    NORTH("north"),
+
+    /** Towards the bottom of the map */
+    SOUTH("south"),
+
+    /** Towards the right of the map */
+    EAST("east"),
+
+    /** Towards the left of the map */
+    WEST("west"),
+
+    /** Upstairs or uphill */
+    UP("up"),
+
+    /** Downstairs or downhill */
+    DOWN("down");
+
+    private static final Direction[] ALL = values();
+
+    /** The number of directions, i.e. exit slots per location */
+    public static final int COUNT = ALL.length;
+
+    private final String label;
+
+    Direction(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the direction as typed by players, e.g. "north".
+     *
+     * @return the lower-case name
+     */
+    public String getName() {
+        return label;
+    }
+
+    /**
+     * Gets the direction leading back.
+     *
+     * @return the opposite direction
+     */
+    public Direction opposite() {
+        return ALL[ordinal() ^ 1];
+    }
+
+    /**
+     * Finds the direction with the given name, ignoring case.
+     * Does not allocate.
+     *
+     * @param text the text to read
+     * @param start index of the first character of the name
+     * @param end index after the last character of the name
+     * @return the direction, or null if the text is not a direction
+     */
+    public static Direction find(CharSequence text, int start, int end) {
+        for (Direction direction : ALL) {
+            String label = direction.label;
+            if (label.length() != end - start) continue;
+            int i = 0;
+            while (i < label.length()
+                    && java.lang.Character.toLowerCase(text.charAt(start + i)) == label.charAt(i)) {
+                i++;
+            }
+            if (i == label.length()) return direction;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the direction with the given name, ignoring case.
+     *
+     * @param name the name, e.g. "North"
+     * @return the direction, or null if the name is not a direction
+     */
+    public static Direction find(String name) {
+        return find(name, 0, name.length());
+    }
+}
@@ -9,6 +9,8 @@ public class Event {
     private String description;
     private double popularityImpact;
     private double scandalRiskImpact;
+    private double weight;
+    private EventCondition condition;
 
     /**
      * Constructs a new Event with specified effects.
@@ -20,32 +22,67 @@ public class Event {
      */
     public Event(String name, String description,
                  double popularityImpact, double scandalRiskImpact) {
+        this(name, description, popularityImpact, scandalRiskImpact, 1, null);
+    }
+
+    /**
+     * Constructs a new Event that is drawn in proportion to its weight and
+     * only while its condition holds.
+     *
+     * @param name the name of the event
+     * @param description a description of what happens
+     * @param popularityImpact the change to player popularity
+     * @param scandalRiskImpact the change to scandal risk
+     * @param weight how likely the event is relative to others (1 is normal)
+     * @param condition when the event can occur, or null for always
+     * @throws IllegalArgumentException if the weight is negative
+     */
+    public Event(String name, String description, double popularityImpact, double scandalRiskImpact,
+                 double weight, EventCondition condition) {
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Invalid event weight " + weight);
+        }
         this.name = name;
         this.description = description;
         this.popularityImpact = popularityImpact;
         this.scandalRiskImpact = scandalRiskImpact;
+        this.weight = weight;
+        this.condition = condition;
     }
 
     /**
      * Triggers this event and applies its effects to the player.
      *
      * @param player the player to affect
+     * @param output the sink to narrate the event to
      */
-    public void trigger(Player player) {
-        System.out.println("\n=== EVENT TRIGGERED ===");
-        System.out.println(name + ": " + description);
+    public void trigger(Player player, OutputSink output) {
+        RandomEventFlightEvent flight = new RandomEventFlightEvent();
+        flight.begin();
+        output.record(NarrationKind.EVENT, name, popularityImpact);
+        if (output.isEnabled()) {
+            output.println("\n=== EVENT TRIGGERED ===");
+            output.println(name + ": " + description);
+        }
 
         if (popularityImpact != 0) {
             player.updatePopularity(popularityImpact);
         }
 
-        if (scandalRiskImpact > 0) {
-            System.out.println("Scandal risk increased by: " + scandalRiskImpact);
-        } else if (scandalRiskImpact < 0) {
-            System.out.println("Scandal risk decreased by: " + Math.abs(scandalRiskImpact));
+        if (output.isEnabled()) {
+            if (scandalRiskImpact > 0) {
+                output.println("Scandal risk increased by: " + scandalRiskImpact);
+            } else if (scandalRiskImpact < 0) {
+                output.println("Scandal risk decreased by: " + Math.abs(scandalRiskImpact));
+            }
+            output.println("=======================\n");
+        }
+        if (flight.shouldCommit()) {
+            flight.name = name;
+            flight.popularityImpact = popularityImpact;
+            flight.scandalRiskImpact = scandalRiskImpact;
+            flight.commit();
         }
-
-        System.out.println("=======================\n");
     }
 
     /**
@@ -71,4 +108,16 @@ public class Event {
      * @return the scandal risk impact value
      */
     public double getScandalRiskImpact() { return scandalRiskImpact; }
-}
\ No newline at end of file
+
+    /**
+     * Gets the relative weight used when drawing events.
+     * @return the weight
+     */
+    public double getWeight() { return weight; }
+
+    /**
+     * Gets the condition under which the event can occur.
+     * @return the condition, or null if it can always occur
+     */
+    public EventCondition getCondition() { return condition; }
+}
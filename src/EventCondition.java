@@ -0,0 +1,179 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A condition that must hold for an event to be able to occur, written as one
+ * or more clauses joined by '&amp;', e.g. "scandalRisk &gt;= 40" or
+ * "popularity &lt; 30 &amp; at Downtown Slums".
+ *
+ * A clause either compares a player stat (popularity, money, influence,
+ * scandalRisk, allies, items) with a number using &lt;, &lt;=, &gt; or &gt;=,
+ * or is "at LOCATION" for the player's current location.
+ *
+ * Conditions with the same text are equal. Events that share a condition are
+ * grouped together by EventTable, so the number of distinct conditions, not the
+ * number of events, decides how much is checked per draw.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public class EventCondition {
+    private static final int POPULARITY = 0;
+    private static final int MONEY = 1;
+    private static final int INFLUENCE = 2;
+    private static final int SCANDAL_RISK = 3;
+    private static final int ALLIES = 4;
+    private static final int ITEMS = 5;
+    private static final String[] STATS = {"popularity", "money", "influence", "scandalRisk", "allies", "items"};
+    private static final String[] OPERATORS = {"<=", ">=", "<", ">"};
+
+    private String text;
+    private int[] stats;
+    private int[] operators;
+    private double[] thresholds;
+    private String location;
+
+    /**
+     * Constructs a parsed condition.
+     */
+    private EventCondition(String text, int[] stats, int[] operators, double[] thresholds, String location) {
+        this.text = text;
+        this.stats = stats;
+        this.operators = operators;
+        this.thresholds = thresholds;
+        this.location = location;
+    }
+
+    /**
+     * Parses a condition.
+     *
+     * @param text the condition, e.g. "scandalRisk &gt;= 40 &amp; at Media Centre"
+     * @return the condition
+     * @throws IllegalArgumentException if the text is not a valid condition
+     */
+    public static EventCondition parse(String text) {
+        String[] clauses = text.split("&");
+        int[] stats = new int[clauses.length];
+        int[] operators = new int[clauses.length];
+        double[] thresholds = new double[clauses.length];
+        String location = null;
+        StringBuilder canonical = new StringBuilder();
+        int count = 0;
+
+        for (String raw : clauses) {
+            String clause = raw.trim();
+            if (canonical.length() > 0) canonical.append(" & ");
+
+            if (clause.regionMatches(true, 0, "at ", 0, 3)) {
+                if (location != null) throw new IllegalArgumentException("Only one 'at' clause is allowed: " + text);
+                location = clause.substring(3).trim();
+                if (location.isEmpty()) throw new IllegalArgumentException("Missing location in: " + text);
+                canonical.append("at ").append(location);
+                continue;
+            }
+
+            int op = -1;
+            int at = -1;
+            for (int i = 0; i < OPERATORS.length && op < 0; i++) {
+                at = clause.indexOf(OPERATORS[i]);
+                if (at >= 0) op = i;
+            }
+            if (op < 0) throw new IllegalArgumentException("Expected a comparison or 'at' in: " + clause);
+
+            String stat = clause.substring(0, at).trim();
+            int statCode = -1;
+            for (int i = 0; i < STATS.length; i++) {
+                if (STATS[i].equalsIgnoreCase(stat)) statCode = i;
+            }
+            if (statCode < 0) throw new IllegalArgumentException("Unknown stat '" + stat + "'");
+
+            double threshold;
+            try {
+                threshold = Double.parseDouble(clause.substring(at + OPERATORS[op].length()).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a number in: " + clause);
+            }
+
+            stats[count] = statCode;
+            operators[count] = op;
+            thresholds[count] = threshold;
+            count++;
+            canonical.append(STATS[statCode]).append(' ').append(OPERATORS[op]).append(' ')
+                    .append(threshold == Math.rint(threshold) ? String.valueOf((long) threshold) : String.valueOf(threshold));
+        }
+
+        return new EventCondition(canonical.toString(),
+                Arrays.copyOf(stats, count), Arrays.copyOf(operators, count),
+                Arrays.copyOf(thresholds, count), location);
+    }
+
+    /**
+     * Checks whether the condition holds. Does not allocate.
+     *
+     * @param player the player, or null if unknown
+     * @param where the player's current location, or null if unknown
+     * @return true if every clause holds; false if the player or a needed location is unknown
+     */
+    public boolean test(Player player, Location where) {
+        if (player == null) return false;
+        if (location != null && (where == null || !where.getName().equalsIgnoreCase(location))) return false;
+
+        for (int i = 0; i < stats.length; i++) {
+            double value = value(player, stats[i]);
+            double threshold = thresholds[i];
+            boolean holds;
+            switch (operators[i]) {
+                case 0: holds = value <= threshold; break;
+                case 1: holds = value >= threshold; break;
+                case 2: holds = value < threshold; break;
+                default: holds = value > threshold; break;
+            }
+            if (!holds) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a player stat.
+     *
+     * @param player the player
+     * @param stat the stat code
+     * @return its current value
+     */
+    private static double value(Player player, int stat) {
+        switch (stat) {
+            case POPULARITY: return player.getPopularity();
+            case MONEY: return player.getMoney();
+            case INFLUENCE: return player.getInfluence();
+            case SCANDAL_RISK: return player.getScandalRisk();
+            case ALLIES: return player.allianceCount();
+            case ITEMS: return player.itemCount();
+            default: throw new IllegalStateException("Unknown stat " + stat);
+        }
+    }
+
+    /**
+     * Gets the condition in its canonical written form.
+     *
+     * @return the text, which parses back to an equal condition
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof EventCondition
+                && ((EventCondition) other).text.toLowerCase(Locale.ROOT).equals(text.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public int hashCode() {
+        return text.toLowerCase(Locale.ROOT).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -1,88 +1,152 @@
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Manages random events that can occur during the game.
  * Events affect the player's stats and add unpredictability.
  *
+ * Events are drawn in proportion to their weights, among those whose condition
+ * holds. The world's EventTable groups events by condition; this system keeps a
+ * small alias table over the groups that are currently eligible and rebuilds it
+ * only when a condition changes, so a draw costs one check per distinct
+ * condition and O(1) in the number of events.
+ *
  * @author Usman
  * @version 1.0
  */
 public class EventSystem {
+    private WorldTemplate world;
     private List<Event> events;
-    private Random random;
+    private EventTable table;
+    private SessionRandom random;
+    private boolean[] eligible;
+    private int[] eligibleGroups;
+    private int eligibleCount;
+    private AliasTable groupTable;
+
+    /**
+     * Constructs a new EventSystem over the standard events.
+     *
+     * @param random the session's random source used to pick events
+     */
+    public EventSystem(SessionRandom random) {
+        this(WorldTemplate.standard(), random);
+    }
 
     /**
-     * Constructs a new EventSystem and initializes all possible events.
+     * Constructs a new EventSystem over a world's events.
+     * Events never change, so every session shares the template's list.
+     *
+     * @param world the world whose events can occur
+     * @param random the session's random source used to pick events
      */
-    public EventSystem() {
-        this.events = new ArrayList<>();
-        this.random = new Random();
-        initializeEvents();
+    public EventSystem(WorldTemplate world, SessionRandom random) {
+        this.world = world;
+        this.events = world.getEvents();
+        this.table = world.getEventTable();
+        this.random = random;
+        this.eligible = new boolean[table.getGroupCount()];
+        this.eligibleGroups = new int[table.getGroupCount()];
     }
 
     /**
-     * Initializes all game events with their effects.
+     * Constructs a copy of an event system for a forked game. The copy keeps the
+     * original's eligible groups and shares its group table, which is never changed
+     * once built.
+     *
+     * @param original the event system to copy
+     * @param random the copy's random source
      */
-    private void initializeEvents() {
-        events.add(new Event("Journalist Discovery",
-                "A journalist discovers evidence of questionable dealings", -15, -10));
-        events.add(new Event("Public Support",
-                "Your policies resonate with the public", 12, 0));
-        events.add(new Event("Scandal Exposed",
-                "A scandal from your past is exposed", -25, 20));
-        events.add(new Event("Ally Betrayal",
-                "One of your allies withdraws support", -8, -15));
-        events.add(new Event("Media Boost",
-                "Positive media coverage increases your popularity", 18, -3));
-        events.add(new Event("Funding Received",
-                "Anonymous donor provides funds", 40, 5));
-        events.add(new Event("Opponent Scandal",
-                "Your opponent is caught in a scandal", 15, 0));
-        events.add(new Event("Economic Crisis",
-                "Economic downturn affects campaign funding", -30, 0));
-        events.add(new Event("Viral Speech",
-                "Your speech goes viral on social media", 20, 0));
-        events.add(new Event("Debate Win",
-                "You dominate in the televised debate", 16, -5));
-        events.add(new Event("Policy Backlash",
-                "One of your policies receives harsh criticism", -12, 8));
-        events.add(new Event("Grassroots Support",
-                "Grassroots movement rallies behind you", 10, -3));
+    EventSystem(EventSystem original, SessionRandom random) {
+        this.world = original.world;
+        this.events = original.events;
+        this.table = original.table;
+        this.random = random;
+        this.eligible = original.eligible.clone();
+        this.eligibleGroups = original.eligibleGroups.clone();
+        this.eligibleCount = original.eligibleCount;
+        this.groupTable = original.groupTable;
     }
 
     /**
-     * Triggers a random event from the available events.
+     * Triggers a random event among those that can always occur.
      *
      * @return a randomly selected Event or null if no events exist
      */
     public Event triggerRandomEvent() {
-        if (events.isEmpty()) return null;
-        return events.get(random.nextInt(events.size()));
+        return triggerRandomEvent(null, null);
     }
 
     /**
-     * Gets a specific event by name.
+     * Triggers a random event among those whose condition holds for the player
+     * at their current location. Does not allocate unless the eligible set changed.
+     *
+     * @param player the player, or null to allow only unconditional events
+     * @param location where the player is, or null if unknown
+     * @return a randomly selected Event or null if no event can occur
+     */
+    public Event triggerRandomEvent(Player player, Location location) {
+        long start = GameMetrics.start();
+        Event event = drawEvent(player, location);
+        if (event != null) GameMetrics.countEvent(event);
+        GameMetrics.stop("event", start);
+        return event;
+    }
+
+    /**
+     * Draws an event among those whose condition holds; see triggerRandomEvent().
+     *
+     * @param player the player, or null to allow only unconditional events
+     * @param location where the player is, or null if unknown
+     * @return the event, or null if no event can occur
+     */
+    private Event drawEvent(Player player, Location location) {
+        boolean changed = groupTable == null;
+        for (int group = 0; group < eligible.length; group++) {
+            EventCondition condition = table.getCondition(group);
+            boolean holds = (condition == null || condition.test(player, location)) && table.getWeight(group) > 0;
+            if (holds != eligible[group]) {
+                eligible[group] = holds;
+                changed = true;
+            }
+        }
+        if (changed) rebuildGroupTable();
+
+        if (eligibleCount == 0) return null;
+        int group = eligibleCount == 1 ? eligibleGroups[0] : eligibleGroups[groupTable.sample(random)];
+        return table.sample(group, random);
+    }
+
+    /**
+     * Rebuilds the alias table over the currently eligible groups.
+     */
+    private void rebuildGroupTable() {
+        eligibleCount = 0;
+        for (int group = 0; group < eligible.length; group++) {
+            if (eligible[group]) eligibleGroups[eligibleCount++] = group;
+        }
+        double[] weights = new double[eligibleCount];
+        for (int i = 0; i < eligibleCount; i++) {
+            weights[i] = table.getWeight(eligibleGroups[i]);
+        }
+        groupTable = new AliasTable(weights);
+    }
+
+    /**
+     * Gets a specific event by name, ignoring case.
      *
      * @param name the name of the event
      * @return the Event object or null if not found
      */
     public Event getEventByName(String name) {
-        for (Event e : events) {
-            if (e.getName().equalsIgnoreCase(name)) {
-                return e;
-            }
-        }
-        return null;
+        return world.findEvent(name);
     }
 
     /**
      * Gets all available events.
      *
-     * @return a new list containing all events
+     * @return a read-only view of all events
      */
     public List<Event> getAllEvents() {
-        return new ArrayList<>(events);
+        return events;
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A world's events grouped by their condition, each group with its own alias
+ * table. Unconditional events form one group.
+ *
+ * The table is built once per world and shared by every session (see
+ * WorldTemplate.getEventTable()). Each EventSystem picks among the groups
+ * whose condition currently holds, then draws an event from that group.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class EventTable {
+    private List<Event> events;
+    private EventCondition[] conditions;
+    private int[][] members;
+    private AliasTable[] tables;
+
+    /**
+     * Groups events by condition and builds the per-group alias tables.
+     *
+     * @param events the world's events, in definition order
+     */
+    public EventTable(List<Event> events) {
+        Map<EventCondition, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            groups.computeIfAbsent(events.get(i).getCondition(), c -> new ArrayList<>()).add(i);
+        }
+
+        this.events = events;
+        this.conditions = new EventCondition[groups.size()];
+        this.members = new int[groups.size()][];
+        this.tables = new AliasTable[groups.size()];
+        int group = 0;
+        for (Map.Entry<EventCondition, List<Integer>> entry : groups.entrySet()) {
+            List<Integer> indices = entry.getValue();
+            int[] ids = new int[indices.size()];
+            double[] weights = new double[indices.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = indices.get(i);
+                weights[i] = events.get(ids[i]).getWeight();
+            }
+            conditions[group] = entry.getKey();
+            members[group] = ids;
+            tables[group] = new AliasTable(weights);
+            group++;
+        }
+    }
+
+    /**
+     * Gets the number of groups, i.e. distinct conditions.
+     *
+     * @return the group count
+     */
+    public int getGroupCount() {
+        return conditions.length;
+    }
+
+    /**
+     * Gets the condition of a group.
+     *
+     * @param group the group index
+     * @return the condition, or null for the unconditional group
+     */
+    public EventCondition getCondition(int group) {
+        return conditions[group];
+    }
+
+    /**
+     * Gets the total weight of a group's events.
+     *
+     * @param group the group index
+     * @return the group's weight
+     */
+    public double getWeight(int group) {
+        return tables[group].getTotalWeight();
+    }
+
+    /**
+     * Draws an event from a group in proportion to the events' weights.
+     *
+     * @param group the group index
+     * @param random the random source
+     * @return the event, or null if the group's weights are all zero
+     */
+    public Event sample(int group, SessionRandom random) {
+        int pick = tables[group].sample(random);
+        return pick < 0 ? null : events.get(members[group][pick]);
+    }
+}
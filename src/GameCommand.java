@@ -0,0 +1,102 @@
+/**
+ * A command the player can type, with its aliases and help text.
+ * Commands are registered once in a CommandRegistry and shared by every session.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameCommand {
+    /**
+     * Code that runs a command.
+     */
+    public interface Handler {
+        /**
+         * Executes the command.
+         *
+         * @param processor the session's command processor
+         * @param args everything after the command word, trimmed (empty if none)
+         */
+        void execute(CommandProcessor processor, String args);
+    }
+
+    private String[] names;
+    private String usage;
+    private String description;
+    private CommandCategory category;
+    private Handler handler;
+    private int id = -1;
+
+    /**
+     * Constructs a new GameCommand.
+     *
+     * @param category the help section the command belongs to
+     * @param usage how the command is shown on the help screen, e.g. "take/get &lt;item&gt;"
+     * @param description what the command does
+     * @param handler the code that runs the command
+     * @param names the command word followed by its aliases (all lower case)
+     */
+    public GameCommand(CommandCategory category, String usage, String description,
+                       Handler handler, String... names) {
+        this.category = category;
+        this.usage = usage;
+        this.description = description;
+        this.handler = handler;
+        this.names = names.clone();
+    }
+
+    /**
+     * Gets the main command word.
+     * @return the name
+     */
+    public String getName() { return names[0]; }
+
+    /**
+     * Gets the command word and all aliases.
+     * @return a copy of the names
+     */
+    public String[] getNames() { return names.clone(); }
+
+    /**
+     * Gets the usage shown on the help screen.
+     * @return the usage text
+     */
+    public String getUsage() { return usage; }
+
+    /**
+     * Gets the description shown on the help screen.
+     * @return the description
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * Gets the help section.
+     * @return the category
+     */
+    public CommandCategory getCategory() { return category; }
+
+    /**
+     * Gets the command's id: its index in the registry it was first added to.
+     * The journal records commands by id.
+     * @return the id, or -1 if the command is not registered
+     */
+    public int getId() { return id; }
+
+    /**
+     * Gives the command its id, unless it already has one.
+     *
+     * @param id the command's index in its registry
+     */
+    void assignId(int id) {
+        if (this.id < 0) this.id = id;
+    }
+
+    /**
+     * Runs the command.
+     *
+     * @param processor the session's command processor
+     * @param args the trimmed arguments (empty if none)
+     */
+    public void execute(CommandProcessor processor, String args) {
+        handler.execute(processor, args);
+    }
+}
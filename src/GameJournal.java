@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of game sessions: each game's seed, character and every
+ * command it accepted, so that JournalReplay can rebuild the exact final state.
+ *
+ * One journal is shared by all sessions of a process. Each session records into
+ * its own SessionJournal and hands whole chunks to the journal, which gathers
+ * them into one buffer. A commit writes everything gathered so far in a single
+ * channel write: sessions that commit while another one is writing wait for it
+ * and are usually covered by the next write (group commit). The buffer is also
+ * written whenever it fills up.
+ *
+ * File layout: the magic "DPJL" and a version, then records of
+ * <pre>
+ *   kind (byte), game id (long), payload length (int), payload
+ * </pre>
+ * See SessionJournal for the record kinds. Records of different games may be
+ * interleaved; the game id says which game each belongs to. Every time the file
+ * is opened a NAMES record is written first, so commands recorded by id replay
+ * correctly even after the command list changes between runs. A file is only
+ * appended to by the version that created it.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameJournal implements AutoCloseable {
+    static final int MAGIC = 0x44504A4C; // "DPJL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final int SESSION_BUFFER_BYTES = 256;
+    private static final int MAX_RECYCLED_BYTES = 4096;
+
+    private FileChannel channel;
+    private boolean sync;
+    private AtomicLong nextGameId;
+    private Object lock;
+    private ByteBuffer pending;
+    private ByteBuffer spare;
+    private long appended;
+    private long written;
+    private boolean writing;
+    private ThreadLocal<byte[][]> sessionBuffers; // one spare buffer per thread
+
+    /**
+     * Constructs a GameJournal over an open channel.
+     */
+    private GameJournal(FileChannel channel, boolean sync) throws IOException {
+        this.channel = channel;
+        this.sync = sync;
+        this.lock = new Object();
+        this.pending = ByteBuffer.allocate(BUFFER_BYTES);
+        this.spare = ByteBuffer.allocate(BUFFER_BYTES);
+        this.sessionBuffers = ThreadLocal.withInitial(() -> new byte[1][]);
+
+        if (channel.size() == 0) {
+            write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+        }
+        write(SessionJournal.names(CommandRegistry.standard()));
+        // Ids start at the file length, which is past every id used by earlier runs
+        this.nextGameId = new AtomicLong(channel.size());
+    }
+
+    /**
+     * Writes a buffer straight to the file, for the records written on opening.
+     *
+     * @param data the bytes, from position to limit
+     * @throws IOException if the write fails
+     */
+    private void write(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    /**
+     * Opens a journal file for appending, creating it if needed.
+     *
+     * @param file the journal file
+     * @param sync whether each commit also forces the data to the storage device
+     * @return the journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static GameJournal open(Path file, boolean sync) throws IOException {
+        checkHeader(file);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            return new GameJournal(channel, sync);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Makes sure an existing, non-empty file is a journal of this version.
+     *
+     * @param file the journal file
+     * @throws IOException if it is not, or cannot be read
+     */
+    private static void checkHeader(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) return;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // read until the header is complete or the file ends
+            }
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) throw new IOException("Not a game journal: " + file);
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Journal was written by version " + header.getInt(4) + ", start a new file");
+        }
+    }
+
+    /**
+     * Starts journalling a game. Must be called before the game executes any command,
+     * so that its random source is still at its seed.
+     *
+     * @param game the game to record
+     * @return the session's recorder, also attached to the game
+     */
+    public SessionJournal begin(GameManager game) {
+        byte[][] spare = sessionBuffers.get();
+        byte[] buffer = spare[0] != null ? spare[0] : new byte[SESSION_BUFFER_BYTES];
+        spare[0] = null;
+        SessionJournal session = new SessionJournal(this, nextGameId.getAndIncrement(), buffer);
+        session.start(game);
+        game.setJournal(session);
+        return session;
+    }
+
+    /**
+     * Takes back a finished session's buffer, so that the next session begun on
+     * the same thread records into it. Buffers that grew large are dropped.
+     *
+     * @param buffer the session's buffer, no longer used by it
+     */
+    void recycle(byte[] buffer) {
+        if (buffer.length <= MAX_RECYCLED_BYTES) sessionBuffers.get()[0] = buffer;
+    }
+
+    /**
+     * Adds a chunk of records to the journal. Writes the gathered records first if
+     * the chunk does not fit.
+     *
+     * @param chunk the records
+     * @param length how many bytes of chunk to add
+     * @return the journal position just after the chunk, for commit()
+     * @throws IOException if a write fails
+     */
+    long append(byte[] chunk, int length) throws IOException {
+        while (true) {
+            long upTo;
+            synchronized (lock) {
+                if (pending.remaining() >= length) {
+                    appended += length;
+                    pending.put(chunk, 0, length);
+                    return appended;
+                }
+                if (pending.position() == 0) {
+                    // A single chunk larger than the buffer
+                    pending = ByteBuffer.allocate(Integer.highestOneBit(length) * 2);
+                    continue;
+                }
+                upTo = appended;
+            }
+            commit(upTo);
+        }
+    }
+
+    /**
+     * Makes sure everything appended up to a position has been written.
+     * If another thread is already writing, waits for it; the next writer
+     * takes every record gathered in the meantime.
+     *
+     * @param upTo a position returned by append()
+     * @throws IOException if the write fails
+     */
+    void commit(long upTo) throws IOException {
+        ByteBuffer batch;
+        long end;
+        synchronized (lock) {
+            while (writing && written < upTo) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for journal write");
+                }
+            }
+            if (written >= upTo) return;
+
+            writing = true;
+            batch = pending;
+            pending = spare;
+            spare = null;
+            end = appended;
+        }
+
+        boolean done = false;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (sync) channel.force(false);
+            done = true;
+        } finally {
+            synchronized (lock) {
+                batch.clear();
+                spare = batch;
+                if (done) written = end;
+                writing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes everything appended so far.
+     *
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        long upTo;
+        synchronized (lock) {
+            upTo = appended;
+        }
+        commit(upTo);
+    }
+
+    /**
+     * Writes everything appended so far, forces it to storage and closes the file.
+     *
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+}
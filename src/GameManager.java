@@ -1,5 +1,7 @@
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -11,22 +13,33 @@ import java.util.Map;
  * @version 1.0
  */
 public class GameManager {
+    private static final int FULL_PRESSURE_FIELD = 5; // opponents that hit the player at full strength
+    private static final double MAX_SWING = 0.5;
+    private static final double SWING_PER_POPULARITY = 0.005; // local swing per point of popularity won or lost
+
     private Player player;
     private List<Opponent> opponents;
-    private List<Ally> availableAllies;
-    private Map<String, Location> worldMap;
+    private List<Opponent> opponentsView;
+    private BitSet availableAllies;
+    private List<Ally> availableAlliesView;
+    private boolean sharedAllies;
+    private WorldTemplate world;
+    private LocationTable locations;
     private Location currentLocation;
     private EventSystem eventSystem;
     private CommandProcessor commandProcessor;
+    private CommandRegistry registry;
+    private Path saveDirectory;
+    private SessionParking parking;
+    private OutputSink output;
+    private SessionRandom random;
+    private VoteCount votes;
 
     private int currentTurn;
     private int maxTurns;
     private boolean gameRunning;
-
-    private static final int ELECTION_DAY = 15; // Elections happen after 15 turns (increased difficulty)
-    private static final double WIN_POPULARITY = 75.0; // Increased from 70
-    private static final double LOSE_POPULARITY = 25.0; // Stricter loss condition
-    private static final int MIN_ALLIES_TO_WIN = 2; // Need more allies now
+    private GameOutcome outcome;
+    private GameRules rules;
 
     /**
      * Constructs a new GameManager with the specified player.
@@ -35,181 +48,354 @@ public class GameManager {
      * @param player the player character for this game session
      */
     public GameManager(Player player) {
+        this(player, ConsoleSink.INSTANCE);
+    }
+
+    /**
+     * Constructs a new GameManager that writes all narration to the given sink.
+     *
+     * @param player the player character for this game session
+     * @param output where game narration is written
+     */
+    public GameManager(Player player, OutputSink output) {
+        this(player, output, new SessionRandom());
+    }
+
+    /**
+     * Constructs a new GameManager with a fixed random seed.
+     * The same seed and the same commands always produce the same game.
+     *
+     * @param player the player character for this game session
+     * @param output where game narration is written
+     * @param seed the seed for all randomness in this session
+     */
+    public GameManager(Player player, OutputSink output, long seed) {
+        this(player, output, new SessionRandom(seed));
+    }
+
+    /**
+     * Constructs a new GameManager that draws all randomness from the given source.
+     *
+     * @param player the player character for this game session
+     * @param output where game narration is written
+     * @param random the session's random source
+     */
+    public GameManager(Player player, OutputSink output, SessionRandom random) {
+        this(player, output, random, WorldTemplate.standard());
+    }
+
+    /**
+     * Constructs a new GameManager played in the given world.
+     * The game is played by the rules the player was created with.
+     *
+     * @param player the player character for this game session
+     * @param output where game narration is written
+     * @param random the session's random source
+     * @param world the shared template the session's world is copied from
+     */
+    public GameManager(Player player, OutputSink output, SessionRandom random, WorldTemplate world) {
         this.player = player;
-        this.opponents = new ArrayList<>();
-        this.availableAllies = new ArrayList<>();
-        this.worldMap = new HashMap<>();
-        this.eventSystem = new EventSystem();
-        this.commandProcessor = new CommandProcessor(this);
+        this.rules = player.getRules();
+        this.world = world;
+        this.output = output;
+        this.random = random;
+        player.setOutput(output);
+        player.setRandom(random);
+        this.opponents = new ArrayList<>(world.getOpponentNames().size());
+        this.opponentsView = Collections.unmodifiableList(opponents);
+        this.eventSystem = new EventSystem(world, random);
 
         this.currentTurn = 1;
-        this.maxTurns = ELECTION_DAY;
+        this.maxTurns = rules.getElectionDay();
         this.gameRunning = true;
+        this.outcome = GameOutcome.IN_PROGRESS;
+        this.registry = CommandRegistry.standard();
+        this.saveDirectory = CommandProcessor.DEFAULT_SAVE_DIRECTORY;
 
         initializeWorld();
         initializeOpponents();
         initializeAllies();
+        Electorate electorate = world.getElectorate();
+        this.votes = electorate == null ? null : new VoteCount(electorate, player, opponentsView);
+    }
+
+    /**
+     * Constructs a fork of a game: an independent session in the same state.
+     * See fork().
+     */
+    private GameManager(GameManager original, OutputSink output) {
+        this.world = original.world;
+        this.rules = original.rules;
+        this.output = output;
+        this.random = original.random.copy();
+        this.player = new Player(original.player, output, random);
+        this.opponents = new ArrayList<>(original.opponents.size());
+        for (Opponent opponent : original.opponents) {
+            opponents.add(new Opponent(opponent, output));
+        }
+        this.opponentsView = Collections.unmodifiableList(opponents);
+        this.availableAllies = original.availableAllies;
+        this.availableAlliesView = original.availableAlliesView;
+        this.sharedAllies = true;
+        original.sharedAllies = true;
+        this.locations = new LocationTable(original.locations);
+        this.currentLocation = locations.get(original.currentLocation.getId());
+        this.eventSystem = new EventSystem(original.eventSystem, random);
+        this.registry = original.registry;
+        this.saveDirectory = original.saveDirectory;
+        this.parking = original.parking;
+        this.currentTurn = original.currentTurn;
+        this.maxTurns = original.maxTurns;
+        this.gameRunning = original.gameRunning;
+        this.outcome = original.outcome;
+        this.votes = original.votes == null ? null : new VoteCount(original.votes);
+    }
+
+    /**
+     * Gets the session's command processor, creating it on first use so that the
+     * constructor does not hand a half-built game to it.
+     *
+     * @return the CommandProcessor
+     */
+    private CommandProcessor processor() {
+        if (commandProcessor == null) {
+            commandProcessor = new CommandProcessor(this, registry);
+            commandProcessor.setSaveDirectory(saveDirectory);
+            commandProcessor.setParking(parking);
+        }
+        return commandProcessor;
+    }
+
+    /**
+     * Makes an independent copy of this game in its current state: player,
+     * opponents, available allies, location items, turn and random source.
+     * Playing the same commands on the fork and on this game gives the same results,
+     * and neither sees the other's changes.
+     *
+     * The fork shares lists with this game until either side changes them, and
+     * only copies the locations whose items have changed, so forking costs a few
+     * hundred bytes whatever the size of the world. The fork is not journalled.
+     *
+     * @return the fork, narrating to the same sink as this game
+     */
+    public GameManager fork() {
+        return fork(output);
+    }
+
+    /**
+     * Makes an independent copy of this game that narrates elsewhere, e.g. to
+     * NullSink for a search that only looks at the outcome.
+     *
+     * @param output where the fork's narration is written
+     * @return the fork
+     */
+    public GameManager fork(OutputSink output) {
+        return new GameManager(this, output);
     }
 
     /**
-     * Initializes the game world with locations, NPCs, items, and connections.
-     * Creates a more complex world map with 8 locations.
+     * Sets up this session's location table, starting at the template's start location.
      */
     private void initializeWorld() {
-        // Create locations with directional connections
-        Location townSquare = new Location("Town Square",
-                "The heart of the city. Citizens gather here for important announcements.");
-        Location parliament = new Location("Parliament Building",
-                "The center of political power. Opponents and allies gather here.");
-        Location mediaCentre = new Location("Media Centre",
-                "Where journalists and media influence opinions.");
-        Location slums = new Location("Downtown Slums",
-                "Where the working class lives. Building grassroots support here is valuable.");
-        Location mansion = new Location("Political Mansion",
-                "Your campaign headquarters. Plan strategy and manage finances here.");
-        Location university = new Location("University Campus",
-                "Young voters and intellectuals gather here. A key demographic.");
-        Location industryPark = new Location("Industry Park",
-                "Corporate headquarters and business leaders. Deep pockets but tough negotiations.");
-        Location suburbs = new Location("Suburban District",
-                "Middle-class families live here. Swing voters who could go either way.");
-
-        // Add NPCs to locations
-        townSquare.addNPC("Local Business Owner", "ally");
-        townSquare.addNPC("Concerned Citizen", "neutral");
-        parliament.addNPC("Prime Minister", "opponent");
-        parliament.addNPC("Union Leader", "ally");
-        parliament.addNPC("Conservative Senator", "opponent");
-        mediaCentre.addNPC("Media Magnate", "ally");
-        mediaCentre.addNPC("Investigative Journalist", "neutral");
-        slums.addNPC("Opposition Leader", "opponent");
-        slums.addNPC("Community Activist", "ally");
-        mansion.addNPC("Industry Baron", "opponent");
-        mansion.addNPC("Campaign Manager", "ally");
-        university.addNPC("Student Leader", "ally");
-        university.addNPC("Professor", "neutral");
-        industryPark.addNPC("Corporate CEO", "opponent");
-        industryPark.addNPC("Tech Entrepreneur", "ally");
-        suburbs.addNPC("Local Mayor", "neutral");
-        suburbs.addNPC("Soccer Mom", "neutral");
-
-        // Add items to locations
-        townSquare.addItem(new Item("Flyer", "Campaign flyers to distribute", "political", 5));
-        townSquare.addItem(new Item("Coffee", "Energy boost", "consumable", 3));
-        parliament.addItem(new Item("Political Document", "Classified government memo", "evidence", 15));
-        parliament.addItem(new Item("Voting Records", "Opponent voting history", "evidence", 12));
-        mediaCentre.addItem(new Item("Recording Device", "Record evidence of corruption", "tool", 20));
-        mediaCentre.addItem(new Item("Press Pass", "Access to exclusive events", "tool", 15));
-        mansion.addItem(new Item("Briefcase", "Contains campaign funds", "valuable", 50));
-        mansion.addItem(new Item("Strategy Guide", "Campaign tips", "document", 8));
-        slums.addItem(new Item("Petition", "Support from residents", "document", 10));
-        university.addItem(new Item("Research Paper", "Policy insights", "document", 7));
-        industryPark.addItem(new Item("Business Card", "Corporate connections", "tool", 10));
-        suburbs.addItem(new Item("Survey Results", "Voter preferences", "document", 12));
-
-        // Set up directional connections (more complex map)
-        townSquare.setConnection("north", parliament);
-        townSquare.setConnection("south", slums);
-        townSquare.setConnection("east", mediaCentre);
-        townSquare.setConnection("west", mansion);
-
-        parliament.setConnection("south", townSquare);
-        parliament.setConnection("east", university);
-
-        slums.setConnection("north", townSquare);
-        slums.setConnection("west", suburbs);
-
-        mediaCentre.setConnection("west", townSquare);
-        mediaCentre.setConnection("north", university);
-
-        mansion.setConnection("east", townSquare);
-        mansion.setConnection("south", suburbs);
-
-        university.setConnection("south", mediaCentre);
-        university.setConnection("west", parliament);
-        university.setConnection("east", industryPark);
-
-        industryPark.setConnection("west", university);
-        industryPark.setConnection("south", suburbs);
-
-        suburbs.setConnection("north", mansion);
-        suburbs.setConnection("east", slums);
-        suburbs.setConnection("north", industryPark);
-
-        worldMap.put("Town Square", townSquare);
-        worldMap.put("Parliament Building", parliament);
-        worldMap.put("Media Centre", mediaCentre);
-        worldMap.put("Downtown Slums", slums);
-        worldMap.put("Political Mansion", mansion);
-        worldMap.put("University Campus", university);
-        worldMap.put("Industry Park", industryPark);
-        worldMap.put("Suburban District", suburbs);
-
-        currentLocation = townSquare;
-    }
-
-    /**
-     * Initializes the game's opponents with varying difficulty levels.
+        locations = world.newLocations();
+        currentLocation = locations.get(world.getStartId());
+    }
+
+    /**
+     * Creates this session's opponents, all starting with the same stats.
+     * Their campaign styles take turns by slot.
      */
     private void initializeOpponents() {
-        opponents.add(new Opponent("Prime Minister"));
-        opponents.add(new Opponent("Opposition Leader"));
-        opponents.add(new Opponent("Industry Baron"));
-        opponents.add(new Opponent("Conservative Senator"));
-        opponents.add(new Opponent("Corporate CEO"));
+        List<String> names = world.getOpponentNames();
+        for (int slot = 0; slot < names.size(); slot++) {
+            Opponent opp = new Opponent(names.get(slot), OpponentPolicy.forSlot(slot));
+            opp.setOutput(output);
+            opponents.add(opp);
+        }
     }
 
     /**
-     * Initializes available allies with different loyalty and influence values.
+     * Starts with every template ally available. Until the first ally is recruited
+     * there is no set of available ids and the template's list is shared.
      */
     private void initializeAllies() {
-        availableAllies.add(new Ally("Local Business Owner", 60, 12));
-        availableAllies.add(new Ally("Union Leader", 65, 18));
-        availableAllies.add(new Ally("Media Magnate", 50, 22));
-        availableAllies.add(new Ally("Community Organizer", 75, 8));
-        availableAllies.add(new Ally("Student Leader", 70, 10));
-        availableAllies.add(new Ally("Tech Entrepreneur", 55, 15));
-        availableAllies.add(new Ally("Campaign Manager", 80, 20));
-        availableAllies.add(new Ally("Community Activist", 68, 14));
+        availableAllies = null;
+        availableAlliesView = world.getAllies();
+        sharedAllies = true;
     }
 
     /**
      * Starts the game and displays initial information.
      */
     public void start() {
-        System.out.println("\n========== DEMOCRATIC PROCESS ==========");
-        System.out.println("Character: " + player.getName());
-        System.out.println("Starting Popularity: " + player.getPopularity() + "%");
-        System.out.println("Starting Money: $" + player.getMoney());
-        System.out.println("Elections in: " + maxTurns + " turns");
-        System.out.println("Win Condition: " + WIN_POPULARITY + "% popularity + " + MIN_ALLIES_TO_WIN + " major allies");
-        System.out.println("========================================\n");
+        printIntro();
+        processor().start();
+    }
 
-        commandProcessor.start();
+    /**
+     * Prints the opening summary of the campaign.
+     */
+    public void printIntro() {
+        if (!output.isEnabled()) return;
+
+        output.println("\n========== DEMOCRATIC PROCESS ==========");
+        output.println("Character: " + player.getName());
+        output.println("Starting Popularity: " + player.getPopularity() + "%");
+        output.println("Starting Money: $" + player.getMoney());
+        output.println("Elections in: " + maxTurns + " turns");
+        if (world.getElectorate() == null) {
+            output.println("Win Condition: " + rules.getWinPopularity() + "% popularity + " + rules.getMinAlliesToWin() + " major allies");
+        } else {
+            output.println("Win Condition: a majority of " + world.getElectorate().getVoterCount() + " voters + "
+                    + rules.getMinAlliesToWin() + " major allies");
+        }
+        output.println("========================================\n");
+    }
+
+    /**
+     * Executes a single command line without reading from the console.
+     * Used by the headless simulator and anything else that drives the game programmatically.
+     *
+     * @param input the raw command line, e.g. "move north"
+     */
+    public void executeCommand(String input) {
+        processor().execute(input);
+    }
+
+    /**
+     * Prints the welcome message and starting location, as the interactive loop does.
+     */
+    public void printWelcome() {
+        processor().printWelcome();
+    }
+
+    /**
+     * Returns whether the session should keep reading commands:
+     * the game is still running and the player has not quit.
+     *
+     * @return true while commands are expected
+     */
+    public boolean isAcceptingCommands() {
+        return gameRunning && processor().isRunning();
     }
 
     /**
      * Moves the player to a connected location.
      *
-     * @param direction the direction to move (north, south, east, west)
+     * @param direction the direction (north, south, east, west, up, down) or named exit to take
      */
     public void movePlayer(String direction) {
+        Direction fixed = Direction.find(direction);
+        if (fixed != null) {
+            movePlayer(fixed);
+            return;
+        }
+
+        Location nextLocation = currentLocation.getConnection(direction);
+        if (nextLocation == null) {
+            if (output.isEnabled()) output.println("You cannot go " + direction.toLowerCase() + " from here.");
+            return;
+        }
+        arriveAt(nextLocation, direction.toLowerCase());
+    }
+
+    /**
+     * Moves the player one step in a direction.
+     * Resolving the exit does not allocate.
+     *
+     * @param direction the direction to move
+     */
+    public void movePlayer(Direction direction) {
         Location nextLocation = currentLocation.getConnection(direction);
 
         if (nextLocation == null) {
-            System.out.println("You cannot go " + direction + " from here.");
+            if (output.isEnabled()) output.println("You cannot go " + direction.getName() + " from here.");
             return;
         }
+        arriveAt(nextLocation, direction.getName());
+    }
 
+    /**
+     * Puts the player at a new location and rolls for a random encounter.
+     *
+     * @param nextLocation where the player arrives
+     * @param direction how the player got there, for the narration
+     */
+    private void arriveAt(Location nextLocation, String direction) {
         currentLocation = nextLocation;
-        System.out.println("You moved " + direction + ".");
-        displayCurrentLocation();
+        output.record(NarrationKind.MOVE, currentLocation.getName(), 0);
+        if (output.isEnabled()) {
+            output.println("You moved " + direction + ".");
+            displayCurrentLocation();
+        }
+        rollEncounter();
+    }
 
-        // Random encounter chance
-        if (Math.random() < 0.25) {
-            System.out.println("\n[!] You encounter someone as you arrive...");
-            Event event = eventSystem.triggerRandomEvent();
-            if (event != null) event.trigger(player);
+    /**
+     * Walks the player along the shortest route to a location, one exit at a time.
+     * Every step rolls for a random encounter, as a normal move does.
+     *
+     * @param destination the name of the location to travel to
+     */
+    public void travelTo(String destination) {
+        int target = world.findLocation(destination);
+        if (target < 0) {
+            if (output.isEnabled()) output.println("There is no place called '" + destination + "'.");
+            return;
+        }
+        if (target == currentLocation.getId()) {
+            if (output.isEnabled()) output.println("You are already at " + currentLocation.getName() + ".");
+            return;
+        }
+
+        WorldGraph graph = world.getGraph();
+        RouteTable routes = world.getRoutes();
+        if (routes.nextHop(currentLocation.getId(), target) < 0) {
+            if (output.isEnabled()) {
+                output.println("There is no route from here to " + world.getLocation(target).getName() + ".");
+            }
+            return;
+        }
+
+        while (currentLocation.getId() != target) {
+            int edge = routes.nextHop(currentLocation.getId(), target);
+            Location nextLocation = locations.get(graph.target(edge));
+            if (output.isEnabled()) {
+                output.println("You travel " + exitName(graph, edge) + " to " + nextLocation.getName() + ".");
+            }
+            currentLocation = nextLocation;
+            output.record(NarrationKind.MOVE, currentLocation.getName(), 0);
+            rollEncounter();
+        }
+        if (output.isEnabled()) displayCurrentLocation();
+    }
+
+    /**
+     * Gets the name of the current location's exit along a graph edge.
+     *
+     * @param graph the world graph
+     * @param edge an edge leaving the current location
+     * @return the direction or named exit, in lower case
+     */
+    private String exitName(WorldGraph graph, int edge) {
+        Direction direction = graph.direction(edge);
+        if (direction != null) return direction.getName();
+
+        int target = graph.target(edge);
+        for (int i = 0; i < currentLocation.getNamedExitCount(); i++) {
+            if (currentLocation.getNamedExitTarget(i) == target) return currentLocation.getNamedExit(i);
+        }
+        return "onwards";
+    }
+
+    /**
+     * Rolls for a random encounter on arriving somewhere.
+     */
+    private void rollEncounter() {
+        if (random.nextDouble() < 0.25) {
+            output.println("\n[!] You encounter someone as you arrive...");
+            Event event = eventSystem.triggerRandomEvent(player, currentLocation);
+            if (event != null) event.trigger(player, output);
         }
     }
 
@@ -222,7 +408,7 @@ public class GameManager {
         Item item = currentLocation.findItem(itemName);
 
         if (item == null) {
-            System.out.println("Item '" + itemName + "' not found here.");
+            if (output.isEnabled()) output.println("Item '" + itemName + "' not found here.");
             return;
         }
 
@@ -239,7 +425,7 @@ public class GameManager {
         Item item = player.findInventoryItem(itemName);
 
         if (item == null) {
-            System.out.println("Item '" + itemName + "' not in inventory.");
+            if (output.isEnabled()) output.println("Item '" + itemName + "' not in inventory.");
             return;
         }
 
@@ -248,7 +434,7 @@ public class GameManager {
     }
 
     /**
-     * Uses an item from the player's inventory with appropriate effects.
+     * Uses an item from the player's inventory; see Item.use().
      *
      * @param itemName the name of the item to use
      */
@@ -256,58 +442,26 @@ public class GameManager {
         Item item = player.findInventoryItem(itemName);
 
         if (item == null) {
-            System.out.println("Item '" + itemName + "' not in inventory.");
+            if (output.isEnabled()) output.println("Item '" + itemName + "' not in inventory.");
             return;
         }
 
-        String type = item.getType();
-        double itemValue = item.getValue();
-
-        if (type.equals("political")) {
-            System.out.println("Using " + item.getName() + "...");
-            player.updatePopularity(itemValue);
-            System.out.println("Popularity increased!");
-            player.dropItem(item);
-        } else if (type.equals("evidence")) {
-            System.out.println("Using " + item.getName() + "...");
-            System.out.println("You found incriminating evidence against an opponent!");
-            player.updatePopularity(itemValue);
-            // Damage a random opponent
-            if (!opponents.isEmpty()) {
-                Opponent target = opponents.get((int)(Math.random() * opponents.size()));
-                target.updatePopularity(-10);
-                System.out.println(target.getName() + " loses popularity!");
-            }
-            player.dropItem(item);
-        } else if (type.equals("valuable")) {
-            System.out.println("Using " + item.getName() + "...");
-            player.addMoney(itemValue);
-            System.out.println("Money gained: $" + itemValue);
-            player.dropItem(item);
-        } else if (type.equals("document")) {
-            System.out.println("Using " + item.getName() + "...");
-            player.updatePopularity(itemValue);
-            System.out.println("Support increased!");
-            player.dropItem(item);
-        } else if (type.equals("tool")) {
-            System.out.println("This tool can be used to gather evidence or blackmail opponents.");
-            System.out.println("Tools remain in inventory for multiple uses.");
-        } else if (type.equals("consumable")) {
-            System.out.println("Using " + item.getName() + "...");
-            player.updatePopularity(itemValue);
-            player.dropItem(item);
-        }
+        item.use(player, opponentsView, random);
     }
 
     /**
      * Triggers the player's speech action and potentially a random event.
      */
     public void playerGiveSpeech() {
+        long start = GameMetrics.start();
+        double popularity = player.getPopularity();
         player.giveSpeech();
+        swingDistrict(currentLocation.getId(), player.getPopularity() - popularity);
+        GameMetrics.stop("speech", start);
         // Higher chance of event after speech
-        if (Math.random() < 0.4) {
-            Event event = eventSystem.triggerRandomEvent();
-            if (event != null) event.trigger(player);
+        if (random.nextDouble() < 0.4) {
+            Event event = eventSystem.triggerRandomEvent(player, currentLocation);
+            if (event != null) event.trigger(player, output);
         }
     }
 
@@ -319,10 +473,12 @@ public class GameManager {
     public void playerBribe(String opponentName) {
         Opponent opponent = findOpponent(opponentName);
         if (opponent == null) {
-            System.out.println("Opponent '" + opponentName + "' not found.");
+            if (output.isEnabled()) output.println("Opponent '" + opponentName + "' not found.");
             return;
         }
+        long start = GameMetrics.start();
         player.bribe(opponent);
+        GameMetrics.stop("bribe", start);
     }
 
     /**
@@ -333,19 +489,23 @@ public class GameManager {
     public void playerNegotiateAlliance(String allyName) {
         Ally ally = findAlly(allyName);
         if (ally == null) {
-            System.out.println("Ally '" + allyName + "' not found or already allied.");
+            if (output.isEnabled()) output.println("Ally '" + allyName + "' not found or already allied.");
             return;
         }
 
         // Alliances now require minimum influence
-        if (player.getInfluence() < 25) {
-            System.out.println("You need at least 25 influence to negotiate alliances!");
-            System.out.println("Current influence: " + player.getInfluence());
+        if (player.getInfluence() < rules.getAllianceInfluence()) {
+            if (output.isEnabled()) {
+                output.println("You need at least " + rules.getAllianceInfluence() + " influence to negotiate alliances!");
+                output.println("Current influence: " + player.getInfluence());
+            }
             return;
         }
 
+        long start = GameMetrics.start();
         player.negotiateAlliance(ally);
-        availableAllies.remove(ally);
+        GameMetrics.stop("alliance", start);
+        removeAvailableAlly(ally);
     }
 
     /**
@@ -356,17 +516,23 @@ public class GameManager {
     public void playerSabotage(String opponentName) {
         Opponent opponent = findOpponent(opponentName);
         if (opponent == null) {
-            System.out.println("Opponent '" + opponentName + "' not found.");
+            if (output.isEnabled()) output.println("Opponent '" + opponentName + "' not found.");
             return;
         }
+        long start = GameMetrics.start();
+        double popularity = player.getPopularity();
         player.sabotage(opponent);
+        swingDistrict(currentLocation.getId(), player.getPopularity() - popularity);
+        GameMetrics.stop("sabotage", start);
     }
 
     /**
      * Manages media narrative at a cost.
      */
     public void playerManageMedia() {
+        long start = GameMetrics.start();
         player.manageMedia();
+        GameMetrics.stop("media", start);
     }
 
     /**
@@ -374,70 +540,215 @@ public class GameManager {
      * Checks for win/lose conditions and triggers events.
      */
     public void endTurn() {
+        TurnFlightEvent flight = new TurnFlightEvent();
+        flight.begin();
+        long start = GameMetrics.start();
         currentTurn++;
-        System.out.println("\n--- Turn " + currentTurn + " / " + maxTurns + " ---");
-
-        // Opponents gain popularity each turn (increased difficulty)
-        for (Opponent opp : opponents) {
-            opp.updatePopularity(2 + Math.random() * 3);
+        output.record(NarrationKind.TURN, player.getName(), currentTurn);
+        if (output.isEnabled()) output.println("\n--- Turn " + currentTurn + " / " + maxTurns + " ---");
+
+        // Opponents decide their moves together, then act in slot order
+        double opponentGain = 0;
+        double playerLoss = 0;
+        if (!opponents.isEmpty()) {
+            OpponentMove[] moves = OpponentPlanner.plan(opponentsView, player, opponentPressure(), random.nextLong());
+            for (int slot = 0; slot < moves.length; slot++) {
+                applyOpponentMove(slot, opponents.get(slot), moves[slot]);
+                opponentGain += moves[slot].getPopularity();
+                playerLoss -= moves[slot].getPlayerPopularity();
+            }
         }
 
         // Maintenance costs
-        if (player.getAlliances().size() > 0) {
-            double maintenanceCost = player.getAlliances().size() * 5;
+        int allianceCount = player.allianceCount();
+        double maintenanceCost = allianceCount * 5;
+        if (allianceCount > 0) {
             player.addMoney(-maintenanceCost);
-            System.out.println("Alliance maintenance cost: $" + maintenanceCost);
+            if (output.isEnabled()) output.println("Alliance maintenance cost: $" + maintenanceCost);
         }
 
+        countVotes();
+        boolean wasRunning = gameRunning;
         checkGameStatus();
+        if (wasRunning && !gameRunning) GameMetrics.countOutcome(outcome);
 
         // Higher chance of events
-        if (Math.random() < 0.5) {
-            Event event = eventSystem.triggerRandomEvent();
-            if (event != null) event.trigger(player);
+        if (random.nextDouble() < 0.5) {
+            Event event = eventSystem.triggerRandomEvent(player, currentLocation);
+            if (event != null) event.trigger(player, output);
+        }
+        GameMetrics.stop("endTurn", start);
+        if (flight.shouldCommit()) {
+            flight.turn = currentTurn;
+            flight.opponentsUpdated = opponents.size();
+            flight.opponentPopularityGain = opponentGain;
+            flight.playerPopularityLoss = playerLoss;
+            flight.allianceUpkeep = maintenanceCost;
+            flight.commit();
         }
     }
 
+    /**
+     * Gets how hard opponents' actions hit the player. Past FULL_PRESSURE_FIELD
+     * opponents each one hits proportionally softer, so a crowded field presses the
+     * player about as hard as the standard one.
+     *
+     * @return the rules' opponent aggression, scaled down for large fields
+     */
+    private double opponentPressure() {
+        return rules.getOpponentAggression() * Math.min(1.0, (double) FULL_PRESSURE_FIELD / opponents.size());
+    }
+
+    /**
+     * Carries out one opponent's move and tells the player about anything aimed at them.
+     * Attack ads also swing the opponent's home district, the one at its slot.
+     *
+     * @param slot the opponent's slot
+     * @param opponent the opponent
+     * @param move what it decided to do
+     */
+    private void applyOpponentMove(int slot, Opponent opponent, OpponentMove move) {
+        GameMetrics.count(move.getAction().getCounter());
+        opponent.updatePopularity(move.getPopularity());
+        opponent.updateDefense(move.getDefense());
+        switch (move.getAction()) {
+            case COUNTER_CAMPAIGN:
+                if (output.isEnabled()) output.println(opponent.getName() + " runs attack ads against you!");
+                player.updatePopularity(move.getPlayerPopularity());
+                if (votes != null) swingDistrict(slot % votes.getSwings().length, move.getPlayerPopularity());
+                break;
+            case BRIBE:
+                player.addInfluence(move.getPlayerInfluence());
+                if (output.isEnabled()) {
+                    output.println(opponent.getName() + " buys off some of your backers! Influence -"
+                            + String.format("%.1f", -move.getPlayerInfluence()));
+                }
+                break;
+            case MEDIA_PUSH:
+                player.addScandalRisk(move.getPlayerScandalRisk());
+                if (output.isEnabled()) {
+                    output.println(opponent.getName() + " feeds the press a story about you. Scandal risk +"
+                            + String.format("%.1f", move.getPlayerScandalRisk()));
+                }
+                break;
+            case DEFEND:
+                if (output.isEnabled()) output.println(opponent.getName() + " tightens campaign security.");
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Moves a district's voters towards or away from the player after a local
+     * campaign action. Does nothing in a world without an electorate.
+     *
+     * @param district the district, i.e. the location id
+     * @param popularity the popularity the action won (positive) or lost (negative)
+     */
+    private void swingDistrict(int district, double popularity) {
+        if (votes == null) return;
+        double swing = votes.getSwing(district) + popularity * SWING_PER_POPULARITY;
+        votes.setSwing(district, Math.max(-MAX_SWING, Math.min(MAX_SWING, swing)));
+    }
+
+    /**
+     * Brings the running vote totals up to date with every popularity that changed.
+     * Called after each command and each turn; does nothing in a world without an electorate.
+     */
+    void countVotes() {
+        if (votes != null) votes.update(player, opponentsView);
+    }
+
+    /**
+     * Gets the running vote totals, current as of the last command or turn.
+     *
+     * @return the VoteCount, or null in a world without an electorate
+     */
+    public VoteCount getVotes() {
+        return votes;
+    }
+
+    /**
+     * Counts the votes as they would fall today, voter by voter.
+     *
+     * @return the tally, or null in a world without an electorate
+     */
+    public Electorate.Tally tallyVotes() {
+        Electorate electorate = world.getElectorate();
+        if (electorate == null) return null;
+        return electorate.tally(player.getPopularity(), opponentsView, votes.getSwings());
+    }
+
     /**
      * Checks the current game status and determines win/lose conditions.
+     * When several conditions apply, the last one checked decides the recorded outcome.
      */
     private void checkGameStatus() {
+        GameStatusFlightEvent flight = new GameStatusFlightEvent();
+        flight.begin();
         double popularity = player.getPopularity();
         double money = player.getMoney();
-        int alliesCount = player.getAlliances().size();
+        int alliesCount = player.allianceCount();
 
         if (currentTurn >= maxTurns) {
-            if (popularity >= WIN_POPULARITY && alliesCount >= MIN_ALLIES_TO_WIN) {
-                System.out.println("\n========== YOU WON THE ELECTION! ==========");
-                System.out.println("Final Popularity: " + String.format("%.1f", popularity) + "%");
-                System.out.println("Allies: " + alliesCount);
-                System.out.println("Remaining Funds: $" + String.format("%.2f", money));
+            // With an electorate the voters decide; otherwise popularity does
+            boolean elected = votes == null ? popularity >= rules.getWinPopularity() : votes.getPlayerShare() > 0.5;
+            if (elected && alliesCount >= rules.getMinAlliesToWin()) {
+                if (output.isEnabled()) {
+                    output.println("\n========== YOU WON THE ELECTION! ==========");
+                    output.println("Final Popularity: " + String.format("%.1f", popularity) + "%");
+                    if (votes != null) output.println("Vote Share: " + String.format("%.1f", 100 * votes.getPlayerShare()) + "%");
+                    output.println("Allies: " + alliesCount);
+                    output.println("Remaining Funds: $" + String.format("%.2f", money));
+                }
                 gameRunning = false;
+                outcome = GameOutcome.WON;
             } else {
-                System.out.println("\n========== YOU LOST THE ELECTION! ==========");
-                System.out.println("Final Popularity: " + String.format("%.1f", popularity) + "%");
-                System.out.println("Allies: " + alliesCount);
-                System.out.println("Required: " + WIN_POPULARITY + "% popularity + " + MIN_ALLIES_TO_WIN + " allies");
+                if (output.isEnabled()) {
+                    output.println("\n========== YOU LOST THE ELECTION! ==========");
+                    output.println("Final Popularity: " + String.format("%.1f", popularity) + "%");
+                    if (votes != null) output.println("Vote Share: " + String.format("%.1f", 100 * votes.getPlayerShare()) + "%");
+                    output.println("Allies: " + alliesCount);
+                    output.println("Required: " + (votes == null ? rules.getWinPopularity() + "% popularity"
+                            : "a majority of the votes") + " + " + rules.getMinAlliesToWin() + " allies");
+                }
                 gameRunning = false;
+                outcome = GameOutcome.LOST_ELECTION;
             }
         }
 
         if (money <= 0) {
-            System.out.println("\n========== GAME OVER! ==========");
-            System.out.println("You ran out of money!");
+            output.println("\n========== GAME OVER! ==========");
+            output.println("You ran out of money!");
             gameRunning = false;
+            outcome = GameOutcome.OUT_OF_MONEY;
         }
 
-        if (popularity <= LOSE_POPULARITY) {
-            System.out.println("\n========== GAME OVER! ==========");
-            System.out.println("Your popularity dropped too low!");
+        if (popularity <= rules.getLosePopularity()) {
+            output.println("\n========== GAME OVER! ==========");
+            output.println("Your popularity dropped too low!");
             gameRunning = false;
+            outcome = GameOutcome.LOW_POPULARITY;
         }
 
         if (player.getScandalRisk() >= 100) {
-            System.out.println("\n========== GAME OVER! ==========");
-            System.out.println("A major scandal destroyed your campaign!");
+            output.println("\n========== GAME OVER! ==========");
+            output.println("A major scandal destroyed your campaign!");
             gameRunning = false;
+            outcome = GameOutcome.SCANDAL;
+        }
+
+        if (!gameRunning) {
+            output.record(NarrationKind.GAME_OVER, outcome.name(), currentTurn);
+        }
+        if (flight.shouldCommit()) {
+            flight.turn = currentTurn;
+            flight.outcome = outcome.name();
+            flight.popularity = popularity;
+            flight.money = money;
+            flight.alliances = alliesCount;
+            flight.commit();
         }
     }
 
@@ -446,50 +757,77 @@ public class GameManager {
      */
     public void displayPlayerStats() {
         player.updateStats();
+        if (votes != null && output.isEnabled()) {
+            output.println("Polling: " + String.format("%.1f", 100 * votes.getPlayerShare()) + "% of the vote, "
+                    + ordinal(votes.getRank()) + " of " + (opponents.size() + 1) + ", "
+                    + String.format("%+.1f", 100 * votes.getLeadMargin()) + " points on "
+                    + opponents.get(votes.getLeader()).getName() + "\n");
+        }
+    }
+
+    /**
+     * Writes a place as an ordinal number.
+     *
+     * @param place the place, from 1
+     * @return e.g. "1st", "22nd" or "13th"
+     */
+    static String ordinal(int place) {
+        int tens = place % 100;
+        if (tens >= 11 && tens <= 13) return place + "th";
+        switch (place % 10) {
+            case 1: return place + "st";
+            case 2: return place + "nd";
+            case 3: return place + "rd";
+            default: return place + "th";
+        }
     }
 
     /**
      * Displays the player's inventory contents.
      */
     public void displayInventory() {
-        System.out.println("\n--- INVENTORY ---");
+        if (!output.isEnabled()) return;
+
+        output.println("\n--- INVENTORY ---");
         List<Item> inventory = player.getInventory();
         if (inventory.isEmpty()) {
-            System.out.println("Your inventory is empty.");
+            output.println("Your inventory is empty.");
         } else {
             for (Item item : inventory) {
-                System.out.println("- " + item.getName() + " (" + item.getType() + ") - " + item.getDescription());
+                output.println("- " + item.getName() + " (" + item.getType() + ") - " + item.getDescription());
             }
         }
-        System.out.println("-----------------\n");
+        output.println("-----------------\n");
     }
 
     /**
      * Displays information about the current location including NPCs and items.
      */
     public void displayCurrentLocation() {
-        System.out.println("\n--- " + currentLocation.getName() + " ---");
-        System.out.println(currentLocation.getDescription());
+        if (!output.isEnabled()) return;
+
+        output.println("\n--- " + currentLocation.getName() + " ---");
+        output.println(currentLocation.getDescription());
 
         Map<String, String> npcs = currentLocation.getNPCs();
         if (!npcs.isEmpty()) {
-            System.out.println("\nPeople here:");
+            output.println("\nPeople here:");
             for (String npcName : npcs.keySet()) {
                 String type = npcs.get(npcName);
-                System.out.println("- " + npcName + " (" + type + ")");
+                output.println("- " + npcName + " (" + type + ")");
             }
         }
 
         List<Item> items = currentLocation.getItems();
         if (!items.isEmpty()) {
-            System.out.println("\nItems here:");
+            output.println("\nItems here:");
             for (Item item : items) {
-                System.out.println("- " + item.getName());
+                output.println("- " + item.getName());
             }
         }
 
-        System.out.println("\nExits: " + currentLocation.getExits());
-        System.out.println();
+        output.println("\nExits: " + currentLocation.getExits());
+        output.println();
     }
 
     /**
@@ -498,118 +836,202 @@ public class GameManager {
      * @param npcName the name of the NPC to interact with
      */
     public void playerInteractNPC(String npcName) {
-        Map<String, String> npcs = currentLocation.getNPCs();
+        String name = currentLocation.findNPC(npcName);
 
-        if (!npcs.containsKey(npcName)) {
-            System.out.println("NPC '" + npcName + "' not found here.");
+        if (name == null) {
+            if (output.isEnabled()) output.println("NPC '" + npcName + "' not found here.");
             return;
         }
 
-        String npcType = npcs.get(npcName);
+        npcName = name;
+        String npcType = currentLocation.getNPCType(npcName);
 
         if (!npcType.equals("neutral")) {
-            System.out.println("Use specific commands for allies and opponents (ally/bribe/sabotage).");
+            output.println("Use specific commands for allies and opponents (ally/bribe/sabotage).");
             return;
         }
 
-        System.out.println("\nYou approach " + npcName + "...");
+        if (output.isEnabled()) output.println("\nYou approach " + npcName + "...");
 
         // Different neutrals provide different benefits
         switch (npcName) {
             case "Concerned Citizen":
-                System.out.println("The citizen shares local concerns with you.");
+                output.println("The citizen shares local concerns with you.");
                 player.updatePopularity(3);
-                System.out.println("You gain insight into public opinion! +3 popularity");
+                output.println("You gain insight into public opinion! +3 popularity");
                 break;
 
             case "Investigative Journalist":
                 if (player.getMoney() >= 25) {
-                    System.out.println("The journalist offers to investigate your opponents for $25.");
-                    System.out.print("Accept? (yes/no): ");
+                    output.println("The journalist offers to investigate your opponents for $25.");
+                    output.print("Accept? (yes/no): ");
                     // For now, auto-accept in this version
                     player.addMoney(-25);
-                    System.out.println("The journalist digs up dirt on a random opponent!");
+                    output.println("The journalist digs up dirt on a random opponent!");
                     if (!opponents.isEmpty()) {
-                        Opponent target = opponents.get((int)(Math.random() * opponents.size()));
+                        Opponent target = opponents.get(random.nextInt(opponents.size()));
                         target.updatePopularity(-8);
-                        System.out.println(target.getName() + " loses 8 popularity!");
+                        if (output.isEnabled()) output.println(target.getName() + " loses 8 popularity!");
                     }
                 } else {
-                    System.out.println("The journalist would help, but you need $25.");
+                    output.println("The journalist would help, but you need $25.");
                 }
                 break;
 
             case "Professor":
-                System.out.println("The professor shares research on political strategy.");
-                double influenceGain = 5 + Math.random() * 5;
-                System.out.println("You gain valuable insights! +" + String.format("%.1f", influenceGain) + " influence");
+                output.println("The professor shares research on political strategy.");
+                double influenceGain = 5 + random.nextDouble() * 5;
+                if (output.isEnabled()) {
+                    output.println("You gain valuable insights! +" + String.format("%.1f", influenceGain) + " influence");
+                }
                 // Note: Player class would need influence getter/setter exposed
                 player.updatePopularity(2);
                 break;
 
             case "Local Mayor":
-                System.out.println("The mayor is willing to endorse you... for a price.");
+                output.println("The mayor is willing to endorse you... for a price.");
                 if (player.getMoney() >= 30) {
                     player.addMoney(-30);
                     player.updatePopularity(12);
-                    System.out.println("Mayor endorsement secured! +12 popularity (Cost: $30)");
+                    output.println("Mayor endorsement secured! +12 popularity (Cost: $30)");
                 } else {
-                    System.out.println("The mayor wants $30 for an endorsement.");
+                    output.println("The mayor wants $30 for an endorsement.");
                 }
                 break;
 
             case "Soccer Mom":
-                System.out.println("She represents suburban voters' concerns.");
-                if (Math.random() < 0.6) {
+                output.println("She represents suburban voters' concerns.");
+                if (random.nextDouble() < 0.6) {
                     player.updatePopularity(4);
-                    System.out.println("She's impressed with your policies! +4 popularity");
+                    output.println("She's impressed with your policies! +4 popularity");
                 } else {
-                    System.out.println("She's skeptical of politicians. No effect.");
+                    output.println("She's skeptical of politicians. No effect.");
                 }
                 break;
 
             default:
-                System.out.println(npcName + " chats with you briefly but offers no specific help.");
+                if (output.isEnabled()) output.println(npcName + " chats with you briefly but offers no specific help.");
         }
 
-        System.out.println();
+        output.println();
     }
 
     /**
      * Displays the help menu.
      */
     public void displayHelp() {
-        commandProcessor.displayHelp();
+        processor().displayHelp();
     }
 
     /**
-     * Finds an opponent by name.
+     * Finds an opponent by name, ignoring case.
      *
      * @param name the name of the opponent
      * @return the Opponent object or null if not found
      */
-    private Opponent findOpponent(String name) {
-        for (Opponent o : opponents) {
-            if (o.getName().equalsIgnoreCase(name)) {
-                return o;
-            }
-        }
-        return null;
+    public Opponent findOpponent(String name) {
+        int slot = world.findOpponent(name);
+        return slot < 0 ? null : opponents.get(slot);
     }
 
     /**
-     * Finds an available ally by name.
+     * Finds an available ally by name, ignoring case.
      *
      * @param name the name of the ally
      * @return the Ally object or null if not found
      */
-    private Ally findAlly(String name) {
-        for (Ally a : availableAllies) {
-            if (a.getName().equalsIgnoreCase(name)) {
-                return a;
+    public Ally findAlly(String name) {
+        Ally ally = world.findAlly(name);
+        return ally != null && (availableAllies == null || availableAllies.get(ally.getId())) ? ally : null;
+    }
+
+    /**
+     * Removes an ally from the available set, first copying the set if it is still
+     * shared with a fork. The list view is rebuilt from the set when next asked for.
+     *
+     * @param ally the ally to remove
+     */
+    private void removeAvailableAlly(Ally ally) {
+        if (availableAllies == null) {
+            availableAllies = new BitSet(world.getAllies().size());
+            availableAllies.set(0, world.getAllies().size());
+        } else if (sharedAllies) {
+            availableAllies = (BitSet) availableAllies.clone();
+        }
+        sharedAllies = false;
+        availableAllies.clear(ally.getId());
+        availableAlliesView = null;
+    }
+
+    /**
+     * Replaces the session's progress with that of a saved game. Used by GameSnapshot,
+     * which restores the player, opponents and random source itself.
+     *
+     * @param rules the rules the saved game was played by
+     * @param currentTurn the turn
+     * @param gameRunning whether the game was still running
+     * @param outcome how the game ended, or IN_PROGRESS
+     * @param locations the session's locations, with their items as saved
+     * @param locationId where the player is
+     * @param availableAllies the allies still available, or null if none had been recruited
+     */
+    void restore(GameRules rules, int currentTurn, boolean gameRunning, GameOutcome outcome,
+                 LocationTable locations, int locationId, List<Ally> availableAllies) {
+        this.rules = rules;
+        this.maxTurns = rules.getElectionDay();
+        this.currentTurn = currentTurn;
+        this.gameRunning = gameRunning;
+        this.outcome = outcome;
+        this.locations = locations;
+        this.currentLocation = locations.get(locationId);
+        if (availableAllies == null) {
+            initializeAllies();
+        } else {
+            this.availableAllies = new BitSet(world.getAllies().size());
+            for (Ally ally : availableAllies) {
+                this.availableAllies.set(ally.getId());
             }
+            this.availableAlliesView = null;
+            this.sharedAllies = false;
         }
-        return null;
+    }
+
+    /**
+     * Gets how far each district has swung towards the player, for snapshots.
+     *
+     * @return the swings, indexed by location id, or null in a world without an electorate
+     */
+    double[] getDistrictSwing() {
+        return votes == null ? null : votes.getSwings();
+    }
+
+    /**
+     * Sets the district swings from a saved game and recounts the votes.
+     * The player and opponents must already be restored.
+     *
+     * @param swing the swings; copied
+     */
+    void restoreDistrictSwing(double[] swing) {
+        votes.update(player, opponentsView);
+        votes.restoreSwings(swing);
+    }
+
+    /**
+     * Gets the session's copies of the world's locations.
+     *
+     * @return the LocationTable
+     */
+    LocationTable getLocations() {
+        return locations;
+    }
+
+    /**
+     * Returns whether the available allies are still the template's list, i.e. no ally has been recruited.
+     *
+     * @return true while every template ally is available
+     */
+    boolean hasTemplateAllies() {
+        return availableAllies == null;
     }
 
     /**
@@ -621,6 +1043,127 @@ public class GameManager {
         return gameRunning;
     }
 
+    /**
+     * Gets how the game ended, or IN_PROGRESS while it is still running.
+     *
+     * @return the GameOutcome
+     */
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets the current turn number.
+     *
+     * @return the current turn
+     */
+    public int getCurrentTurn() {
+        return currentTurn;
+    }
+
+    /**
+     * Gets the location the player is currently in.
+     *
+     * @return the current Location
+     */
+    public Location getCurrentLocation() {
+        return currentLocation;
+    }
+
+    /**
+     * Gets the sink all game narration is written to.
+     *
+     * @return the OutputSink
+     */
+    public OutputSink getOutput() {
+        return output;
+    }
+
+    /**
+     * Gets the random source for this session.
+     *
+     * @return the SessionRandom
+     */
+    public SessionRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Gets the seed this session was started with.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    /**
+     * Gets the world this session plays in.
+     *
+     * @return the world template
+     */
+    public WorldTemplate getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the rules this session is played by.
+     *
+     * @return the balance constants
+     */
+    public GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Records every accepted command to a journal from now on.
+     * Use GameJournal.begin(), which also records how the game started.
+     *
+     * @param journal the session's journal, or null to stop recording
+     */
+    public void setJournal(SessionJournal journal) {
+        processor().setJournal(journal);
+    }
+
+    /**
+     * Sets the commands this session understands, e.g. the server registry for a remote player.
+     *
+     * @param registry the registry
+     */
+    public void setCommandRegistry(CommandRegistry registry) {
+        this.registry = registry;
+        if (commandProcessor != null) commandProcessor.setRegistry(registry);
+    }
+
+    /**
+     * Sets where this session's games are saved and loaded from.
+     *
+     * @param directory the save directory, or null to turn save and load off
+     */
+    public void setSaveDirectory(Path directory) {
+        this.saveDirectory = directory;
+        if (commandProcessor != null) commandProcessor.setSaveDirectory(directory);
+    }
+
+    /**
+     * Sets where the park command leaves this session's game.
+     *
+     * @param parking the server's parking, or null to turn park off
+     */
+    public void setParking(SessionParking parking) {
+        this.parking = parking;
+        if (commandProcessor != null) commandProcessor.setParking(parking);
+    }
+
+    /**
+     * Gets the journal this session records to.
+     *
+     * @return the SessionJournal, or null if the session is not journalled
+     */
+    public SessionJournal getJournal() {
+        return commandProcessor == null ? null : commandProcessor.getJournal();
+    }
+
     /**
      * Gets the player object.
      *
@@ -633,18 +1176,27 @@ public class GameManager {
     /**
      * Gets the list of opponents.
      *
-     * @return list of Opponent objects
+     * @return read-only list of Opponent objects
      */
     public List<Opponent> getOpponents() {
-        return opponents;
+        return opponentsView;
     }
 
     /**
-     * Gets the list of available allies.
+     * Gets the list of available allies, in template order. After a change it is
+     * rebuilt from the set of available ids the first time it is asked for.
      *
-     * @return list of available Ally objects
+     * @return read-only list of available Ally objects
      */
     public List<Ally> getAvailableAllies() {
-        return availableAllies;
+        if (availableAlliesView == null) {
+            List<Ally> allies = world.getAllies();
+            List<Ally> available = new ArrayList<>(availableAllies.cardinality());
+            for (int id = availableAllies.nextSetBit(0); id >= 0; id = availableAllies.nextSetBit(id + 1)) {
+                available.add(allies.get(id));
+            }
+            availableAlliesView = Collections.unmodifiableList(available);
+        }
+        return availableAlliesView;
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters and latency histograms for every game in the process.
+ *
+ * Metrics are off by default. While off, each instrumented call site costs one
+ * read of a flag: start() returns 0 without reading the clock, and stop() and
+ * count() return at once. While on, a timed call reads the clock twice and
+ * records into a LatencyHistogram, and a count is a LongAdder increment, so
+ * sessions on different threads do not contend.
+ *
+ * Counters and histograms are created on first use and looked up by name; the
+ * names used by the game are listed in the README.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameMetrics {
+    private static final String OBJECT_NAME = "DemocraticProcess:type=GameMetrics";
+    private static final String[] OUTCOME_COUNTERS = outcomeCounters();
+
+    private static volatile boolean enabled;
+    private static boolean registered;
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> EVENTS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> OPERATIONS = new ConcurrentHashMap<>();
+    private static final Map<GameCommand, LatencyHistogram> COMMANDS = new ConcurrentHashMap<>();
+
+    /**
+     * Not instantiated; see Bean for the JMX view.
+     */
+    private GameMetrics() {
+    }
+
+    /**
+     * Names the counter of each game outcome, e.g. "game.out_of_money".
+     *
+     * @return the names, indexed by GameOutcome ordinal
+     */
+    private static String[] outcomeCounters() {
+        GameOutcome[] outcomes = GameOutcome.values();
+        String[] names = new String[outcomes.length];
+        for (GameOutcome outcome : outcomes) {
+            names[outcome.ordinal()] = "game." + outcome.name().toLowerCase();
+        }
+        return names;
+    }
+
+    /**
+     * Gets whether metrics are being collected.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops collecting metrics. What was collected is kept.
+     *
+     * @param on true to collect
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server. Does nothing if they
+     * are already registered.
+     *
+     * @throws JMException if registration fails
+     */
+    public static synchronized void registerMBean() throws JMException {
+        if (registered) return;
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        registered = true;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return the start time to pass to stop(), or 0 if metrics are off
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records how long an operation took.
+     *
+     * @param operation the operation's name, e.g. "endTurn"
+     * @param start the value start() returned
+     */
+    public static void stop(String operation, long start) {
+        if (start == 0) return;
+        long nanos = System.nanoTime() - start;
+        OPERATIONS.computeIfAbsent(operation, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Records how long a command took, including everything it triggered.
+     *
+     * @param command the command
+     * @param start the value start() returned
+     */
+    public static void stop(GameCommand command, long start) {
+        if (start == 0) return;
+        long nanos = System.nanoTime() - start;
+        COMMANDS.computeIfAbsent(command, c -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Counts one occurrence of something, e.g. "bribe.success".
+     *
+     * @param counter the counter's name
+     */
+    public static void count(String counter) {
+        if (!enabled) return;
+        COUNTERS.computeIfAbsent(counter, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts a game ending.
+     *
+     * @param outcome how the game ended
+     */
+    public static void countOutcome(GameOutcome outcome) {
+        count(OUTCOME_COUNTERS[outcome.ordinal()]);
+    }
+
+    /**
+     * Counts a random event firing.
+     *
+     * @param event the event
+     */
+    public static void countEvent(Event event) {
+        if (!enabled) return;
+        EVENTS.computeIfAbsent(event.getName(), name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets a snapshot of the outcome counters.
+     *
+     * @return counter name to count, sorted by name
+     */
+    public static Map<String, Long> getCounters() {
+        return sums(COUNTERS);
+    }
+
+    /**
+     * Gets a snapshot of how often each random event fired.
+     *
+     * @return event name to count, sorted by name
+     */
+    public static Map<String, Long> getEvents() {
+        return sums(EVENTS);
+    }
+
+    /**
+     * Sums a map of adders.
+     *
+     * @param adders the adders
+     * @return name to sum, sorted by name
+     */
+    private static Map<String, Long> sums(Map<String, LongAdder> adders) {
+        Map<String, Long> sums = new TreeMap<>();
+        adders.forEach((name, adder) -> sums.put(name, adder.sum()));
+        return sums;
+    }
+
+    /**
+     * Gets a summary of every histogram. Commands are named "command " followed
+     * by the command word.
+     *
+     * @return name to summary, sorted by name
+     */
+    public static Map<String, LatencyHistogram.Summary> getLatencies() {
+        Map<String, LatencyHistogram.Summary> latencies = new TreeMap<>();
+        COMMANDS.forEach((command, histogram) -> latencies.put("command " + command.getName(), histogram.summarize()));
+        OPERATIONS.forEach((name, histogram) -> latencies.put(name, histogram.summarize()));
+        return latencies;
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+        EVENTS.values().forEach(LongAdder::reset);
+        OPERATIONS.values().forEach(LatencyHistogram::reset);
+        COMMANDS.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Formats every counter and histogram as a table.
+     *
+     * @return the report
+     */
+    public static String report() {
+        StringBuilder text = new StringBuilder();
+        text.append("=== METRICS (").append(enabled ? "on" : "off").append(") ===\n");
+        Map<String, Long> counters = getCounters();
+        if (!counters.isEmpty()) text.append("Counters:\n");
+        counters.forEach((name, count) -> text.append(String.format("  %-28s %10d%n", name, count)));
+        Map<String, Long> events = getEvents();
+        if (!events.isEmpty()) text.append("Events:\n");
+        events.forEach((name, count) -> text.append(String.format("  %-28s %10d%n", name, count)));
+
+        Map<String, LatencyHistogram.Summary> latencies = getLatencies();
+        if (!latencies.isEmpty()) {
+            text.append(String.format("Latency (us): %17s %9s %9s %9s %9s %9s%n",
+                    "count", "mean", "p50", "p90", "p99", "max"));
+        }
+        latencies.forEach((name, s) -> text.append(String.format("  %-20s %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, s.getCount(), s.getMeanMicros(), s.getP50Micros(), s.getP90Micros(),
+                s.getP99Micros(), s.getMaxMicros())));
+        if (counters.isEmpty() && events.isEmpty() && latencies.isEmpty()) {
+            text.append(enabled ? "Nothing recorded yet.\n" : "Nothing recorded. Start with --metrics or enable over JMX.\n");
+        }
+        return text.toString();
+    }
+
+    /**
+     * The JMX view of the metrics.
+     */
+    private static class Bean implements GameMetricsMXBean {
+        public boolean isEnabled() { return GameMetrics.isEnabled(); }
+        public void setEnabled(boolean enabled) { GameMetrics.setEnabled(enabled); }
+        public Map<String, Long> getCounters() { return GameMetrics.getCounters(); }
+        public Map<String, Long> getEvents() { return GameMetrics.getEvents(); }
+        public Map<String, LatencyHistogram.Summary> getLatencies() { return GameMetrics.getLatencies(); }
+        public String report() { return GameMetrics.report(); }
+        public void reset() { GameMetrics.reset(); }
+    }
+}
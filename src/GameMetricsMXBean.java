@@ -0,0 +1,52 @@
+import java.util.Map;
+
+/**
+ * Management interface of GameMetrics, registered with the platform MBean server
+ * as "DemocraticProcess:type=GameMetrics" so the metrics can be read and switched
+ * on or off from JConsole or any other JMX client.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public interface GameMetricsMXBean {
+    /**
+     * Gets whether metrics are being collected.
+     * @return true if enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops collecting metrics. What was collected is kept.
+     * @param enabled true to collect
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the outcome counters, e.g. "bribe.success" or "game.scandal".
+     * @return counter name to count
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Gets how often each random event fired.
+     * @return event name to count
+     */
+    Map<String, Long> getEvents();
+
+    /**
+     * Gets the latency of every command and timed operation.
+     * @return name to summary, in microseconds
+     */
+    Map<String, LatencyHistogram.Summary> getLatencies();
+
+    /**
+     * Formats all metrics as the metrics command shows them.
+     * @return the report
+     */
+    String report();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
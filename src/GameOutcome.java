@@ -0,0 +1,35 @@
+/**
+ * Enum representing how a game session ended.
+ * Set by GameManager when the win/lose conditions are checked.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public enum GameOutcome {
+    /** The game has not finished yet */
+    IN_PROGRESS,
+
+    /** The player won the election */
+    WON,
+
+    /** The election was held but the win conditions were not met */
+    LOST_ELECTION,
+
+    /** The player ran out of money */
+    OUT_OF_MONEY,
+
+    /** The player's popularity dropped too low */
+    LOW_POPULARITY,
+
+    /** Scandal risk reached 100% */
+    SCANDAL;
+
+    /**
+     * Checks whether this outcome ends the game.
+     *
+     * @return true for every outcome except IN_PROGRESS
+     */
+    public boolean isFinal() {
+        return this != IN_PROGRESS;
+    }
+}
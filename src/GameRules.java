@@ -0,0 +1,327 @@
+import java.util.List;
+
+/**
+ * The balance constants a game is played by: when the election is held, what it
+ * takes to win or lose, what actions cost, how aggressive opponents are and
+ * what each character type starts with.
+ *
+ * Rules are immutable and shared by every game played under them. with() makes a
+ * changed copy, which is how ParameterSweep builds the settings it tries. Every
+ * constant has a name, e.g. "winPopularity" or "OUTSIDER.money"; see getNames().
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameRules {
+    private static final int ELECTION_DAY = 0;
+    private static final int WIN_POPULARITY = 1;
+    private static final int LOSE_POPULARITY = 2;
+    private static final int MIN_ALLIES_TO_WIN = 3;
+    private static final int ALLIANCE_INFLUENCE = 4;
+    private static final int SPEECH_COST = 5;
+    private static final int SABOTAGE_COST = 6;
+    private static final int MEDIA_COST = 7;
+    private static final int OPPONENT_AGGRESSION = 8;
+    private static final int STARTING_STATS = 9;
+
+    private static final String[] STATS = {"money", "popularity", "influence", "scandalRisk"};
+    private static final String[] NAMES = createNames();
+    private static final boolean[] WHOLE = createWhole();
+    private static final GameRules STANDARD = createStandard();
+
+    private double[] values;
+
+    /**
+     * Constructs rules from their values, indexed like NAMES.
+     *
+     * @param values the values; kept, not copied
+     */
+    private GameRules(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Gets the rules the game was designed with.
+     *
+     * @return the shared standard rules
+     */
+    public static GameRules standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Builds the standard rules.
+     *
+     * @return the standard rules
+     */
+    private static GameRules createStandard() {
+        double[] values = new double[NAMES.length];
+        values[ELECTION_DAY] = 15; // Elections happen after 15 turns (increased difficulty)
+        values[WIN_POPULARITY] = 75.0; // Increased from 70
+        values[LOSE_POPULARITY] = 25.0; // Stricter loss condition
+        values[MIN_ALLIES_TO_WIN] = 2; // Need more allies now
+        values[ALLIANCE_INFLUENCE] = 25;
+        values[SPEECH_COST] = 15.0;
+        values[SABOTAGE_COST] = 30.0;
+        values[MEDIA_COST] = 15.0;
+        values[OPPONENT_AGGRESSION] = 1.0;
+
+        // Different starting stats based on character type (increased difficulty)
+        setStart(values, CharacterType.BUSINESS_TYCOON, 150.0, 35.0, 25.0, 10.0);
+        setStart(values, CharacterType.CAREER_POLITICIAN, 100.0, 45.0, 30.0, 20.0);
+        setStart(values, CharacterType.OUTSIDER, 80.0, 40.0, 15.0, 5.0);
+        setStart(values, CharacterType.MAFIA_LEADER, 200.0, 25.0, 35.0, 40.0);
+        return new GameRules(values);
+    }
+
+    /**
+     * Fills in one character type's starting stats.
+     *
+     * @param values the values being built
+     * @param type the character type
+     * @param money starting money
+     * @param popularity starting popularity
+     * @param influence starting influence
+     * @param scandalRisk starting scandal risk
+     */
+    private static void setStart(double[] values, CharacterType type, double money, double popularity,
+                                 double influence, double scandalRisk) {
+        int base = STARTING_STATS + type.ordinal() * STATS.length;
+        values[base] = money;
+        values[base + 1] = popularity;
+        values[base + 2] = influence;
+        values[base + 3] = scandalRisk;
+    }
+
+    /**
+     * Lists the constant names: the game-wide ones, then TYPE.stat for every character type.
+     *
+     * @return the names, indexed like the values
+     */
+    private static String[] createNames() {
+        CharacterType[] types = CharacterType.values();
+        String[] names = new String[STARTING_STATS + types.length * STATS.length];
+        names[ELECTION_DAY] = "electionDay";
+        names[WIN_POPULARITY] = "winPopularity";
+        names[LOSE_POPULARITY] = "losePopularity";
+        names[MIN_ALLIES_TO_WIN] = "minAlliesToWin";
+        names[ALLIANCE_INFLUENCE] = "allianceInfluence";
+        names[SPEECH_COST] = "speechCost";
+        names[SABOTAGE_COST] = "sabotageCost";
+        names[MEDIA_COST] = "mediaCost";
+        names[OPPONENT_AGGRESSION] = "opponentAggression";
+        for (CharacterType type : types) {
+            for (int stat = 0; stat < STATS.length; stat++) {
+                names[STARTING_STATS + type.ordinal() * STATS.length + stat] = type.name() + "." + STATS[stat];
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Marks the constants that count turns, allies or influence points and so are whole numbers.
+     *
+     * @return true at the index of every whole-number constant
+     */
+    private static boolean[] createWhole() {
+        boolean[] whole = new boolean[NAMES.length];
+        whole[ELECTION_DAY] = true;
+        whole[MIN_ALLIES_TO_WIN] = true;
+        whole[ALLIANCE_INFLUENCE] = true;
+        return whole;
+    }
+
+    /**
+     * Gets the names of all constants, in a fixed order.
+     *
+     * @return the names
+     */
+    public static List<String> getNames() {
+        return List.of(NAMES);
+    }
+
+    /**
+     * Gets the number of constants.
+     *
+     * @return the size of getNames()
+     */
+    static int getCount() {
+        return NAMES.length;
+    }
+
+    /**
+     * Looks up a constant's index by name.
+     *
+     * @param name the constant's name
+     * @return its index
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    private static int indexOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) return i;
+        }
+        throw new IllegalArgumentException("Unknown rule '" + name + "'. Rules: " + String.join(", ", NAMES));
+    }
+
+    /**
+     * Gets whether a constant only takes whole numbers.
+     *
+     * @param name the constant's name
+     * @return true for turn, ally and influence thresholds
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    public static boolean isWhole(String name) {
+        return WHOLE[indexOf(name)];
+    }
+
+    /**
+     * Gets a constant by name.
+     *
+     * @param name the constant's name
+     * @return its value
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    public double get(String name) {
+        return values[indexOf(name)];
+    }
+
+    /**
+     * Gets a constant by its index in getNames(), for journals and saved games.
+     *
+     * @param index the constant's index
+     * @return its value
+     */
+    double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Rebuilds rules from the values getValue() returned.
+     *
+     * @param values the values, indexed like getNames(); copied
+     * @return the rules
+     * @throws IllegalArgumentException if there are not as many values as constants, or one is negative
+     */
+    static GameRules fromValues(double[] values) {
+        if (values.length != NAMES.length) {
+            throw new IllegalArgumentException("Expected " + NAMES.length + " rule values, not " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (!(values[i] >= 0)) throw new IllegalArgumentException("Rule " + NAMES[i] + " cannot be " + values[i]);
+        }
+        return new GameRules(values.clone());
+    }
+
+    /**
+     * Makes a copy of these rules with one constant changed.
+     * Whole-number constants are rounded.
+     *
+     * @param name the constant's name
+     * @param value its new value
+     * @return the changed copy
+     * @throws IllegalArgumentException if there is no such constant or the value is negative
+     */
+    public GameRules with(String name, double value) {
+        int index = indexOf(name);
+        if (!(value >= 0)) throw new IllegalArgumentException("Rule " + name + " cannot be " + value);
+        double[] changed = values.clone();
+        changed[index] = WHOLE[index] ? Math.round(value) : value;
+        return new GameRules(changed);
+    }
+
+    /**
+     * Gets the turn the election is held on.
+     * @return the election day
+     */
+    public int getElectionDay() { return (int) values[ELECTION_DAY]; }
+
+    /**
+     * Gets the popularity needed on election day to win.
+     * @return the winning popularity
+     */
+    public double getWinPopularity() { return values[WIN_POPULARITY]; }
+
+    /**
+     * Gets the popularity at or below which the campaign collapses.
+     * @return the losing popularity
+     */
+    public double getLosePopularity() { return values[LOSE_POPULARITY]; }
+
+    /**
+     * Gets the number of alliances needed on election day to win.
+     * @return the minimum alliance count
+     */
+    public int getMinAlliesToWin() { return (int) values[MIN_ALLIES_TO_WIN]; }
+
+    /**
+     * Gets the influence needed before an alliance can be negotiated.
+     * @return the influence threshold
+     */
+    public int getAllianceInfluence() { return (int) values[ALLIANCE_INFLUENCE]; }
+
+    /**
+     * Gets the cost of a campaign speech.
+     * @return the cost in dollars
+     */
+    public double getSpeechCost() { return values[SPEECH_COST]; }
+
+    /**
+     * Gets the cost of sabotaging an opponent.
+     * @return the cost in dollars
+     */
+    public double getSabotageCost() { return values[SABOTAGE_COST]; }
+
+    /**
+     * Gets the cost of managing the media.
+     * @return the cost in dollars
+     */
+    public double getMediaCost() { return values[MEDIA_COST]; }
+
+    /**
+     * Gets how hard opponents go after the player: 1 is the standard game, 0 leaves
+     * them only campaigning and defending, and larger values make their attacks
+     * both likelier and stronger.
+     * @return the aggression factor
+     */
+    public double getOpponentAggression() { return values[OPPONENT_AGGRESSION]; }
+
+    /**
+     * Gets a character type's starting money.
+     *
+     * @param type the character type
+     * @return the starting money
+     */
+    public double getStartingMoney(CharacterType type) {
+        return values[STARTING_STATS + type.ordinal() * STATS.length];
+    }
+
+    /**
+     * Gets a character type's starting popularity.
+     *
+     * @param type the character type
+     * @return the starting popularity
+     */
+    public double getStartingPopularity(CharacterType type) {
+        return values[STARTING_STATS + type.ordinal() * STATS.length + 1];
+    }
+
+    /**
+     * Gets a character type's starting influence.
+     *
+     * @param type the character type
+     * @return the starting influence
+     */
+    public double getStartingInfluence(CharacterType type) {
+        return values[STARTING_STATS + type.ordinal() * STATS.length + 2];
+    }
+
+    /**
+     * Gets a character type's starting scandal risk.
+     *
+     * @param type the character type
+     * @return the starting scandal risk
+     */
+    public double getStartingScandalRisk(CharacterType type) {
+        return values[STARTING_STATS + type.ordinal() * STATS.length + 3];
+    }
+}
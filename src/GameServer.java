@@ -0,0 +1,237 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many independent games at once.
+ * Every accepted connection gets its own GameSession (its own Player, GameManager
+ * and CommandProcessor) running on a virtual thread, so idle sessions cost only
+ * their game state and a few small buffers.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameServer {
+    private static final long REPORT_INTERVAL_MILLIS = 10_000;
+
+    private ServerSocketChannel serverChannel;
+    private String address;
+    private WorldTemplate world;
+    private GameJournal journal;
+    private SessionParking parking;
+    private AtomicInteger activeSessions;
+    private AtomicLong totalSessions;
+    private MemoryMXBean memory;
+    private long baselineHeapBytes;
+
+    /**
+     * Constructs a GameServer around an already bound server channel.
+     *
+     * @param serverChannel the bound channel to accept connections on
+     * @param address a readable description of where the server listens
+     */
+    private GameServer(ServerSocketChannel serverChannel, String address) {
+        this.serverChannel = serverChannel;
+        this.address = address;
+        this.world = WorldTemplate.standard();
+        this.activeSessions = new AtomicInteger();
+        this.totalSessions = new AtomicLong();
+        this.memory = ManagementFactory.getMemoryMXBean();
+    }
+
+    /**
+     * Creates a server listening on a TCP port of the loopback interface.
+     *
+     * @param port the port to listen on
+     * @return the server, ready to serve
+     * @throws IOException if the port cannot be bound
+     */
+    public static GameServer localPort(int port) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        return new GameServer(channel, "localhost:" + port);
+    }
+
+    /**
+     * Creates a server listening on a Unix domain socket.
+     * An existing socket file at the path is replaced.
+     *
+     * @param path the socket file
+     * @return the server, ready to serve
+     * @throws IOException if the socket cannot be bound
+     */
+    public static GameServer unixSocket(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(path), 1024);
+        return new GameServer(channel, "unix:" + path);
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a session for each.
+     *
+     * @throws IOException if accepting fails for a reason other than close()
+     */
+    public void serve() throws IOException {
+        System.gc();
+        baselineHeapBytes = memory.getHeapMemoryUsage().getUsed();
+        System.out.println("[server] Listening on " + address);
+
+        Thread.ofVirtual().name("server-stats").start(this::reportLoop);
+
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (serverChannel.isOpen()) {
+                SocketChannel client;
+                try {
+                    client = serverChannel.accept();
+                } catch (IOException e) {
+                    if (!serverChannel.isOpen()) break;
+                    throw e;
+                }
+                sessions.execute(new GameSession(client, this));
+            }
+        }
+    }
+
+    /**
+     * Sets the world new sessions are played in. Defaults to the standard world.
+     *
+     * @param world the world template
+     */
+    public void setWorld(WorldTemplate world) {
+        this.world = world;
+    }
+
+    /**
+     * Gets the world new sessions are played in.
+     *
+     * @return the world template
+     */
+    public WorldTemplate getWorld() {
+        return world;
+    }
+
+    /**
+     * Records every session to a journal. Each command is written before the
+     * client sees its result; sessions that commit at the same time share a write.
+     *
+     * @param journal the journal, or null for none
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the journal sessions are recorded to.
+     *
+     * @return the GameJournal, or null if sessions are not journalled
+     */
+    public GameJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Lets players park their game and resume it later, here or on another
+     * server process sharing the parking directory.
+     *
+     * @param parking where parked games are kept, or null to turn park off
+     */
+    public void setParking(SessionParking parking) {
+        this.parking = parking;
+    }
+
+    /**
+     * Gets where parked games are kept.
+     *
+     * @return the SessionParking, or null if park is off
+     */
+    public SessionParking getParking() {
+        return parking;
+    }
+
+    /**
+     * Stops accepting new connections. Running sessions finish on their own.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    public void close() throws IOException {
+        serverChannel.close();
+    }
+
+    /**
+     * Called by a session when its client connects.
+     */
+    void sessionStarted() {
+        activeSessions.incrementAndGet();
+        totalSessions.incrementAndGet();
+    }
+
+    /**
+     * Called by a session when its client disconnects or the game ends.
+     */
+    void sessionEnded() {
+        activeSessions.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of connected sessions.
+     * @return the active session count
+     */
+    public int getActiveSessions() { return activeSessions.get(); }
+
+    /**
+     * Gets the number of sessions served since startup.
+     * @return the total session count
+     */
+    public long getTotalSessions() { return totalSessions.get(); }
+
+    /**
+     * Estimates heap used per active session: heap growth since startup
+     * divided by the session count. Includes garbage not yet collected,
+     * so it is an upper bound.
+     *
+     * @return estimated bytes per session, or 0 with no sessions
+     */
+    public long estimateBytesPerSession() {
+        int sessions = activeSessions.get();
+        if (sessions == 0) return 0;
+        long used = memory.getHeapMemoryUsage().getUsed() - baselineHeapBytes;
+        return Math.max(0, used) / sessions;
+    }
+
+    /**
+     * Periodically prints session count and memory per session while anything changes.
+     */
+    private void reportLoop() {
+        long lastTotal = -1;
+        int lastActive = -1;
+        while (serverChannel.isOpen()) {
+            try {
+                Thread.sleep(REPORT_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            int active = activeSessions.get();
+            long total = totalSessions.get();
+            if (active == lastActive && total == lastTotal) continue;
+            lastActive = active;
+            lastTotal = total;
+
+            long heapMb = memory.getHeapMemoryUsage().getUsed() / (1024 * 1024);
+            System.out.println("[server] " + active + " active sessions (" + total + " total), heap "
+                    + heapMb + " MB, ~" + estimateBytesPerSession() / 1024 + " KB/session");
+        }
+    }
+}
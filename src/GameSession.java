@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * One client's game on the GameServer.
+ * Runs character creation and the command loop over the connection, sending
+ * all output back to that client only. Remote players get the server command
+ * registry, without the ADMIN commands, and saving and loading are off, since
+ * they would write to the server's disk. Instead a player can park the game
+ * and, from any server sharing the parking directory, answer the name prompt
+ * with "resume TOKEN". A resumed game is not journalled, since the journal
+ * could not replay it from its start.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameSession implements Runnable {
+    private static final int READ_BUFFER_BYTES = 256;
+    private static final int MAX_LINE_BYTES = 1024; // far longer than any command; a longer line closes the session
+
+    private SocketChannel channel;
+    private GameServer server;
+
+    /**
+     * Constructs a GameSession for an accepted connection.
+     *
+     * @param channel the client connection
+     * @param server the server to report to
+     */
+    public GameSession(SocketChannel channel, GameServer server) {
+        this.channel = channel;
+        this.server = server;
+    }
+
+    /**
+     * Plays one game with the connected client, then closes the connection.
+     */
+    @Override
+    public void run() {
+        server.sessionStarted();
+        try (SocketChannel client = channel) {
+            ChannelLineReader in = new ChannelLineReader(client, READ_BUFFER_BYTES, MAX_LINE_BYTES);
+            ChannelSink out = new ChannelSink(client);
+
+            Main.printBanner(out);
+            out.print(server.getParking() == null ? "Enter your name: "
+                    : "Enter your name, or 'resume <token>' to carry on a parked game: ");
+            out.flush();
+            String line = in.readLine();
+            if (line == null) return;
+
+            GameManager game;
+            boolean resumed = server.getParking() != null && line.strip().startsWith("resume ");
+            if (resumed) {
+                game = resume(line.strip().substring(7).strip(), out);
+                if (game == null) return;
+            } else {
+                String playerName = Main.chooseName(line, out);
+
+                Main.printCharacterMenu(out);
+                out.flush();
+                line = in.readLine();
+                if (line == null) return;
+                CharacterType chosenType = Main.chooseCharacterType(line, out);
+
+                game = new GameManager(new Player(playerName, chosenType), out,
+                        new SessionRandom(), server.getWorld());
+            }
+            game.setCommandRegistry(CommandRegistry.server());
+            game.setSaveDirectory(null);
+            game.setParking(server.getParking());
+
+            SessionJournal journal = null;
+            if (resumed) {
+                out.println("Welcome back, " + game.getPlayer().getName() + ". Turn " + game.getCurrentTurn() + ".");
+                game.displayCurrentLocation();
+            } else {
+                journal = server.getJournal() == null ? null : server.getJournal().begin(game);
+                game.printIntro();
+                game.printWelcome();
+            }
+
+            try {
+                while (game.isAcceptingCommands()) {
+                    out.print("> ");
+                    if (!out.flush()) return;
+                    line = in.readLine();
+                    if (line == null) return;
+                    game.executeCommand(line);
+                    if (journal != null) journal.commit();
+                }
+                out.flush();
+            } finally {
+                if (journal != null) journal.end(game);
+            }
+        } catch (IOException e) {
+            // The client went away, sent an overlong line or the journal failed; nothing to clean up beyond closing the channel
+        } finally {
+            server.sessionEnded();
+        }
+    }
+
+    /**
+     * Takes a parked game out of the server's parking.
+     *
+     * @param token the token the player was given when parking
+     * @param out where the game narrates to
+     * @return the game, or null if it cannot be resumed (the player has been told why)
+     */
+    private GameManager resume(String token, ChannelSink out) {
+        try {
+            GameManager game = server.getParking().resume(token, server.getWorld(), out);
+            if (game == null) {
+                out.println("There is no parked game with that token.");
+                out.flush();
+            }
+            return game;
+        } catch (IOException e) {
+            out.println("Could not resume the game: " + e.getMessage());
+            out.flush();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Saves a running game to a compact binary snapshot and loads it back.
+ *
+ * A snapshot holds the rules and what a session changes: the player, the
+ * opponents' stats, which allies are still available, the turn, the random
+ * source and the item lists of locations that differ from the world template.
+ * Allies and items are written as references into the template, so a snapshot
+ * is a few hundred bytes and can only be loaded into a game played in the same
+ * world, which the world's fingerprint checks. Loading replaces the game's
+ * state and rules in place; locations the snapshot does not mention go back to
+ * sharing the template's.
+ *
+ * Layout (big-endian; counts and references are varints):
+ * <pre>
+ *   magic "DPSV", version (int)
+ *   world: fingerprint (long)
+ *   rules: count, then every value (doubles) in GameRules.getNames() order
+ *   random: initial seed, state, gamma (longs)
+ *   turn, running (byte), outcome (byte), current location id
+ *   player: name (string), type (byte), money, popularity, influence, scandal risk (doubles),
+ *           alliances (count, ally indices), inventory (count, items)
+ *   available allies: count + 1 and ally indices, or 0 while the template's list is shared
+ *   opponents: popularity and defense level (doubles) each, in template order
+ *   changed locations: count, then id and items for each
+ *   district swings: count (0 without an electorate), then one double per district
+ * </pre>
+ * An item is its template location id + 1 and its index there, or 0 followed by
+ * name, description, type (strings) and value (double) for an item the template
+ * does not have. Strings are a varint byte count and UTF-8 bytes.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class GameSnapshot {
+    static final int MAGIC = 0x44505356; // "DPSV"
+    static final int VERSION = 1;
+
+    private WorldTemplate world;
+    private List<Location> reached;
+    private byte[] buffer;
+    private int size;
+
+    /**
+     * Constructs a writer for one snapshot.
+     */
+    private GameSnapshot(GameManager game) {
+        this.world = game.getWorld();
+        this.reached = game.getLocations().getReached();
+        this.buffer = new byte[512];
+    }
+
+    /**
+     * Takes a snapshot of a game.
+     *
+     * @param game the game, which is not changed
+     * @return the encoded snapshot
+     */
+    public static byte[] save(GameManager game) {
+        GameSnapshot snapshot = new GameSnapshot(game);
+        snapshot.write(game);
+        return Arrays.copyOf(snapshot.buffer, snapshot.size);
+    }
+
+    /**
+     * Replaces a game's state with a snapshot's. The game is left unchanged if
+     * the snapshot cannot be loaded.
+     *
+     * @param game the game to overwrite; must be played in the world the snapshot was taken in
+     * @param data the encoded snapshot
+     * @throws IllegalArgumentException if the data is not a snapshot or belongs to another world
+     */
+    public static void load(GameManager game, byte[] data) {
+        try {
+            read(game, ByteBuffer.wrap(data));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Snapshot is truncated or corrupt");
+        }
+    }
+
+    /**
+     * Starts a new session from a snapshot, e.g. one parked by another server process.
+     *
+     * @param data the encoded snapshot
+     * @param world the world the snapshot was taken in
+     * @param output where the session's narration is written
+     * @return the restored game
+     * @throws IllegalArgumentException if the data is not a snapshot or belongs to another world
+     */
+    public static GameManager restore(byte[] data, WorldTemplate world, OutputSink output) {
+        GameManager game = new GameManager(new Player("", CharacterType.OUTSIDER), output, new SessionRandom(), world);
+        load(game, data);
+        return game;
+    }
+
+    /**
+     * Encodes a game's state.
+     *
+     * @param game the game
+     */
+    private void write(GameManager game) {
+        putInt(MAGIC);
+        putInt(VERSION);
+        putLong(world.getFingerprint());
+        GameRules rules = game.getRules();
+        putVarint(GameRules.getCount());
+        for (int i = 0; i < GameRules.getCount(); i++) {
+            putDouble(rules.getValue(i));
+        }
+
+        SessionRandom random = game.getRandom();
+        putLong(random.getSeed());
+        putLong(random.getState());
+        putLong(random.getGamma());
+
+        putVarint(game.getCurrentTurn());
+        putByte(game.isGameRunning() ? 1 : 0);
+        putByte(game.getOutcome().ordinal());
+        putVarint(game.getCurrentLocation().getId());
+
+        Player player = game.getPlayer();
+        putString(player.getName());
+        putByte(player.getType().ordinal());
+        putDouble(player.getMoney());
+        putDouble(player.getPopularity());
+        putDouble(player.getInfluence());
+        putDouble(player.getScandalRisk());
+        putVarint(player.allianceCount());
+        for (Ally ally : player.getAlliances()) {
+            putAlly(ally);
+        }
+        putVarint(player.itemCount());
+        for (Item item : player.getInventory()) {
+            putItem(item);
+        }
+
+        if (game.hasTemplateAllies()) {
+            putVarint(0);
+        } else {
+            putVarint(game.getAvailableAllies().size() + 1);
+            for (Ally ally : game.getAvailableAllies()) {
+                putAlly(ally);
+            }
+        }
+
+        for (Opponent opponent : game.getOpponents()) {
+            putDouble(opponent.getPopularity());
+            putDouble(opponent.getDefenseLevel());
+        }
+
+        int changed = 0;
+        for (Location location : reached) {
+            if (location.hasChangedItems()) changed++;
+        }
+        putVarint(changed);
+        for (Location location : reached) {
+            if (!location.hasChangedItems()) continue;
+            putVarint(location.getId());
+            putVarint(location.itemCount());
+            for (Item item : location.getItems()) {
+                putItem(item);
+            }
+        }
+
+        double[] swing = game.getDistrictSwing();
+        putVarint(swing == null ? 0 : swing.length);
+        if (swing != null) {
+            for (double district : swing) {
+                putDouble(district);
+            }
+        }
+    }
+
+    /**
+     * Decodes a snapshot and, once all of it has been read and checked, applies it to a game.
+     *
+     * @param game the game to overwrite
+     * @param data the snapshot
+     */
+    private static void read(GameManager game, ByteBuffer data) {
+        WorldTemplate world = game.getWorld();
+        if (data.remaining() < 8 || data.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a saved game");
+        }
+        int version = data.getInt();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        if (data.getLong() != world.getFingerprint()) {
+            throw new IllegalArgumentException("Snapshot was saved in a different world");
+        }
+        int count = varint(data);
+        if (count != GameRules.getCount()) {
+            throw new IllegalArgumentException("Snapshot was saved with " + count + " rules, not " + GameRules.getCount());
+        }
+        double[] values = new double[count];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = data.getDouble();
+        }
+        GameRules rules = GameRules.fromValues(values);
+
+        long initialSeed = data.getLong();
+        long state = data.getLong();
+        long gamma = data.getLong();
+        if ((gamma & 1) == 0) throw new IllegalArgumentException("Snapshot has an invalid random state");
+
+        int turn = varint(data);
+        boolean running = data.get() != 0;
+        GameOutcome outcome = GameOutcome.values()[data.get()];
+        int locationId = location(data, world);
+
+        String name = string(data);
+        CharacterType type = CharacterType.values()[data.get()];
+        double money = data.getDouble();
+        double popularity = data.getDouble();
+        double influence = data.getDouble();
+        double scandalRisk = data.getDouble();
+        List<Ally> alliances = new ArrayList<>();
+        for (int i = varint(data); i > 0; i--) {
+            alliances.add(ally(data, world));
+        }
+        List<Item> inventory = new ArrayList<>();
+        for (int i = varint(data); i > 0; i--) {
+            inventory.add(item(data, world));
+        }
+
+        List<Ally> available = null;
+        int availableCount = varint(data) - 1;
+        if (availableCount >= 0) {
+            available = new ArrayList<>(availableCount);
+            for (int i = 0; i < availableCount; i++) {
+                available.add(ally(data, world));
+            }
+        }
+
+        double[] opponents = new double[game.getOpponents().size() * 2];
+        for (int i = 0; i < opponents.length; i++) {
+            opponents[i] = data.getDouble();
+        }
+
+        LocationTable locations = world.newLocations();
+        for (int i = varint(data); i > 0; i--) {
+            Location location = locations.get(location(data, world));
+            List<Item> items = new ArrayList<>();
+            for (int j = varint(data); j > 0; j--) {
+                items.add(item(data, world));
+            }
+            location.replaceItems(items);
+        }
+        double[] gameSwing = game.getDistrictSwing();
+        double[] swing = new double[gameSwing == null ? 0 : gameSwing.length];
+        if (varint(data) != swing.length) {
+            throw new IllegalArgumentException("Snapshot was saved with a different electorate");
+        }
+        for (int i = 0; i < swing.length; i++) {
+            swing[i] = data.getDouble();
+        }
+        if (data.hasRemaining()) throw new IllegalArgumentException("Snapshot has trailing data");
+
+        game.getRandom().restore(initialSeed, state, gamma);
+        game.getPlayer().restore(name, type, rules, money, popularity, influence, scandalRisk, alliances, inventory);
+        for (int i = 0; i < game.getOpponents().size(); i++) {
+            game.getOpponents().get(i).restore(opponents[2 * i], opponents[2 * i + 1]);
+        }
+        game.restore(rules, turn, running, outcome, locations, locationId, available);
+        if (gameSwing != null) game.restoreDistrictSwing(swing);
+    }
+
+    /**
+     * Writes an ally as its index among the template's allies.
+     *
+     * @param ally the ally
+     */
+    private void putAlly(Ally ally) {
+        putVarint(ally.getId());
+    }
+
+    /**
+     * Writes an item as a reference to the template location it started in,
+     * or in full if no location the session has reached started with it.
+     *
+     * @param item the item
+     */
+    private void putItem(Item item) {
+        for (Location location : reached) {
+            int slot = world.getLocation(location.getId()).getItems().indexOf(item);
+            if (slot >= 0) {
+                putVarint(location.getId() + 1);
+                putVarint(slot);
+                return;
+            }
+        }
+        putVarint(0);
+        putString(item.getName());
+        putString(item.getDescription());
+        putString(item.getType());
+        putDouble(item.getValue());
+    }
+
+    /**
+     * Reads an ally reference.
+     *
+     * @param data the snapshot, positioned at the reference
+     * @param world the world
+     * @return the template's ally
+     */
+    private static Ally ally(ByteBuffer data, WorldTemplate world) {
+        return world.getAllies().get(varint(data));
+    }
+
+    /**
+     * Reads an item reference or an item written in full.
+     *
+     * @param data the snapshot, positioned at the item
+     * @param world the world
+     * @return the template's item, or a new one
+     */
+    private static Item item(ByteBuffer data, WorldTemplate world) {
+        int origin = varint(data);
+        if (origin == 0) {
+            return new Item(string(data), string(data), string(data), data.getDouble());
+        }
+        if (origin > world.getLocationCount()) throw new IndexOutOfBoundsException(origin);
+        return world.getLocation(origin - 1).getItems().get(varint(data));
+    }
+
+    /**
+     * Reads a location id and checks that the world has it.
+     *
+     * @param data the snapshot, positioned at the id
+     * @param world the world
+     * @return the location id
+     */
+    private static int location(ByteBuffer data, WorldTemplate world) {
+        int id = varint(data);
+        if (id < 0 || id >= world.getLocationCount()) throw new IndexOutOfBoundsException(id);
+        return id;
+    }
+
+    /**
+     * Reads a varint (seven bits per byte, low bits first).
+     *
+     * @param data the snapshot, positioned at the varint
+     * @return its value
+     */
+    private static int varint(ByteBuffer data) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Snapshot has a malformed number");
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @param data the snapshot, positioned at the string
+     * @return the string
+     */
+    private static String string(ByteBuffer data) {
+        int length = varint(data);
+        String text = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return text;
+    }
+
+    /**
+     * Writes a varint (seven bits per byte, low bits first).
+     *
+     * @param value the value, not negative
+     */
+    private void putVarint(int value) {
+        ensure(5);
+        while (value >= 0x80) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes one byte.
+     *
+     * @param value the value, 0 to 255
+     */
+    private void putByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a big-endian int.
+     *
+     * @param value the value
+     */
+    private void putInt(int value) {
+        ensure(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a big-endian long.
+     *
+     * @param value the value
+     */
+    private void putLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    /**
+     * Writes a double as its raw bits, so it loads back exactly.
+     *
+     * @param value the value
+     */
+    private void putDouble(double value) {
+        putLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes a string.
+     *
+     * @param text the string
+     */
+    private void putString(String text) {
+        byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+        putVarint(encoded.length);
+        ensure(encoded.length);
+        System.arraycopy(encoded, 0, buffer, size, encoded.length);
+        size += encoded.length;
+    }
+
+    /**
+     * Grows the buffer so that the given number of bytes fit.
+     *
+     * @param bytes the bytes about to be written
+     */
+    private void ensure(int bytes) {
+        if (buffer.length - size < bytes) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
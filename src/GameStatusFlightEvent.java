@@ -0,0 +1,35 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a win/loss check at the end of a turn.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+@Name("democraticprocess.GameStatus")
+@Label("Game Status Check")
+@Description("The outcome of checking the win and loss conditions")
+@Category({"Democratic Process", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public class GameStatusFlightEvent extends jdk.jfr.Event {
+    @Label("Turn")
+    int turn;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Popularity")
+    double popularity;
+
+    @Label("Money")
+    double money;
+
+    @Label("Alliances")
+    int alliances;
+}
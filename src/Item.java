@@ -1,62 +1,111 @@
+import java.util.List;
+
 /**
  * Represents an item that can be collected and used by the player.
- * Items have different types and effects.
+ * Each item is a handle to a shared ItemKind, which holds its name, type, value
+ * and effect, so an item costs one reference however often its kind appears.
  *
  * @author Abdur Rahim
  * @version 1.0
  */
 public class Item {
-    private String name;
-    private String description;
-    private String type;
-    private double value;
+    private ItemKind kind;
 
     /**
-     * Constructs a new Item with specified properties.
+     * Constructs a new Item of its own kind, e.g. one only a saved game defines.
+     * A world's items come from WorldTemplate.newItem(), which shares their kinds.
      *
      * @param name the item's name
      * @param description what the item is
      * @param type the item type (political, evidence, tool, valuable, document, consumable)
      * @param value the numerical value/effect of the item
+     * @throws IllegalArgumentException if the type is not one of the item types
      */
     public Item(String name, String description, String type, double value) {
-        this.name = name;
-        this.description = description;
-        this.type = type;
-        this.value = value;
+        this(new ItemKind(name, description, ItemType.fromLabel(type), value));
     }
 
     /**
-     * Uses the item (basic implementation).
-     * Actual use logic is in GameManager.
+     * Constructs a new Item of a catalogued kind.
+     *
+     * @param kind the item's kind
+     */
+    public Item(ItemKind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Uses the item: applies its kind's effect to the player and, for evidence,
+     * to a random opponent, then removes it from the inventory if it is used up.
+     * This is the only place item effects are applied.
      *
      * @param player the player using the item
+     * @param opponents the opponents that can be damaged
+     * @param random the session's random source, for picking the opponent
      */
-    public void use(Player player) {
-        System.out.println(player.getName() + " used item: " + name);
+    public void use(Player player, List<Opponent> opponents, SessionRandom random) {
+        OutputSink output = player.getOutput();
+        ItemType type = kind.getType();
+        output.record(NarrationKind.ITEM_USED, kind.getName(), kind.getValue());
+        if (output.isEnabled()) {
+            if (kind.isConsumed()) output.println("Using " + kind.getName() + "...");
+            if (type.getUseText() != null) output.println(type.getUseText());
+        }
+
+        if (kind.getPopularityDelta() != 0) {
+            player.updatePopularity(kind.getPopularityDelta());
+        }
+        if (kind.getMoneyDelta() != 0) {
+            player.addMoney(kind.getMoneyDelta());
+            if (output.isEnabled()) output.println("Money gained: $" + kind.getMoneyDelta());
+        }
+        if (kind.getOpponentDamage() != 0 && !opponents.isEmpty()) {
+            Opponent target = opponents.get(random.nextInt(opponents.size()));
+            target.updatePopularity(-kind.getOpponentDamage());
+            if (output.isEnabled()) output.println(target.getName() + " loses popularity!");
+        }
+        if (type.getResultText() != null && output.isEnabled()) {
+            output.println(type.getResultText());
+        }
+
+        if (kind.isConsumed()) {
+            player.dropItem(this);
+        }
     }
 
+    /**
+     * Gets the item's kind.
+     * @return the shared kind
+     */
+    public ItemKind getKind() { return kind; }
+
     /**
      * Gets the item's name.
      * @return the name
      */
-    public String getName() { return name; }
+    public String getName() { return kind.getName(); }
 
     /**
      * Gets the item's description.
      * @return the description
      */
-    public String getDescription() { return description; }
+    public String getDescription() { return kind.getDescription(); }
+
+    /**
+     * Gets the item's type label, as used in world files and saves.
+     * @return the type, e.g. "political"
+     */
+    public String getType() { return kind.getType().getLabel(); }
 
     /**
      * Gets the item's type.
-     * @return the type
+     * @return the ItemType
      */
-    public String getType() { return type; }
+    public ItemType getItemType() { return kind.getType(); }
 
     /**
      * Gets the item's value.
      * @return the value
      */
-    public double getValue() { return value; }
-}
\ No newline at end of file
+    public double getValue() { return kind.getValue(); }
+}
@@ -0,0 +1,49 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A world's catalog of item kinds. Every location of a world that defines the
+ * same item gets the same ItemKind, however often a compiled world decodes its
+ * locations, so an item kind is stored once however many locations, sessions
+ * and forks hold it, and an Item is only a handle to its kind.
+ *
+ * Each WorldTemplate owns its catalog, so the kinds live exactly as long as the
+ * world does; items that only a saved game defines are not catalogued.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public class ItemCatalog {
+    private Map<ItemKind, ItemKind> kinds;
+
+    /**
+     * Constructs an empty catalog; every WorldTemplate makes its own.
+     */
+    ItemCatalog() {
+        this.kinds = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the kind with the given definition, adding it to the catalog the first time.
+     *
+     * @param name the item's name
+     * @param description what the item is
+     * @param type the item type
+     * @param value the numerical value the effect is scaled by
+     * @return the shared kind
+     */
+    public ItemKind kind(String name, String description, ItemType type, double value) {
+        ItemKind kind = new ItemKind(name, description, type, value);
+        ItemKind shared = kinds.putIfAbsent(kind, kind);
+        return shared != null ? shared : kind;
+    }
+
+    /**
+     * Gets the number of distinct kinds defined so far.
+     *
+     * @return the catalog size
+     */
+    public int size() {
+        return kinds.size();
+    }
+}
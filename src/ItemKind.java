@@ -0,0 +1,106 @@
+/**
+ * The shared, immutable definition of one kind of item: what it is called, its
+ * type and value, and the effect of using it, worked out once from the type's
+ * row of the effect table. Every Item is a handle to a kind; a world's kinds
+ * come from its ItemCatalog so equal definitions are stored once.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public final class ItemKind {
+    private final String name;
+    private final String description;
+    private final ItemType type;
+    private final double value;
+    private final double popularityDelta;
+    private final double moneyDelta;
+    private final double opponentDamage;
+
+    /**
+     * Constructs an ItemKind; a world uses its ItemCatalog so equal kinds are shared.
+     *
+     * @param name the item's name
+     * @param description what the item is
+     * @param type the item type
+     * @param value the numerical value the effect is scaled by
+     */
+    ItemKind(String name, String description, ItemType type, double value) {
+        this.name = name;
+        this.description = description;
+        this.type = type;
+        this.value = value;
+        this.popularityDelta = type.getPopularityPerValue() * value;
+        this.moneyDelta = type.getMoneyPerValue() * value;
+        this.opponentDamage = type.getOpponentDamage();
+    }
+
+    /**
+     * Gets the item's name.
+     * @return the name
+     */
+    public String getName() { return name; }
+
+    /**
+     * Gets the item's description.
+     * @return the description
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * Gets the item's type.
+     * @return the type
+     */
+    public ItemType getType() { return type; }
+
+    /**
+     * Gets the item's value.
+     * @return the value
+     */
+    public double getValue() { return value; }
+
+    /**
+     * Gets the popularity the player gains by using the item.
+     * @return the popularity change
+     */
+    public double getPopularityDelta() { return popularityDelta; }
+
+    /**
+     * Gets the money the player gains by using the item.
+     * @return the money change
+     */
+    public double getMoneyDelta() { return moneyDelta; }
+
+    /**
+     * Gets the popularity a random opponent loses when the item is used.
+     * @return the damage, or 0 for none
+     */
+    public double getOpponentDamage() { return opponentDamage; }
+
+    /**
+     * Gets whether using the item does anything to the player or opponents.
+     * @return false for tools and zero-value items
+     */
+    public boolean hasEffect() {
+        return popularityDelta != 0 || moneyDelta != 0 || opponentDamage != 0;
+    }
+
+    /**
+     * Gets whether the item is used up when used.
+     * @return true if it leaves the inventory
+     */
+    public boolean isConsumed() { return type.isConsumed(); }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof ItemKind)) return false;
+        ItemKind kind = (ItemKind) other;
+        return name.equals(kind.name) && description.equals(kind.description) && type == kind.type
+                && Double.compare(value, kind.value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((name.hashCode() * 31 + description.hashCode()) * 31 + type.hashCode()) * 31
+                + Double.hashCode(value);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Enum of item types and the effect table that decides what using an item does.
+ * An item's effect is its type's row scaled by the item's value, so a new kind of
+ * item only needs a type and a value, never new code.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public enum ItemType {
+    /** Campaign material: popularity, used up */
+    POLITICAL("political", 1, 0, 0, true, null, "Popularity increased!"),
+
+    /** Dirt on the opposition: popularity and damage to a random opponent, used up */
+    EVIDENCE("evidence", 1, 0, 10, true, "You found incriminating evidence against an opponent!", null),
+
+    /** Cash or assets: money, used up */
+    VALUABLE("valuable", 0, 1, 0, true, null, null),
+
+    /** Papers that win support: popularity, used up */
+    DOCUMENT("document", 1, 0, 0, true, null, "Support increased!"),
+
+    /** Equipment: no direct effect, stays in the inventory */
+    TOOL("tool", 0, 0, 0, false,
+            "This tool can be used to gather evidence or blackmail opponents.\nTools remain in inventory for multiple uses.",
+            null),
+
+    /** Quick boosts: popularity, used up */
+    CONSUMABLE("consumable", 1, 0, 0, true, null, null);
+
+    private static final ItemType[] ALL = values();
+
+    private final String label;
+    private final double popularityPerValue;
+    private final double moneyPerValue;
+    private final double opponentDamage;
+    private final boolean consumed;
+    private final String useText;
+    private final String resultText;
+
+    ItemType(String label, double popularityPerValue, double moneyPerValue, double opponentDamage,
+             boolean consumed, String useText, String resultText) {
+        this.label = label;
+        this.popularityPerValue = popularityPerValue;
+        this.moneyPerValue = moneyPerValue;
+        this.opponentDamage = opponentDamage;
+        this.consumed = consumed;
+        this.useText = useText;
+        this.resultText = resultText;
+    }
+
+    /**
+     * Finds a type by its label, ignoring case.
+     *
+     * @param label e.g. "political"
+     * @return the type
+     * @throws IllegalArgumentException if there is no such type
+     */
+    public static ItemType fromLabel(String label) {
+        for (ItemType type : ALL) {
+            if (type.label.equalsIgnoreCase(label)) return type;
+        }
+        throw new IllegalArgumentException("Unknown item type '" + label
+                + "' (use political, evidence, valuable, document, tool or consumable)");
+    }
+
+    /**
+     * Gets the label used in world files, saves and the inventory list.
+     * @return the label, e.g. "political"
+     */
+    public String getLabel() { return label; }
+
+    /**
+     * Gets the popularity gained per point of item value.
+     * @return the factor
+     */
+    public double getPopularityPerValue() { return popularityPerValue; }
+
+    /**
+     * Gets the money gained per point of item value.
+     * @return the factor
+     */
+    public double getMoneyPerValue() { return moneyPerValue; }
+
+    /**
+     * Gets the popularity a random opponent loses.
+     * @return the damage, or 0 for none
+     */
+    public double getOpponentDamage() { return opponentDamage; }
+
+    /**
+     * Gets whether using an item of this type uses it up.
+     * @return true if the item leaves the inventory
+     */
+    public boolean isConsumed() { return consumed; }
+
+    /**
+     * Gets the text shown when an item of this type is used, before its effects.
+     * @return the text, or null for none
+     */
+    public String getUseText() { return useText; }
+
+    /**
+     * Gets the text shown after an item of this type has taken effect.
+     * @return the text, or null for none
+     */
+    public String getResultText() { return resultText; }
+}
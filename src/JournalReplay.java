@@ -0,0 +1,328 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays games recorded by a GameJournal.
+ *
+ * Each game is rebuilt from its seed, character, rules and electorate and fed its
+ * recorded commands;
+ * the resulting state is compared with the journal's END record, so a replay both
+ * reproduces a reported game and proves the journal is complete.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class JournalReplay {
+    private Map<Long, RecordedGame> games;
+    private WorldTemplate baseWorld;
+    private Map<String, WorldTemplate> electorateWorlds = new HashMap<>();
+
+    /**
+     * One game as read from the journal.
+     */
+    private static class RecordedGame {
+        private long seed;
+        private CharacterType type;
+        private String playerName;
+        private int locationCount;
+        private GameRules rules = GameRules.standard();
+        private int votersPerDistrict;
+        private long electorateSeed;
+        private List<String> commands = new ArrayList<>();
+        private String outcome;
+        private ByteBuffer end;
+    }
+
+    /**
+     * Reads a journal file.
+     *
+     * @param file the journal
+     * @throws IOException if the file cannot be read or is not a journal
+     */
+    public JournalReplay(Path file) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < GameJournal.HEADER_SIZE || data.getInt(0) != GameJournal.MAGIC) {
+            throw new IOException("Not a game journal: " + file);
+        }
+        if (data.getInt(4) != GameJournal.VERSION) {
+            throw new IOException("Unsupported journal version " + data.getInt(4));
+        }
+
+        games = new LinkedHashMap<>();
+        String[] commandNames = null;
+        int pos = GameJournal.HEADER_SIZE;
+        while (pos + SessionJournal.RECORD_HEADER_SIZE <= data.capacity()) {
+            byte kind = data.get(pos);
+            long gameId = data.getLong(pos + 1);
+            int length = data.getInt(pos + 9);
+            int payload = pos + SessionJournal.RECORD_HEADER_SIZE;
+            if (length < 0 || payload + length > data.capacity()) break; // torn final record
+            ByteBuffer record = data.slice(payload, length);
+            pos = payload + length;
+
+            if (kind == SessionJournal.NAMES) {
+                commandNames = new String[varint(record)];
+                for (int i = 0; i < commandNames.length; i++) {
+                    commandNames[i] = text(record);
+                }
+                continue;
+            }
+            if (kind == SessionJournal.START) {
+                RecordedGame game = new RecordedGame();
+                game.seed = record.getLong();
+                game.type = CharacterType.valueOf(text(record));
+                game.playerName = text(record);
+                game.locationCount = record.getInt();
+                game.rules = rules(record, pos);
+                game.votersPerDistrict = varint(record);
+                if (game.votersPerDistrict > 0) game.electorateSeed = record.getLong();
+                games.put(gameId, game);
+                continue;
+            }
+            RecordedGame game = games.get(gameId);
+            if (game == null) throw new IOException("Record for unknown game " + gameId + " at byte " + pos);
+            if (kind == SessionJournal.COMMANDS) {
+                while (record.hasRemaining()) {
+                    int id = varint(record);
+                    if (commandNames == null || id >= commandNames.length) {
+                        throw new IOException("Unknown command id " + id + " at byte " + pos);
+                    }
+                    String args = text(record);
+                    game.commands.add(args.isEmpty() ? commandNames[id] : commandNames[id] + " " + args);
+                }
+            } else if (kind == SessionJournal.END) {
+                game.outcome = text(record);
+                game.end = record.slice();
+            } else {
+                throw new IOException("Unknown record kind " + kind + " at byte " + pos);
+            }
+        }
+    }
+
+    /**
+     * Reads a varint (seven bits per byte, low bits first).
+     *
+     * @param record the payload, positioned at the varint
+     * @return its value
+     */
+    private static int varint(ByteBuffer record) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = record.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * Reads the rules a game was played by, written as their differences from the standard rules.
+     *
+     * @param record the payload, positioned at the rules
+     * @param pos where the record ends, for error messages
+     * @return the rules
+     * @throws IOException if the journal was written with a different set of rules
+     */
+    private static GameRules rules(ByteBuffer record, int pos) throws IOException {
+        int count = varint(record);
+        if (count != GameRules.getCount()) {
+            throw new IOException("Game at byte " + pos + " was played with " + count + " rules, not "
+                    + GameRules.getCount());
+        }
+        int changed = varint(record);
+        if (changed == 0) return GameRules.standard();
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = GameRules.standard().getValue(i);
+        }
+        for (int i = 0; i < changed; i++) {
+            int index = varint(record);
+            if (index >= count) throw new IOException("Unknown rule " + index + " at byte " + pos);
+            values[index] = Double.longBitsToDouble(record.getLong());
+        }
+        try {
+            return GameRules.fromValues(values);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage() + " at byte " + pos);
+        }
+    }
+
+    /**
+     * Reads a text from a payload: a varint byte count and UTF-8 bytes.
+     *
+     * @param record the payload, positioned at the text
+     * @return the string
+     */
+    private static String text(ByteBuffer record) {
+        int bytes = varint(record);
+        String text = StandardCharsets.UTF_8.decode(record.slice(record.position(), bytes)).toString();
+        record.position(record.position() + bytes);
+        return text;
+    }
+
+    /**
+     * Gets the ids of the recorded games, in the order they started.
+     *
+     * @return the game ids
+     */
+    public List<Long> getGameIds() {
+        return new ArrayList<>(games.keySet());
+    }
+
+    /**
+     * Gets the number of commands recorded for a game.
+     *
+     * @param gameId the game id
+     * @return the command count
+     */
+    public int getCommandCount(long gameId) {
+        return games.get(gameId).commands.size();
+    }
+
+    /**
+     * Rebuilds a game by replaying its commands.
+     *
+     * @param gameId the game id
+     * @param world the world the game was played in
+     * @param output where the replayed game narrates to
+     * @return the game in its final state
+     * @throws IllegalArgumentException if there is no such game or the world does not match
+     */
+    public GameManager replay(long gameId, WorldTemplate world, OutputSink output) {
+        RecordedGame recorded = games.get(gameId);
+        if (recorded == null) throw new IllegalArgumentException("No game " + gameId + " in the journal");
+        if (recorded.locationCount != world.getLocationCount()) {
+            throw new IllegalArgumentException("Game " + gameId + " was played in a world of "
+                    + recorded.locationCount + " locations, not " + world.getLocationCount());
+        }
+
+        GameManager game = new GameManager(new Player(recorded.playerName, recorded.type, recorded.rules), output,
+                new SessionRandom(recorded.seed), worldFor(recorded, world));
+        for (String command : recorded.commands) {
+            game.executeCommand(command);
+        }
+        return game;
+    }
+
+    /**
+     * Gives a world the electorate a game was played with. Electorates are
+     * generated once per size and seed and shared by the games that used them.
+     *
+     * @param recorded the game
+     * @param world the world the game was played in
+     * @return the world with the game's electorate, or without one if it had none
+     */
+    private WorldTemplate worldFor(RecordedGame recorded, WorldTemplate world) {
+        Electorate electorate = world.getElectorate();
+        if (recorded.votersPerDistrict == 0 ? electorate == null
+                : electorate != null && electorate.getVotersPerDistrict() == recorded.votersPerDistrict
+                        && electorate.getSeed() == recorded.electorateSeed) {
+            return world;
+        }
+        if (world != baseWorld) {
+            electorateWorlds.clear();
+            baseWorld = world;
+        }
+        String key = recorded.votersPerDistrict + "/" + recorded.electorateSeed;
+        WorldTemplate derived = electorateWorlds.get(key);
+        if (derived == null) {
+            derived = world.withElectorate(recorded.votersPerDistrict == 0 ? null
+                    : Electorate.generate(world, recorded.votersPerDistrict, recorded.electorateSeed));
+            electorateWorlds.put(key, derived);
+        }
+        return derived;
+    }
+
+    /**
+     * Compares a replayed game with the final state the journal recorded.
+     *
+     * @param gameId the game id
+     * @param game the replayed game
+     * @return null if they match or the journal has no final state, otherwise what differs
+     */
+    public String compare(long gameId, GameManager game) {
+        RecordedGame recorded = games.get(gameId);
+        if (recorded.end == null) return null;
+        ByteBuffer end = recorded.end.duplicate();
+
+        Player player = game.getPlayer();
+        StringBuilder diff = new StringBuilder();
+        check(diff, "outcome", recorded.outcome, game.getOutcome().name());
+        check(diff, "turn", end.getInt(), game.getCurrentTurn());
+        check(diff, "popularity", end.getDouble(), player.getPopularity());
+        check(diff, "money", end.getDouble(), player.getMoney());
+        check(diff, "influence", end.getDouble(), player.getInfluence());
+        check(diff, "scandal risk", end.getDouble(), player.getScandalRisk());
+        check(diff, "location", end.getInt(), game.getCurrentLocation().getId());
+        check(diff, "alliances", end.getInt(), player.allianceCount());
+        check(diff, "items", end.getInt(), player.itemCount());
+        return diff.length() == 0 ? null : diff.toString();
+    }
+
+    /**
+     * Gets whether the journal recorded how a game ended.
+     *
+     * @param gameId the game id
+     * @return false if the game was still running when the journal was last written
+     */
+    public boolean hasEnd(long gameId) {
+        return games.get(gameId).end != null;
+    }
+
+    /**
+     * Notes a difference between a recorded and a replayed value.
+     *
+     * @param diff the differences so far
+     * @param what the name of the value
+     * @param recorded the value in the journal
+     * @param replayed the value after replay
+     */
+    private static void check(StringBuilder diff, String what, Object recorded, Object replayed) {
+        if (recorded.equals(replayed)) return;
+        if (diff.length() > 0) diff.append(", ");
+        diff.append(what).append(' ').append(recorded).append(" != ").append(replayed);
+    }
+
+    /**
+     * Replays every game in the journal silently and reports which ones reproduce.
+     *
+     * @param world the world the games were played in
+     * @param out where to print the report
+     * @return the number of games whose replay differed from the recording
+     */
+    public int verifyAll(WorldTemplate world, PrintStream out) {
+        long start = System.nanoTime();
+        int matched = 0;
+        int unfinished = 0;
+        int differed = 0;
+        long commands = 0;
+        for (long gameId : games.keySet()) {
+            GameManager game = replay(gameId, world, NullSink.INSTANCE);
+            commands += getCommandCount(gameId);
+            String diff = compare(gameId, game);
+            if (diff != null) {
+                differed++;
+                out.println("Game " + gameId + " differs: " + diff);
+            } else if (hasEnd(gameId)) {
+                matched++;
+            } else {
+                unfinished++;
+            }
+        }
+        out.printf("Replayed %d games (%d commands) in %.1f ms: %d match, %d differ, %d without a final state%n",
+                games.size(), commands, (System.nanoTime() - start) / 1e6, matched, differed, unfinished);
+        return differed;
+    }
+}
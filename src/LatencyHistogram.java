@@ -0,0 +1,224 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of durations in nanoseconds, laid out like HdrHistogram:
+ * values below 32 get a bucket each, and every power of two above that is split
+ * into 16 equal buckets, so each bucket is at most 1/16 of its value wide and
+ * percentiles are within about 3%. Values up to 2^40 ns (about 18 minutes) fit in
+ * 592 buckets; longer ones are counted in the last bucket.
+ *
+ * Recording is one atomic increment plus striped LongAdder updates, with no
+ * allocation, and any number of threads can record at once. Reads are not atomic with respect to concurrent recording,
+ * which only matters for the last few samples.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int MAX_BITS = 40;
+    private static final int BUCKETS = (MAX_BITS - SUB_BUCKET_BITS + 2) * HALF;
+
+    private AtomicLongArray counts;
+    private LongAdder total;
+    private LongAdder sum;
+    private LongAccumulator max;
+
+    /**
+     * Summary of a histogram, as shown by the metrics command and over JMX.
+     */
+    public static class Summary {
+        private long count;
+        private double meanMicros;
+        private double p50Micros;
+        private double p90Micros;
+        private double p99Micros;
+        private double maxMicros;
+
+        /**
+         * Gets the number of samples.
+         * @return the count
+         */
+        public long getCount() { return count; }
+
+        /**
+         * Gets the mean duration.
+         * @return the mean in microseconds
+         */
+        public double getMeanMicros() { return meanMicros; }
+
+        /**
+         * Gets the median duration.
+         * @return the 50th percentile in microseconds
+         */
+        public double getP50Micros() { return p50Micros; }
+
+        /**
+         * Gets the 90th percentile duration.
+         * @return the 90th percentile in microseconds
+         */
+        public double getP90Micros() { return p90Micros; }
+
+        /**
+         * Gets the 99th percentile duration.
+         * @return the 99th percentile in microseconds
+         */
+        public double getP99Micros() { return p99Micros; }
+
+        /**
+         * Gets the longest duration.
+         * @return the maximum in microseconds
+         */
+        public double getMaxMicros() { return maxMicros; }
+    }
+
+    /**
+     * Constructs an empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Finds the bucket a value falls in.
+     *
+     * @param value a non-negative duration
+     * @return the bucket index
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int index = (shift + 1) * HALF + (int) (value >>> shift) - HALF;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /**
+     * Gets the middle of the range of values a bucket holds.
+     *
+     * @param index the bucket index
+     * @return the representative value in nanoseconds
+     */
+    private static double midpoint(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / HALF - 1;
+        long low = (long) (index % HALF + HALF) << shift;
+        return low + ((1L << shift) - 1) / 2.0;
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = total.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations.
+     *
+     * @param percentile between 0 and 100
+     * @return the duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        return percentile(snapshot, count, percentile);
+    }
+
+    /**
+     * Finds a percentile in a copy of the bucket counts.
+     *
+     * @param snapshot the bucket counts
+     * @param count their sum
+     * @param percentile between 0 and 100
+     * @return the duration in nanoseconds, no more than the maximum recorded
+     */
+    private double percentile(long[] snapshot, long count, double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return Math.min(midpoint(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Summarises the histogram in microseconds.
+     *
+     * @return the count, mean, median, 90th and 99th percentiles and maximum
+     */
+    public Summary summarize() {
+        long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        Summary summary = new Summary();
+        summary.count = count;
+        summary.meanMicros = count == 0 ? 0 : sum.sum() / 1000.0 / count;
+        summary.p50Micros = percentile(snapshot, count, 50) / 1000.0;
+        summary.p90Micros = percentile(snapshot, count, 90) / 1000.0;
+        summary.p99Micros = percentile(snapshot, count, 99) / 1000.0;
+        summary.maxMicros = max.get() / 1000.0;
+        return summary;
+    }
+
+    /**
+     * Forgets every recorded duration.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+}
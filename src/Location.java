@@ -1,4 +1,6 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -7,6 +9,13 @@ import java.util.Map;
  * Represents a location in the game world.
  * Locations contain items, NPCs, and connections to other locations.
  *
+ * The locations of a game session are copies of a WorldTemplate's locations.
+ * A copy shares the template's description, NPCs and connections, and only
+ * takes its own item list the first time an item is added or removed.
+ * Connections are stored as location ids, one slot per Direction plus a short
+ * list of named exits, so neighbouring locations are only looked up (and, in a
+ * session, copied) when a player goes there.
+ *
  * @author Abdur Rahim
  * @version 2.0
  */
@@ -14,8 +23,20 @@ public class Location {
     private String name;
     private String description;
     private List<Item> items;
-    private Map<String, Location> connections;
+    private int[] exits;
+    private String[] namedExits;
+    private int[] namedTargets;
+    private String exitsText;
     private Map<String, String> npcs;
+    private NameIndex<Item> itemIndex;
+    private Map<String, String> npcNames;
+    private List<Item> itemsView;
+    private Map<String, String> npcsView;
+    private int id;
+    private WorldTemplate template;
+    private LocationTable world;
+    private boolean sharedItems;
+    private boolean changedItems;
 
     /**
      * Constructs a new Location with a name and description.
@@ -27,8 +48,92 @@ public class Location {
         this.name = name;
         this.description = description;
         this.items = new ArrayList<>();
-        this.connections = new HashMap<>();
+        this.exits = new int[Direction.COUNT];
+        Arrays.fill(exits, -1);
+        this.namedExits = new String[0];
+        this.namedTargets = new int[0];
         this.npcs = new HashMap<>();
+        this.itemIndex = new NameIndex<>(Item::getName);
+        this.npcNames = new HashMap<>();
+        this.itemsView = Collections.unmodifiableList(items);
+        this.npcsView = Collections.unmodifiableMap(npcs);
+        this.id = -1;
+    }
+
+    /**
+     * Constructs a session copy of a template location.
+     *
+     * @param original the location in the WorldTemplate
+     * @param world the session's location table
+     */
+    Location(Location original, LocationTable world) {
+        this.name = original.name;
+        this.description = original.description;
+        this.items = original.items;
+        this.exits = original.exits;
+        this.namedExits = original.namedExits;
+        this.namedTargets = original.namedTargets;
+        this.exitsText = original.exitsText;
+        this.npcs = original.npcs;
+        this.itemIndex = original.itemIndex;
+        this.npcNames = original.npcNames;
+        this.itemsView = original.itemsView;
+        this.npcsView = original.npcsView;
+        this.id = original.id;
+        this.template = original.template;
+        this.world = world;
+        this.sharedItems = true;
+        this.changedItems = original.changedItems;
+    }
+
+    /**
+     * Gives this location its own item list if it still shares the template's.
+     */
+    private void ownItems() {
+        if (sharedItems) replaceItems(items);
+    }
+
+    /**
+     * Gives this location its own item list with the given items.
+     *
+     * @param newItems the items now here, in order
+     */
+    void replaceItems(List<Item> newItems) {
+        items = new ArrayList<>(newItems);
+        itemIndex = new NameIndex<>(Item::getName);
+        for (Item item : items) {
+            itemIndex.add(item);
+        }
+        itemsView = Collections.unmodifiableList(items);
+        sharedItems = false;
+        changedItems = true;
+    }
+
+    /**
+     * Marks this location's item list as shared, so that it is copied before
+     * it next changes. Used when a forked game copies this location.
+     */
+    void shareItems() {
+        sharedItems = true;
+    }
+
+    /**
+     * Returns whether this session copy's items differ from the template's, i.e.
+     * items were taken from or left here.
+     *
+     * @return false while the location still has the template's item list
+     */
+    boolean hasChangedItems() {
+        return changedItems;
+    }
+
+    /**
+     * Fails if this is a session copy, whose NPCs and connections belong to the template.
+     */
+    private void checkNotCopy() {
+        if (world != null) {
+            throw new IllegalStateException(name + " is shared with its world template");
+        }
     }
 
     /**
@@ -37,7 +142,9 @@ public class Location {
      * @param item the item to add
      */
     public void addItem(Item item) {
+        ownItems();
         items.add(item);
+        itemIndex.add(item);
     }
 
     /**
@@ -46,22 +153,21 @@ public class Location {
      * @param item the item to remove
      */
     public void removeItem(Item item) {
-        items.remove(item);
+        if (sharedItems && !items.contains(item)) return;
+        ownItems();
+        if (items.remove(item)) {
+            itemIndex.remove(item, items);
+        }
     }
 
     /**
-     * Finds an item by name at this location.
+     * Finds an item by name at this location, ignoring case.
      *
      * @param itemName the name of the item to find
      * @return the Item object or null if not found
      */
     public Item findItem(String itemName) {
-        for (Item item : items) {
-            if (item.getName().equalsIgnoreCase(itemName)) {
-                return item;
-            }
-        }
-        return null;
+        return itemIndex.find(itemName);
     }
 
     /**
@@ -71,56 +177,240 @@ public class Location {
      * @param type the NPC type (ally, opponent, neutral)
      */
     public void addNPC(String npcName, String type) {
+        checkNotCopy();
         npcs.put(npcName, type);
+        npcNames.putIfAbsent(NameIndex.fold(npcName), npcName);
+    }
+
+    /**
+     * Finds an NPC at this location by name, ignoring case.
+     *
+     * @param npcName the name as typed
+     * @return the NPC's name as registered, or null if not here
+     */
+    public String findNPC(String npcName) {
+        return npcNames.get(NameIndex.fold(npcName));
     }
 
     /**
-     * Gets an NPC's type.
+     * Gets an NPC's type, ignoring case in the name.
      *
      * @param npcName the NPC's name
      * @return the type or null if not found
      */
     public String getNPCType(String npcName) {
-        return npcs.get(npcName);
+        String name = findNPC(npcName);
+        return name == null ? null : npcs.get(name);
     }
 
     /**
      * Gets all NPCs at this location.
      *
-     * @return a new map of all NPCs
+     * @return a read-only view of NPC names to types
      */
     public Map<String, String> getNPCs() {
-        return new HashMap<>(npcs);
+        return npcsView;
+    }
+
+    /**
+     * Gets the number of NPCs at this location.
+     *
+     * @return the number of NPCs
+     */
+    public int npcCount() {
+        return npcs.size();
     }
 
     /**
      * Sets a directional connection to another location.
+     * Both locations must already belong to the same WorldTemplate.
+     *
+     * @param direction the direction
+     * @param location the location to connect to
+     */
+    public void setConnection(Direction direction, Location location) {
+        checkSameTemplate(location);
+        setConnection(direction, location.id);
+    }
+
+    /**
+     * Sets a connection to another location. Directions other than the
+     * standard ones become named exits.
+     * Both locations must already belong to the same WorldTemplate.
      *
-     * @param direction the direction (north, south, east, west)
+     * @param direction the direction (north, south, east, west, up, down) or exit name
      * @param location the location to connect to
      */
     public void setConnection(String direction, Location location) {
-        connections.put(direction.toLowerCase(), location);
+        checkSameTemplate(location);
+        setConnection(direction, location.id);
+    }
+
+    /**
+     * Fails unless this location and the other belong to the same WorldTemplate.
+     *
+     * @param location the other location
+     */
+    private void checkSameTemplate(Location location) {
+        if (template == null || location.template != template) {
+            throw new IllegalStateException("Add " + name + " and " + location.name
+                    + " to the same WorldTemplate before connecting them");
+        }
     }
 
     /**
-     * Gets the location connected in a specific direction.
+     * Sets a connection to the location with the given id.
+     *
+     * @param direction the direction or exit name
+     * @param id the id of the location in this location's WorldTemplate
+     */
+    void setConnection(String direction, int id) {
+        Direction fixed = Direction.find(direction);
+        if (fixed != null) {
+            setConnection(fixed, id);
+            return;
+        }
+
+        checkNotCopy();
+        String exit = NameIndex.fold(direction);
+        for (int i = 0; i < namedExits.length; i++) {
+            if (namedExits[i].equals(exit)) {
+                namedTargets[i] = id;
+                return;
+            }
+        }
+        namedExits = Arrays.copyOf(namedExits, namedExits.length + 1);
+        namedTargets = Arrays.copyOf(namedTargets, namedTargets.length + 1);
+        namedExits[namedExits.length - 1] = exit;
+        namedTargets[namedTargets.length - 1] = id;
+        exitsText = null;
+    }
+
+    /**
+     * Sets a directional connection to the location with the given id.
+     *
+     * @param direction the direction
+     * @param id the id of the location in this location's WorldTemplate
+     */
+    void setConnection(Direction direction, int id) {
+        checkNotCopy();
+        exits[direction.ordinal()] = id;
+        exitsText = null;
+    }
+
+    /**
+     * Gets the location connected in a direction.
+     * Does not allocate or hash.
      *
      * @param direction the direction to check
      * @return the connected Location or null if none exists
      */
+    public Location getConnection(Direction direction) {
+        int target = exits[direction.ordinal()];
+        return target < 0 ? null : resolve(target);
+    }
+
+    /**
+     * Gets the location connected in a direction or through a named exit, ignoring case.
+     *
+     * @param direction the direction or exit name to check
+     * @return the connected Location or null if none exists
+     */
     public Location getConnection(String direction) {
-        return connections.get(direction.toLowerCase());
+        Direction fixed = Direction.find(direction);
+        if (fixed != null) return getConnection(fixed);
+
+        for (int i = 0; i < namedExits.length; i++) {
+            if (namedExits[i].equalsIgnoreCase(direction)) {
+                return resolve(namedTargets[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Turns a location id into the template's or the session's location.
+     *
+     * @param target the location id
+     * @return the location
+     */
+    private Location resolve(int target) {
+        return world == null ? template.getLocation(target) : world.get(target);
+    }
+
+    /**
+     * Gets the id of the location in a direction.
+     *
+     * @param direction the direction
+     * @return the location id, or -1 if there is no exit that way
+     */
+    public int getExit(Direction direction) {
+        return exits[direction.ordinal()];
     }
 
     /**
-     * Gets a string listing all available exits.
+     * Gets the number of named exits (exits that are not a standard Direction).
+     *
+     * @return the named exit count
+     */
+    public int getNamedExitCount() {
+        return namedExits.length;
+    }
+
+    /**
+     * Gets the name of a named exit.
+     *
+     * @param index the exit number, below getNamedExitCount()
+     * @return the exit name, in lower case
+     */
+    public String getNamedExit(int index) {
+        return namedExits[index];
+    }
+
+    /**
+     * Gets the id of the location a named exit leads to.
+     *
+     * @param index the exit number, below getNamedExitCount()
+     * @return the location id
+     */
+    public int getNamedExitTarget(int index) {
+        return namedTargets[index];
+    }
+
+    /**
+     * Gets the total number of exits.
+     *
+     * @return the number of directions and named exits that lead somewhere
+     */
+    public int getExitCount() {
+        int count = namedExits.length;
+        for (int target : exits) {
+            if (target >= 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets a string listing all available exits, in compass order followed by
+     * any named exits. Built once and cached.
      *
      * @return comma-separated list of directions or "None"
      */
     public String getExits() {
-        if (connections.isEmpty()) return "None";
-        return String.join(", ", connections.keySet());
+        if (exitsText == null) {
+            StringBuilder text = new StringBuilder();
+            for (Direction direction : Direction.values()) {
+                if (exits[direction.ordinal()] < 0) continue;
+                if (text.length() > 0) text.append(", ");
+                text.append(direction.getName());
+            }
+            for (String exit : namedExits) {
+                if (text.length() > 0) text.append(", ");
+                text.append(exit);
+            }
+            exitsText = text.length() == 0 ? "None" : text.toString();
+        }
+        return exitsText;
     }
 
     /**
@@ -137,7 +427,30 @@ public class Location {
 
     /**
      * Gets all items at this location.
-     * @return a new list of all items
+     * @return a read-only view of all items
      */
-    public List<Item> getItems() { return new ArrayList<>(items); }
-}
\ No newline at end of file
+    public List<Item> getItems() { return itemsView; }
+
+    /**
+     * Gets the number of items at this location.
+     * @return the number of items
+     */
+    public int itemCount() { return items.size(); }
+
+    /**
+     * Gets this location's position in its WorldTemplate.
+     * @return the index, or -1 if the location is not part of a template
+     */
+    public int getId() { return id; }
+
+    /**
+     * Records that this location belongs to a WorldTemplate.
+     *
+     * @param template the template
+     * @param id the location's index in the template
+     */
+    void attach(WorldTemplate template, int id) {
+        this.template = template;
+        this.id = id;
+    }
+}
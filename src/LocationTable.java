@@ -0,0 +1,113 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game session's copies of its world's locations, made the first time each
+ * location is reached. Small worlds use an array indexed by location id; large
+ * worlds only keep the locations the session has actually visited.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class LocationTable {
+    private static final int DENSE_LIMIT = 4096;
+
+    private WorldTemplate template;
+    private Location[] dense;
+    private Map<Integer, Location> sparse;
+    private int size;
+
+    /**
+     * Constructs an empty table for a world.
+     *
+     * @param template the world the locations are copied from
+     */
+    public LocationTable(WorldTemplate template) {
+        this.template = template;
+        if (template.getLocationCount() <= DENSE_LIMIT) {
+            this.dense = new Location[template.getLocationCount()];
+        } else {
+            this.sparse = new HashMap<>();
+        }
+    }
+
+    /**
+     * Constructs a table for a forked game. Only locations whose items changed are
+     * copied, and the copies share their item lists with the original until either
+     * side changes them; every other location is made from the template on first use.
+     *
+     * @param original the table to copy
+     */
+    LocationTable(LocationTable original) {
+        this(original.template);
+        for (Location location : original.getReached()) {
+            if (!location.hasChangedItems()) continue;
+            location.shareItems();
+            Location copy = new Location(location, this);
+            if (dense != null) {
+                dense[copy.getId()] = copy;
+            } else {
+                sparse.put(copy.getId(), copy);
+            }
+            size++;
+        }
+    }
+
+    /**
+     * Gets the session's copy of a location, making it on first use.
+     * The copy shares everything but its items with the template.
+     *
+     * @param id the location id
+     * @return the session's copy
+     */
+    public Location get(int id) {
+        Location location = dense != null ? dense[id] : sparse.get(id);
+        if (location == null) {
+            location = new Location(template.getLocation(id), this);
+            if (dense != null) {
+                dense[id] = location;
+            } else {
+                sparse.put(id, location);
+            }
+            size++;
+        }
+        return location;
+    }
+
+    /**
+     * Gets the locations copied so far.
+     *
+     * @return a new list of the session's locations
+     */
+    List<Location> getReached() {
+        List<Location> reached = new ArrayList<>(size);
+        if (dense == null) {
+            reached.addAll(sparse.values());
+            return reached;
+        }
+        for (Location location : dense) {
+            if (location != null) reached.add(location);
+        }
+        return reached;
+    }
+
+    /**
+     * Gets the world the locations are copied from.
+     *
+     * @return the template
+     */
+    public WorldTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets how many locations have been copied so far.
+     *
+     * @return the number of locations reached
+     */
+    public int size() {
+        return size;
+    }
+}
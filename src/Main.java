@@ -1,4 +1,12 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import javax.management.JMException;
 
 /**
  * Main entry point for the Democratic Process game.
@@ -8,43 +16,207 @@ import java.util.Scanner;
  * @version 1.0
  */
 public class Main {
+    private static final long ELECTORATE_SEED = 0x766F74657273L; // "voters"
+    private static final String PARKING_DIRECTORY = "parked";
+
     /**
      * Main method that starts the game.
+     * Pass "--simulate N" (optionally with "--type TYPE" and "--seed S") to run N headless bot games instead;
+     * "--bot mcts" plays them with tree search ("--budget MS" per command, "--iterations N", "--threads N"),
+     * and "--check-votes" recounts every voter after each command to test the running vote totals.
+     * or "--server PORT" (or "--server unix:PATH") to host games for network clients.
+     * "--world FILE" plays in a world loaded from a text or compiled world file, and
+     * "--compile-world IN OUT" compiles a world file to the binary format.
+     * "--precompute-routes" builds the world's route table before play and reports its size.
+     * "--electorate N" gives every location N voters, whose tally decides the election.
+     * "--sweep RULE=LOW:HIGH:STEPS,..." simulates "--games N" games under every grid point
+     * (or "--samples N" Latin hypercube points) and writes the win rates to "--out FILE".
+     * "--script FILE" plays the commands in a file ("-" for standard input), or every file
+     * in a directory concurrently, without prompting; "--name", "--type" and "--seed" set up
+     * the game, "--quiet" prints only a summary, and "--out DIR" keeps directory transcripts.
+     * "--metrics" collects command latencies and outcome counts, readable with the
+     * "metrics" command and over JMX.
+     * "--journal FILE" records every game to a journal, and "--replay FILE" (optionally with
+     * "--game ID") replays a journal and checks each game reaches its recorded final state.
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments
      */
     public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("--compile-world")) {
+            compileWorld(args[1], args[2]);
+            return;
+        }
+
+        WorldTemplate world = WorldTemplate.standard();
+        int worldArg = Arrays.asList(args).indexOf("--world");
+        if (worldArg >= 0 && worldArg + 1 < args.length) {
+            world = loadWorld(args[worldArg + 1]);
+            if (world == null) return;
+            args = remove(args, worldArg, 2);
+        }
+        int metricsArg = Arrays.asList(args).indexOf("--metrics");
+        if (metricsArg >= 0) {
+            GameMetrics.setEnabled(true);
+            registerMetrics();
+            args = remove(args, metricsArg, 1);
+        }
+        int routesArg = Arrays.asList(args).indexOf("--precompute-routes");
+        if (routesArg >= 0) {
+            precomputeRoutes(world);
+            args = remove(args, routesArg, 1);
+        }
+        int electorateArg = Arrays.asList(args).indexOf("--electorate");
+        if (electorateArg >= 0 && electorateArg + 1 < args.length) {
+            world = addElectorate(world, args[electorateArg + 1]);
+            if (world == null) return;
+            args = remove(args, electorateArg, 2);
+        }
+
+        if (args.length >= 2 && args[0].equals("--sweep")) {
+            runSweep(args, world);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--replay")) {
+            replayJournal(args, world);
+            return;
+        }
+
+        GameJournal journal = null;
+        int journalArg = Arrays.asList(args).indexOf("--journal");
+        if (journalArg >= 0 && journalArg + 1 < args.length) {
+            try {
+                journal = GameJournal.open(Path.of(args[journalArg + 1]), false);
+            } catch (IOException e) {
+                System.out.println("Could not open journal: " + e.getMessage());
+                return;
+            }
+            args = remove(args, journalArg, 2);
+        }
+        try {
+            play(args, world, journal);
+        } finally {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.out.println("Could not write journal: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the chosen mode: a simulation, the server, or an interactive game.
+     *
+     * @param args command line arguments without the global options
+     * @param world the world to play in
+     * @param journal where to record games, or null
+     */
+    private static void play(String[] args, WorldTemplate world, GameJournal journal) {
+        if (args.length >= 2 && args[0].equals("--simulate")) {
+            runSimulation(args, world, journal);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--script")) {
+            runScripts(args, world, journal);
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--server")) {
+            // Registered even when off, so metrics can be switched on over JMX
+            registerMetrics();
+            runServer(args[1], world, journal);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
+        OutputSink console = ConsoleSink.INSTANCE;
 
-        System.out.println("\n========================================");
-        System.out.println("     DEMOCRATIC PROCESS - THE GAME");
-        System.out.println("========================================");
-        System.out.println("A political simulation game where you");
-        System.out.println("compete to win an election through");
-        System.out.println("speeches, alliances, and strategy.");
-        System.out.println("========================================\n");
+        printBanner(console);
 
         // Get player name
-        System.out.print("Enter your name: ");
-        String playerName = scanner.nextLine().trim();
+        console.print("Enter your name: ");
+        String playerName = chooseName(scanner.nextLine(), console);
+
+        // Choose character type
+        printCharacterMenu(console);
+        CharacterType chosenType = chooseCharacterType(scanner.nextLine(), console);
+
+        // Create player with chosen name and character type
+        Player player = new Player(playerName, chosenType);
+
+        // Create game manager
+        GameManager gameManager = new GameManager(player, console, new SessionRandom(), world);
+
+        SessionJournal session = journal == null ? null : journal.begin(gameManager);
+
+        // Start the game
+        gameManager.start();
 
+        if (session != null) {
+            try {
+                session.end(gameManager);
+            } catch (IOException e) {
+                System.out.println("Could not write journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prints the title banner.
+     *
+     * @param out where to print
+     */
+    static void printBanner(OutputSink out) {
+        out.println("\n========================================");
+        out.println("     DEMOCRATIC PROCESS - THE GAME");
+        out.println("========================================");
+        out.println("A political simulation game where you");
+        out.println("compete to win an election through");
+        out.println("speeches, alliances, and strategy.");
+        out.println("========================================\n");
+    }
+
+    /**
+     * Validates the entered player name, falling back to a default.
+     *
+     * @param input the raw name line
+     * @param out where to report the fallback
+     * @return the player name
+     */
+    static String chooseName(String input, OutputSink out) {
+        String playerName = input.trim();
         if (playerName.isEmpty()) {
             playerName = "Politician";
-            System.out.println("No name entered. Using default: " + playerName);
+            out.println("No name entered. Using default: " + playerName);
         }
+        return playerName;
+    }
 
-        // Choose character type
-        System.out.println("\nChoose your character type:");
-        System.out.println("1. BUSINESS_TYCOON   - High money ($150), moderate popularity (35%)");
-        System.out.println("2. CAREER_POLITICIAN - High popularity (45%), experienced (30 influence)");
-        System.out.println("3. OUTSIDER          - Balanced stats, low scandal risk (5%)");
-        System.out.println("4. MAFIA_LEADER      - Very high money ($200), high scandal risk (40%)");
-        System.out.print("\nEnter choice (1-4): ");
+    /**
+     * Prints the character type menu and the choice prompt.
+     *
+     * @param out where to print
+     */
+    static void printCharacterMenu(OutputSink out) {
+        out.println("\nChoose your character type:");
+        out.println("1. BUSINESS_TYCOON   - High money ($150), moderate popularity (35%)");
+        out.println("2. CAREER_POLITICIAN - High popularity (45%), experienced (30 influence)");
+        out.println("3. OUTSIDER          - Balanced stats, low scandal risk (5%)");
+        out.println("4. MAFIA_LEADER      - Very high money ($200), high scandal risk (40%)");
+        out.print("\nEnter choice (1-4): ");
+    }
 
+    /**
+     * Turns the menu choice into a character type, defaulting to OUTSIDER.
+     *
+     * @param input the raw choice line
+     * @param out where to report the choice
+     * @return the chosen CharacterType
+     */
+    static CharacterType chooseCharacterType(String input, OutputSink out) {
         CharacterType chosenType = CharacterType.OUTSIDER; // Default
-        String choice = scanner.nextLine().trim();
 
-        switch (choice) {
+        switch (input.trim()) {
             case "1":
                 chosenType = CharacterType.BUSINESS_TYCOON;
                 break;
@@ -58,18 +230,358 @@ public class Main {
                 chosenType = CharacterType.MAFIA_LEADER;
                 break;
             default:
-                System.out.println("Invalid choice. Using OUTSIDER as default.");
+                out.println("Invalid choice. Using OUTSIDER as default.");
         }
 
-        System.out.println("\nYou chose: " + chosenType);
+        out.println("\nYou chose: " + chosenType);
+        return chosenType;
+    }
 
-        // Create player with chosen name and character type
-        Player player = new Player(playerName, chosenType);
+    /**
+     * Runs a batch of headless games and prints the aggregated report.
+     *
+     * @param args command line arguments starting with "--simulate N"
+     * @param world the world to play in
+     * @param journal where to record the games, or null
+     */
+    private static void runSimulation(String[] args, WorldTemplate world, GameJournal journal) {
+        int games = Integer.parseInt(args[1]);
+        CharacterType type = null;
+        Long seed = null;
+        String bot = "random";
+        Long budget = null;
+        int iterations = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int checkArg = Arrays.asList(args).indexOf("--check-votes");
+        if (checkArg >= 0) args = remove(args, checkArg, 1);
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--type":
+                    type = CharacterType.valueOf(args[i + 1].toUpperCase());
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--bot":
+                    bot = args[i + 1].toLowerCase();
+                    break;
+                case "--budget":
+                    budget = Long.parseLong(args[i + 1]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+            }
+        }
 
-        // Create game manager
-        GameManager gameManager = new GameManager(player);
+        BotStrategy strategy;
+        MctsBotStrategy mcts = null;
+        if (bot.equals("mcts")) {
+            // An iteration count without a time budget makes the search reproducible
+            long millis = budget != null ? budget : iterations > 0 ? 0 : 10;
+            mcts = new MctsBotStrategy(millis, iterations, threads);
+            strategy = mcts;
+        } else if (bot.equals("random")) {
+            strategy = new RandomBotStrategy();
+        } else {
+            System.out.println("Unknown bot: " + bot + " (use random or mcts)");
+            return;
+        }
 
-        // Start the game
-        gameManager.start();
+        System.out.println("Simulating " + games + " games on "
+                + Runtime.getRuntime().availableProcessors() + " cores...");
+        BatchSimulator simulator = new BatchSimulator(strategy, type);
+        simulator.setWorld(world);
+        simulator.setJournal(journal);
+        if (checkArg >= 0) {
+            if (world.getElectorate() == null) System.out.println("--check-votes needs --electorate N; nothing to check");
+            simulator.setCheckVotes(true);
+        }
+        SimulationReport report;
+        try {
+            report = seed == null ? simulator.run(games) : simulator.run(games, seed);
+        } catch (IllegalStateException e) {
+            System.out.println("Vote check failed: " + e.getMessage());
+            return;
+        }
+        report.print(System.out);
+        if (simulator.getVoteChecks() > 0) {
+            System.out.printf("Vote check: %d recounts agree with the running totals (largest difference %.2g votes)%n",
+                    simulator.getVoteChecks(), simulator.getLargestVoteDifference());
+        }
+        if (GameMetrics.isEnabled()) System.out.print(GameMetrics.report());
+        if (mcts != null && mcts.getDecisions() > 0) {
+            System.out.printf("MCTS: %d decisions, %.0f rollouts each, %.0f rollouts/s%n",
+                    mcts.getDecisions(), (double) mcts.getRollouts() / mcts.getDecisions(),
+                    mcts.getRollouts() / (mcts.getSearchNanos() / 1e9));
+        }
+    }
+
+    /**
+     * Plays one command script, or a directory of them, and prints how each game ended.
+     *
+     * @param args command line arguments starting with "--script PATH"
+     * @param world the world to play in
+     * @param journal where to record the games, or null
+     */
+    private static void runScripts(String[] args, WorldTemplate world, GameJournal journal) {
+        Path script = Path.of(args[1]);
+        String name = "Politician";
+        CharacterType type = CharacterType.OUTSIDER;
+        long seed = new SessionRandom().nextLong();
+        boolean quiet = false;
+        Path transcripts = null;
+        for (int i = 2; i < args.length; i += 2) {
+            if (args[i].equals("--quiet")) {
+                quiet = true;
+                i--;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.out.println("Missing value for " + args[i]);
+                return;
+            }
+            switch (args[i]) {
+                case "--name":
+                    name = args[i + 1];
+                    break;
+                case "--type":
+                    type = CharacterType.valueOf(args[i + 1].toUpperCase());
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--out":
+                    transcripts = Path.of(args[i + 1]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+            }
+        }
+
+        ScriptRunner runner = new ScriptRunner(world, name, type, seed);
+        runner.setJournal(journal);
+        long start = System.nanoTime();
+        try {
+            List<ScriptRunner.Result> results;
+            if (Files.isDirectory(script)) {
+                results = runner.runDirectory(script, transcripts);
+            } else {
+                results = List.of(runner.run(script, quiet ? null : ScriptRunner.standardOutput()));
+            }
+            long elapsed = System.nanoTime() - start;
+            long commands = 0;
+            for (ScriptRunner.Result result : results) {
+                System.out.println(result.summarize());
+                commands += result.getCommands();
+            }
+            System.out.printf("Played %d scripts, %d commands in %.3f s (%.0f commands/s, seed %d)%n",
+                    results.size(), commands, elapsed / 1e9, commands / (elapsed / 1e9), seed);
+        } catch (NoSuchFileException e) {
+            System.out.println("No such script: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Script failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a parameter sweep and writes its win-rate table.
+     *
+     * @param args command line arguments starting with "--sweep SPEC"
+     * @param world the world to play in
+     */
+    private static void runSweep(String[] args, WorldTemplate world) {
+        CharacterType type = null;
+        long seed = new SessionRandom().nextLong();
+        int games = 2000;
+        int samples = 0;
+        Path out = Path.of("sweep.csv");
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--type":
+                    type = CharacterType.valueOf(args[i + 1].toUpperCase());
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--games":
+                    games = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--samples":
+                    samples = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--out":
+                    out = Path.of(args[i + 1]);
+                    break;
+                default:
+                    System.out.println("Unknown option: " + args[i]);
+            }
+        }
+
+        ParameterSweep sweep = new ParameterSweep(new RandomBotStrategy(), type, world);
+        try {
+            sweep.addRanges(args[1]);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        try (Writer csv = Files.newBufferedWriter(out)) {
+            sweep.run(samples, games, seed, csv, System.out);
+            System.out.println("Wrote " + out + " (seed " + seed + ")");
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Could not write " + out + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Makes the metrics readable over JMX.
+     */
+    private static void registerMetrics() {
+        try {
+            GameMetrics.registerMBean();
+        } catch (JMException e) {
+            System.out.println("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the multi-session game server and serves until the process is stopped.
+     *
+     * @param address a TCP port number, or "unix:" followed by a socket path
+     * @param world the world sessions play in
+     * @param journal where to record the sessions, or null
+     */
+    private static void runServer(String address, WorldTemplate world, GameJournal journal) {
+        try {
+            GameServer server = address.startsWith("unix:")
+                    ? GameServer.unixSocket(Path.of(address.substring(5)))
+                    : GameServer.localPort(Integer.parseInt(address));
+            server.setWorld(world);
+            server.setJournal(journal);
+            server.setParking(new SessionParking(Path.of(PARKING_DIRECTORY), SessionParking.DEFAULT_MAX_GAMES));
+            server.serve();
+        } catch (IOException e) {
+            System.out.println("Server failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays a journal. With "--game ID" the game's narration is printed;
+     * otherwise every game is replayed silently and checked.
+     *
+     * @param args command line arguments starting with "--replay FILE"
+     * @param world the world the games were played in
+     */
+    private static void replayJournal(String[] args, WorldTemplate world) {
+        try {
+            JournalReplay replay = new JournalReplay(Path.of(args[1]));
+            if (args.length >= 4 && args[2].equals("--game")) {
+                long gameId = Long.parseLong(args[3]);
+                GameManager game = replay.replay(gameId, world, ConsoleSink.INSTANCE);
+                String diff = replay.compare(gameId, game);
+                System.out.println(diff == null ? "\nReplay matches the journal." : "\nReplay differs: " + diff);
+            } else {
+                replay.verifyAll(world, System.out);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not replay journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a world file, reporting how long it took.
+     *
+     * @param file a text or compiled world file
+     * @return the world, or null if it could not be loaded
+     */
+    private static WorldTemplate loadWorld(String file) {
+        try {
+            long start = System.nanoTime();
+            WorldTemplate world = WorldTemplate.load(Path.of(file));
+            System.out.printf("Loaded %d locations from %s in %.1f ms%n",
+                    world.getLocationCount(), file, (System.nanoTime() - start) / 1e6);
+            return world;
+        } catch (IOException e) {
+            System.out.println("Could not load world: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Generates voters for every location of a world, reporting how long it took.
+     * The voters are always drawn from the same seed, so a save made with the
+     * same world and size loads against the same electorate. Journals record
+     * the size and seed and replay regenerates them.
+     *
+     * @param world the world
+     * @param votersPerDistrict the number of voters per location
+     * @return the world with its electorate, or null if it could not be generated
+     */
+    private static WorldTemplate addElectorate(WorldTemplate world, String votersPerDistrict) {
+        try {
+            long start = System.nanoTime();
+            Electorate electorate = Electorate.generate(world, Integer.parseInt(votersPerDistrict), ELECTORATE_SEED);
+            System.out.printf("Generated %d voters in %d districts in %.1f ms%n", electorate.getVoterCount(),
+                    electorate.getDistrictCount(), (System.nanoTime() - start) / 1e6);
+            return world.withElectorate(electorate);
+        } catch (NumberFormatException e) {
+            System.out.println("--electorate needs a number of voters per location");
+            return null;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Could not generate the electorate: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds every row of a world's route table up front and reports the time and memory used.
+     *
+     * @param world the world
+     */
+    private static void precomputeRoutes(WorldTemplate world) {
+        long start = System.nanoTime();
+        RouteTable routes = world.getRoutes();
+        int rows = routes.precomputeAll();
+        System.out.printf("Built %d of %d route rows in %.1f ms (%d KB)%n",
+                rows, world.getLocationCount(), (System.nanoTime() - start) / 1e6,
+                routes.getMemoryBytes() / 1024);
+    }
+
+    /**
+     * Removes options from the argument list.
+     *
+     * @param args the arguments
+     * @param index the first argument to remove
+     * @param count how many to remove
+     * @return the remaining arguments
+     */
+    private static String[] remove(String[] args, int index, int count) {
+        String[] rest = new String[args.length - count];
+        System.arraycopy(args, 0, rest, 0, index);
+        System.arraycopy(args, index + count, rest, index, args.length - index - count);
+        return rest;
+    }
+
+    /**
+     * Compiles a world file to the binary format.
+     *
+     * @param in the text (or compiled) world file
+     * @param out the compiled file to write
+     */
+    private static void compileWorld(String in, String out) {
+        try {
+            WorldTemplate world = WorldTemplate.load(Path.of(in));
+            WorldCompiler.compile(world, Path.of(out));
+            System.out.println("Compiled " + world.getLocationCount() + " locations to " + out);
+        } catch (IOException e) {
+            System.out.println("Could not compile world: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,477 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bot strategy that chooses each command by Monte Carlo Tree Search over the real
+ * game rules: it plays many short random games (rollouts) from forks of the current
+ * state and picks the action whose subtree was visited most.
+ *
+ * Search is root-parallel: each worker grows its own tree from its own fork, so
+ * workers share nothing while searching, and their root visit counts are added up
+ * at the end. Every rollout re-seeds its fork's random source, so the bot plans
+ * against the odds of speeches, bribes and events rather than against the outcome
+ * the game is about to roll. Rollouts pick actions without building command
+ * strings or lists, and cost one fork (under 1 KB) each.
+ *
+ * A rollout that reaches the election scores 1 for a win. Any other end scores 0,
+ * and a rollout cut off by the depth limit or lost at the election scores by how
+ * close the player is to the win conditions.
+ *
+ * With a time budget of 0 the search runs a fixed number of iterations per worker,
+ * which makes a game with a fixed seed and thread count reproducible.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class MctsBotStrategy implements BotStrategy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final double EXPLORATION = 0.7;
+    private static final double END_TURN_CHANCE = 0.3;
+    private static final int MAX_ROLLOUT_ACTIONS = 200;
+
+    private static final int END = 0;
+    private static final int SPEECH = 1;
+    private static final int MEDIA = 2;
+    private static final int MOVE = 3;
+    private static final int TAKE = 4;
+    private static final int USE = 5;
+    private static final int TALK = 6;
+    private static final int ALLY = 7;
+    private static final int BRIBE = 8;
+    private static final int SABOTAGE = 9;
+
+    private long budgetNanos;
+    private int iterations;
+    private int threads;
+    private AtomicLong decisions;
+    private AtomicLong rollouts;
+    private AtomicLong searchNanos;
+
+    /**
+     * One action available in a game state.
+     */
+    private static class Action {
+        private int kind;
+        private String target;
+        private Direction direction;
+
+        Action(int kind, String target, Direction direction) {
+            this.kind = kind;
+            this.target = target;
+            this.direction = direction;
+        }
+    }
+
+    /**
+     * A node of one worker's search tree: the state reached by an action sequence.
+     */
+    private static class Node {
+        private Node parent;
+        private Action action;
+        private Node[] children;
+        private int visits;
+        private double total;
+
+        Node(Node parent, Action action) {
+            this.parent = parent;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Constructs an MctsBotStrategy that searches for a fixed time per decision on every core.
+     *
+     * @param budgetMillis the thinking time per command, in milliseconds
+     */
+    public MctsBotStrategy(long budgetMillis) {
+        this(budgetMillis, 0, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an MctsBotStrategy.
+     *
+     * @param budgetMillis the thinking time per command in milliseconds, or 0 for no time limit
+     * @param iterations the number of rollouts per worker and command, or 0 for no limit
+     * @param threads the number of workers searching in parallel
+     * @throws IllegalArgumentException if there is neither a time nor an iteration limit
+     */
+    public MctsBotStrategy(long budgetMillis, int iterations, int threads) {
+        if (budgetMillis <= 0 && iterations <= 0) {
+            throw new IllegalArgumentException("Give a time budget or an iteration count");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.decisions = new AtomicLong();
+        this.rollouts = new AtomicLong();
+        this.searchNanos = new AtomicLong();
+    }
+
+    @Override
+    public String nextCommand(GameManager game, SessionRandom random) {
+        long start = System.nanoTime();
+        List<Action> actions = actions(game);
+        if (actions.size() == 1) return command(actions.get(0));
+
+        // Fork on the caller's thread; the workers only ever touch their own forks
+        GameManager[] roots = new GameManager[threads];
+        SessionRandom[] streams = new SessionRandom[threads];
+        for (int i = 0; i < threads; i++) {
+            roots[i] = game.fork(NullSink.INSTANCE);
+            streams[i] = random.split();
+        }
+        long deadline = budgetNanos > 0 ? start + budgetNanos : Long.MAX_VALUE;
+
+        List<ForkJoinTask<Node>> workers = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            GameManager root = roots[i];
+            SessionRandom stream = streams[i];
+            workers.add(ForkJoinTask.adapt(() -> search(root, actions, stream, deadline)).fork());
+        }
+        Node[] trees = new Node[threads];
+        trees[0] = search(roots[0], actions, streams[0], deadline);
+        for (int i = 1; i < threads; i++) {
+            trees[i] = workers.get(i - 1).join();
+        }
+
+        int best = 0;
+        long bestVisits = -1;
+        double bestMean = 0;
+        long total = 0;
+        for (int a = 0; a < actions.size(); a++) {
+            long visits = 0;
+            double value = 0;
+            for (Node tree : trees) {
+                visits += tree.children[a].visits;
+                value += tree.children[a].total;
+            }
+            total += visits;
+            double mean = visits == 0 ? 0 : value / visits;
+            if (visits > bestVisits || (visits == bestVisits && mean > bestMean)) {
+                best = a;
+                bestVisits = visits;
+                bestMean = mean;
+            }
+        }
+
+        decisions.incrementAndGet();
+        rollouts.addAndGet(total);
+        searchNanos.addAndGet(System.nanoTime() - start);
+        return command(actions.get(best));
+    }
+
+    /**
+     * Grows one search tree until the deadline or the iteration limit.
+     *
+     * @param root the worker's private fork of the game
+     * @param actions the actions available at the root
+     * @param random the worker's random stream
+     * @param deadline System.nanoTime() at which to stop
+     * @return the root of the tree, whose children match the actions
+     */
+    private Node search(GameManager root, List<Action> actions, SessionRandom random, long deadline) {
+        Node tree = new Node(null, null);
+        tree.children = new Node[actions.size()];
+        for (int i = 0; i < actions.size(); i++) {
+            tree.children[i] = new Node(tree, actions.get(i));
+        }
+        long gamma = root.getRandom().getGamma();
+
+        for (int i = 0; iterations <= 0 || i < iterations; i++) {
+            if ((i & 15) == 0 && System.nanoTime() >= deadline && i > 0) break;
+
+            GameManager game = root.fork(NullSink.INSTANCE);
+            SessionRandom dice = game.getRandom();
+            dice.restore(dice.getSeed(), random.nextLong(), gamma);
+
+            // Selection: follow the best child while the node is fully expanded
+            Node node = tree;
+            while (node.children != null && game.isGameRunning()) {
+                node = select(node);
+                apply(game, node.action);
+                if (node.visits == 0) break;
+            }
+
+            // Expansion: the first visit after a node's first rollout lists its actions
+            if (node.visits > 0 && node.children == null && game.isGameRunning()) {
+                List<Action> next = actions(game);
+                node.children = new Node[next.size()];
+                for (int c = 0; c < next.size(); c++) {
+                    node.children[c] = new Node(node, next.get(c));
+                }
+                node = node.children[random.nextInt(next.size())];
+                apply(game, node.action);
+            }
+
+            double reward = rollout(game, random);
+            for (; node != null; node = node.parent) {
+                node.visits++;
+                node.total += reward;
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Picks the child with the best UCB1 score, trying unvisited children first.
+     *
+     * @param node an expanded node
+     * @return the child to descend into
+     */
+    private static Node select(Node node) {
+        Node best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        double logVisits = Math.log(Math.max(1, node.visits));
+        for (Node child : node.children) {
+            if (child.visits == 0) return child;
+            double score = child.total / child.visits + EXPLORATION * Math.sqrt(logVisits / child.visits);
+            if (score > bestScore) {
+                best = child;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Plays random actions until the game ends or the depth limit, then scores the result.
+     *
+     * @param game the fork to play on
+     * @param random the worker's random stream
+     * @return the reward, between 0 and 1
+     */
+    private static double rollout(GameManager game, SessionRandom random) {
+        for (int step = 0; step < MAX_ROLLOUT_ACTIONS && game.isGameRunning(); step++) {
+            if (random.nextDouble() < END_TURN_CHANCE) {
+                game.endTurn();
+            } else {
+                playRandom(game, random.nextInt(countActions(game) - 1) + 1);
+            }
+        }
+        return score(game);
+    }
+
+    /**
+     * Scores a game: 1 for a win, 0 for losing early, and partial credit for
+     * how close the player is to the win conditions otherwise.
+     *
+     * @param game the game
+     * @return the reward, between 0 and 1
+     */
+    private static double score(GameManager game) {
+        switch (game.getOutcome()) {
+            case WON:
+                return 1;
+            case IN_PROGRESS:
+            case LOST_ELECTION:
+                Player player = game.getPlayer();
+                GameRules rules = game.getRules();
+                double popularity = Math.min(1, player.getPopularity() / Math.max(1, rules.getWinPopularity()));
+                double allies = Math.min(1, (double) player.allianceCount() / Math.max(1, rules.getMinAlliesToWin()));
+                return 0.25 * popularity + 0.25 * allies;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Counts the actions available without building them, in the order actions() lists them.
+     *
+     * @param game the game
+     * @return the number of actions
+     */
+    private static int countActions(GameManager game) {
+        Location location = game.getCurrentLocation();
+        int count = 3 + location.getNamedExitCount() + location.itemCount() + game.getPlayer().itemCount()
+                + game.getAvailableAllies().size() + 2 * game.getOpponents().size();
+        for (Direction direction : DIRECTIONS) {
+            if (location.getExit(direction) >= 0) count++;
+        }
+        for (String type : location.getNPCs().values()) {
+            if (type.equals("neutral")) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Plays the n-th action in actions() order without building the list.
+     *
+     * @param game the game
+     * @param n the action number, below countActions()
+     */
+    private static void playRandom(GameManager game, int n) {
+        if (n == END) {
+            game.endTurn();
+            return;
+        }
+        if (n == SPEECH) {
+            game.playerGiveSpeech();
+            return;
+        }
+        if (n == MEDIA) {
+            game.playerManageMedia();
+            return;
+        }
+        n -= 3;
+
+        Location location = game.getCurrentLocation();
+        for (Direction direction : DIRECTIONS) {
+            if (location.getExit(direction) >= 0 && n-- == 0) {
+                game.movePlayer(direction);
+                return;
+            }
+        }
+        if (n < location.getNamedExitCount()) {
+            game.movePlayer(location.getNamedExit(n));
+            return;
+        }
+        n -= location.getNamedExitCount();
+        if (n < location.itemCount()) {
+            game.takeItem(location.getItems().get(n).getName());
+            return;
+        }
+        n -= location.itemCount();
+        Player player = game.getPlayer();
+        if (n < player.itemCount()) {
+            game.useItem(player.getInventory().get(n).getName());
+            return;
+        }
+        n -= player.itemCount();
+        for (Map.Entry<String, String> npc : location.getNPCs().entrySet()) {
+            if (npc.getValue().equals("neutral") && n-- == 0) {
+                game.playerInteractNPC(npc.getKey());
+                return;
+            }
+        }
+        List<Ally> allies = game.getAvailableAllies();
+        if (n < allies.size()) {
+            game.playerNegotiateAlliance(allies.get(n).getName());
+            return;
+        }
+        n -= allies.size();
+        List<Opponent> opponents = game.getOpponents();
+        if (n < opponents.size()) {
+            game.playerBribe(opponents.get(n).getName());
+        } else {
+            game.playerSabotage(opponents.get(n - opponents.size()).getName());
+        }
+    }
+
+    /**
+     * Lists the actions available in a game state.
+     *
+     * @param game the game
+     * @return the actions, in the same order countActions() and playRandom() use
+     */
+    private static List<Action> actions(GameManager game) {
+        List<Action> actions = new ArrayList<>();
+        actions.add(new Action(END, null, null));
+        actions.add(new Action(SPEECH, null, null));
+        actions.add(new Action(MEDIA, null, null));
+        Location location = game.getCurrentLocation();
+        for (Direction direction : DIRECTIONS) {
+            if (location.getExit(direction) >= 0) actions.add(new Action(MOVE, direction.getName(), direction));
+        }
+        for (int i = 0; i < location.getNamedExitCount(); i++) {
+            actions.add(new Action(MOVE, location.getNamedExit(i), null));
+        }
+        for (Item item : location.getItems()) {
+            actions.add(new Action(TAKE, item.getName(), null));
+        }
+        for (Item item : game.getPlayer().getInventory()) {
+            actions.add(new Action(USE, item.getName(), null));
+        }
+        for (Map.Entry<String, String> npc : location.getNPCs().entrySet()) {
+            if (npc.getValue().equals("neutral")) actions.add(new Action(TALK, npc.getKey(), null));
+        }
+        for (Ally ally : game.getAvailableAllies()) {
+            actions.add(new Action(ALLY, ally.getName(), null));
+        }
+        for (Opponent opponent : game.getOpponents()) {
+            actions.add(new Action(BRIBE, opponent.getName(), null));
+        }
+        for (Opponent opponent : game.getOpponents()) {
+            actions.add(new Action(SABOTAGE, opponent.getName(), null));
+        }
+        return actions;
+    }
+
+    /**
+     * Plays an action, as its command would.
+     *
+     * @param game the game
+     * @param action the action
+     */
+    private static void apply(GameManager game, Action action) {
+        switch (action.kind) {
+            case END: game.endTurn(); break;
+            case SPEECH: game.playerGiveSpeech(); break;
+            case MEDIA: game.playerManageMedia(); break;
+            case MOVE:
+                if (action.direction != null) {
+                    game.movePlayer(action.direction);
+                } else {
+                    game.movePlayer(action.target);
+                }
+                break;
+            case TAKE: game.takeItem(action.target); break;
+            case USE: game.useItem(action.target); break;
+            case TALK: game.playerInteractNPC(action.target); break;
+            case ALLY: game.playerNegotiateAlliance(action.target); break;
+            case BRIBE: game.playerBribe(action.target); break;
+            default: game.playerSabotage(action.target); break;
+        }
+    }
+
+    /**
+     * Turns an action into the command line that plays it.
+     *
+     * @param action the action
+     * @return the command, e.g. "take Flyer"
+     */
+    private static String command(Action action) {
+        switch (action.kind) {
+            case END: return "end";
+            case SPEECH: return "speech";
+            case MEDIA: return "media";
+            case MOVE: return "move " + action.target;
+            case TAKE: return "take " + action.target;
+            case USE: return "use " + action.target;
+            case TALK: return "talk " + action.target;
+            case ALLY: return "ally " + action.target;
+            case BRIBE: return "bribe " + action.target;
+            default: return "sabotage " + action.target;
+        }
+    }
+
+    /**
+     * Gets the number of commands chosen by search so far (commands with only one
+     * possible action are not searched).
+     *
+     * @return the decision count
+     */
+    public long getDecisions() {
+        return decisions.get();
+    }
+
+    /**
+     * Gets the number of rollouts played so far, over all decisions and workers.
+     *
+     * @return the rollout count
+     */
+    public long getRollouts() {
+        return rollouts.get();
+    }
+
+    /**
+     * Gets the wall-clock time spent searching so far.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getSearchNanos() {
+        return searchNanos.get();
+    }
+}
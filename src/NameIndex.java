@@ -0,0 +1,96 @@
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive index from names to objects, kept alongside a list.
+ * Gives O(1) lookups by name where the game used to scan lists with equalsIgnoreCase.
+ *
+ * When several objects share a name, the one added first is found, as a scan
+ * of the list would have done.
+ *
+ * @param <T> the type of object indexed
+ * @author Usman
+ * @version 1.0
+ */
+public class NameIndex<T> {
+    private Map<String, T> byName;
+    private Function<T, String> nameOf;
+    private int duplicates;
+
+    /**
+     * Constructs an empty NameIndex.
+     *
+     * @param nameOf gets the name of an object
+     */
+    public NameIndex(Function<T, String> nameOf) {
+        this.byName = new HashMap<>();
+        this.nameOf = nameOf;
+    }
+
+    /**
+     * Folds a name to the form used as a key.
+     * Returns the same string when it is already lower case.
+     *
+     * @param name the name
+     * @return the case-folded key
+     */
+    public static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds an object under its name.
+     *
+     * @param value the object to add
+     */
+    public void add(T value) {
+        if (byName.putIfAbsent(fold(nameOf.apply(value)), value) != null) {
+            duplicates++;
+        }
+    }
+
+    /**
+     * Removes an object. If another object with the same name is still in the
+     * backing list, it takes over the name.
+     *
+     * @param value the object being removed
+     * @param remaining the backing list after removal
+     */
+    public void remove(T value, Iterable<T> remaining) {
+        String key = fold(nameOf.apply(value));
+        if (byName.get(key) != value) {
+            if (byName.containsKey(key)) duplicates--;
+            return;
+        }
+
+        byName.remove(key);
+        if (duplicates == 0) return;
+        for (T other : remaining) {
+            if (fold(nameOf.apply(other)).equals(key)) {
+                byName.put(key, other);
+                duplicates--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds an object by name, ignoring case.
+     *
+     * @param name the name to look up
+     * @return the object or null if not found
+     */
+    public T find(String name) {
+        return byName.get(fold(name));
+    }
+
+    /**
+     * Removes everything from the index.
+     */
+    public void clear() {
+        byName.clear();
+        duplicates = 0;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Enum of structured events reported to an OutputSink.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public enum NarrationKind {
+    /** A character's popularity changed (value = new popularity) */
+    POPULARITY,
+
+    /** The player's money changed (value = new money) */
+    MONEY,
+
+    /** The player's scandal risk changed (value = new scandal risk) */
+    SCANDAL_RISK,
+
+    /** The player's influence changed (value = new influence) */
+    INFLUENCE,
+
+    /** A random event was triggered (value = popularity impact) */
+    EVENT,
+
+    /** An action succeeded (subject = action name, value = 1) or failed (value = 0) */
+    ACTION,
+
+    /** An item was picked up (value = item value) */
+    ITEM_TAKEN,
+
+    /** An item was dropped (value = item value) */
+    ITEM_DROPPED,
+
+    /** An item was used (value = item value) */
+    ITEM_USED,
+
+    /** An alliance was formed (value = influence boost) */
+    ALLIANCE,
+
+    /** The player moved (subject = new location) */
+    MOVE,
+
+    /** A new turn started (value = turn number) */
+    TURN,
+
+    /** The game ended (subject = GameOutcome name, value = turn number) */
+    GAME_OVER
+}
@@ -0,0 +1,47 @@
+/**
+ * One structured event captured by a StructuredSink.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public final class NarrationRecord {
+    private final NarrationKind kind;
+    private final String subject;
+    private final double value;
+
+    /**
+     * Constructs a new NarrationRecord.
+     *
+     * @param kind what happened
+     * @param subject who or what it happened to
+     * @param value the value involved
+     */
+    public NarrationRecord(NarrationKind kind, String subject, double value) {
+        this.kind = kind;
+        this.subject = subject;
+        this.value = value;
+    }
+
+    /**
+     * Gets the event kind.
+     * @return the kind
+     */
+    public NarrationKind getKind() { return kind; }
+
+    /**
+     * Gets the subject of the event.
+     * @return the subject name
+     */
+    public String getSubject() { return subject; }
+
+    /**
+     * Gets the value of the event.
+     * @return the value
+     */
+    public double getValue() { return value; }
+
+    @Override
+    public String toString() {
+        return kind + " " + subject + " " + value;
+    }
+}
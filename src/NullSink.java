@@ -0,0 +1,31 @@
+/**
+ * Output sink that discards everything.
+ * Reports itself as disabled so game code never builds the messages in the first place.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public final class NullSink implements OutputSink {
+    /** Shared instance (the sink has no state) */
+    public static final NullSink INSTANCE = new NullSink();
+
+    private NullSink() {
+    }
+
+    @Override
+    public void println(String text) {
+    }
+
+    @Override
+    public void print(String text) {
+    }
+
+    @Override
+    public void println() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
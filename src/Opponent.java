@@ -6,19 +6,50 @@
  * @version 1.0
  */
 public class Opponent {
+    static final double BASE_DEFENSE = 15;
+    static final double MAX_DEFENSE = 60;
+
     private String name;
     private double popularity;
     private double defenseLevel;
+    private OpponentPolicy policy;
+    private OutputSink output;
 
     /**
-     * Constructs a new Opponent with default stats.
+     * Constructs a new Opponent with default stats and a steady campaign.
      *
      * @param name the opponent's name
      */
     public Opponent(String name) {
+        this(name, OpponentPolicy.STEADY);
+    }
+
+    /**
+     * Constructs a new Opponent with default stats.
+     *
+     * @param name the opponent's name
+     * @param policy how the opponent campaigns each turn
+     */
+    public Opponent(String name, OpponentPolicy policy) {
         this.name = name;
         this.popularity = 45;
-        this.defenseLevel = 15;
+        this.defenseLevel = BASE_DEFENSE;
+        this.policy = policy;
+        this.output = ConsoleSink.INSTANCE;
+    }
+
+    /**
+     * Constructs a copy of an opponent for a forked game.
+     *
+     * @param original the opponent to copy
+     * @param output where the copy's narration is written
+     */
+    Opponent(Opponent original, OutputSink output) {
+        this.name = original.name;
+        this.popularity = original.popularity;
+        this.defenseLevel = original.defenseLevel;
+        this.policy = original.policy;
+        this.output = output;
     }
 
     /**
@@ -39,22 +70,32 @@ public class Opponent {
      */
     public double getDefenseLevel() { return defenseLevel; }
 
+    /**
+     * Gets how the opponent campaigns each turn.
+     * @return the policy
+     */
+    public OpponentPolicy getPolicy() { return policy; }
+
     /**
      * Makes the opponent react to sabotage attempts.
+     * The opponent loses support and tightens its defenses.
      */
     public void reactToSabotage() {
-        System.out.println(name + " is reacting to sabotage!");
+        if (output.isEnabled()) output.println(name + " is reacting to sabotage!");
         popularity -= 10;
         if (popularity < 0) popularity = 0;
+        output.record(NarrationKind.POPULARITY, name, popularity);
+        updateDefense(10);
     }
 
     /**
      * Makes the opponent lose support (from bribes or other actions).
      */
     public void loseSupport() {
-        System.out.println(name + " loses support.");
+        if (output.isEnabled()) output.println(name + " loses support.");
         popularity -= 5;
         if (popularity < 0) popularity = 0;
+        output.record(NarrationKind.POPULARITY, name, popularity);
     }
 
     /**
@@ -66,5 +107,37 @@ public class Opponent {
         popularity += amount;
         if (popularity > 100) popularity = 100;
         if (popularity < 0) popularity = 0;
+        output.record(NarrationKind.POPULARITY, name, popularity);
+    }
+
+    /**
+     * Updates the opponent's defense level, which stays between 0 and MAX_DEFENSE.
+     *
+     * @param amount the amount to change the defense level by
+     */
+    public void updateDefense(double amount) {
+        defenseLevel += amount;
+        if (defenseLevel > MAX_DEFENSE) defenseLevel = MAX_DEFENSE;
+        if (defenseLevel < 0) defenseLevel = 0;
+    }
+
+    /**
+     * Sets the opponent's stats from a saved game.
+     *
+     * @param popularity the popularity
+     * @param defenseLevel the defense level
+     */
+    void restore(double popularity, double defenseLevel) {
+        this.popularity = popularity;
+        this.defenseLevel = defenseLevel;
+    }
+
+    /**
+     * Sets the sink the opponent's narration is written to.
+     *
+     * @param output the new OutputSink
+     */
+    public void setOutput(OutputSink output) {
+        this.output = output;
     }
 }
\ No newline at end of file
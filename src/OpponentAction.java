@@ -0,0 +1,42 @@
+/**
+ * Enum of the actions an opponent can take at the end of a turn.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public enum OpponentAction {
+    /** Rallies and canvassing: popularity for the opponent */
+    CAMPAIGN("campaign"),
+
+    /** Attack ads: some popularity for the opponent, popularity lost by the player */
+    COUNTER_CAMPAIGN("counter"),
+
+    /** Buying off the player's backers: influence lost by the player */
+    BRIBE("bribe"),
+
+    /** Feeding the press stories: scandal risk for the player */
+    MEDIA_PUSH("media"),
+
+    /** Tightening campaign security: defense against bribes */
+    DEFEND("defend");
+
+    private final String label;
+    private final String counter;
+
+    OpponentAction(String label) {
+        this.label = label;
+        this.counter = "opponent." + label;
+    }
+
+    /**
+     * Gets the action's short name.
+     * @return the label, e.g. "counter"
+     */
+    public String getLabel() { return label; }
+
+    /**
+     * Gets the name the action is counted under in GameMetrics.
+     * @return the counter name, e.g. "opponent.counter"
+     */
+    public String getCounter() { return counter; }
+}
@@ -0,0 +1,72 @@
+/**
+ * What one opponent decided to do this turn, and what it changes.
+ * Moves are decided in parallel and applied afterwards, one opponent at a time
+ * in a fixed order, so a move only describes its changes and never makes them.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public final class OpponentMove {
+    private final OpponentAction action;
+    private final double popularity;
+    private final double defense;
+    private final double playerPopularity;
+    private final double playerInfluence;
+    private final double playerScandalRisk;
+
+    /**
+     * Constructs an OpponentMove.
+     *
+     * @param action the action taken
+     * @param popularity the change in the opponent's popularity
+     * @param defense the change in the opponent's defense level
+     * @param playerPopularity the change in the player's popularity
+     * @param playerInfluence the change in the player's influence
+     * @param playerScandalRisk the change in the player's scandal risk
+     */
+    OpponentMove(OpponentAction action, double popularity, double defense, double playerPopularity,
+                 double playerInfluence, double playerScandalRisk) {
+        this.action = action;
+        this.popularity = popularity;
+        this.defense = defense;
+        this.playerPopularity = playerPopularity;
+        this.playerInfluence = playerInfluence;
+        this.playerScandalRisk = playerScandalRisk;
+    }
+
+    /**
+     * Gets the action taken.
+     * @return the action
+     */
+    public OpponentAction getAction() { return action; }
+
+    /**
+     * Gets the change in the opponent's popularity.
+     * @return the popularity change
+     */
+    public double getPopularity() { return popularity; }
+
+    /**
+     * Gets the change in the opponent's defense level.
+     * @return the defense change
+     */
+    public double getDefense() { return defense; }
+
+    /**
+     * Gets the change in the player's popularity.
+     * @return the popularity change, 0 or less
+     */
+    public double getPlayerPopularity() { return playerPopularity; }
+
+    /**
+     * Gets the change in the player's influence.
+     * @return the influence change, 0 or less
+     */
+    public double getPlayerInfluence() { return playerInfluence; }
+
+    /**
+     * Gets the change in the player's scandal risk.
+     * @return the scandal risk change, 0 or more
+     */
+    public double getPlayerScandalRisk() { return playerScandalRisk; }
+}
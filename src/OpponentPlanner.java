@@ -0,0 +1,100 @@
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decides every opponent's move for a turn, in parallel when there are many.
+ *
+ * Each opponent decides with its own random stream, derived from the turn's seed
+ * and the opponent's slot, and only reads the shared game state. The moves land
+ * in an array indexed by slot, so the result is the same whether the opponents
+ * were split across the common fork-join pool or decided one after another, and
+ * the game applies them in slot order. Fields of up to SEQUENTIAL_THRESHOLD
+ * opponents, like the standard world's five, never touch the pool.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+@SuppressWarnings("serial")
+public class OpponentPlanner extends RecursiveAction {
+    static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private List<Opponent> opponents;
+    private Player player;
+    private double pressure;
+    private long seed;
+    private OpponentMove[] moves;
+    private int from;
+    private int to;
+
+    /**
+     * Constructs a planner for a range of opponent slots.
+     *
+     * @param opponents every opponent
+     * @param player the player they campaign against
+     * @param pressure how hard actions against the player hit
+     * @param seed the turn's seed
+     * @param moves where each slot's move is stored
+     * @param from the first slot
+     * @param to one past the last slot
+     */
+    private OpponentPlanner(List<Opponent> opponents, Player player, double pressure, long seed,
+                            OpponentMove[] moves, int from, int to) {
+        this.opponents = opponents;
+        this.player = player;
+        this.pressure = pressure;
+        this.seed = seed;
+        this.moves = moves;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Decides every opponent's move.
+     *
+     * @param opponents the opponents, in slot order
+     * @param player the player they campaign against; only read
+     * @param pressure how hard actions against the player hit, 0 for none
+     * @param seed the turn's seed
+     * @return the moves, indexed like the opponents
+     */
+    public static OpponentMove[] plan(List<Opponent> opponents, Player player, double pressure, long seed) {
+        OpponentMove[] moves = new OpponentMove[opponents.size()];
+        OpponentPlanner planner = new OpponentPlanner(opponents, player, pressure, seed, moves, 0, moves.length);
+        if (moves.length <= SEQUENTIAL_THRESHOLD) {
+            planner.decideAll();
+        } else {
+            planner.invoke();
+        }
+        return moves;
+    }
+
+    /**
+     * Splits the range until it is small enough to decide directly.
+     */
+    @Override
+    protected void compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            decideAll();
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new OpponentPlanner(opponents, player, pressure, seed, moves, from, middle),
+                new OpponentPlanner(opponents, player, pressure, seed, moves, middle, to));
+    }
+
+    /**
+     * Decides the move of every opponent in the range on this thread. One
+     * generator is reseeded for each slot, which draws exactly what a new
+     * SessionRandom with the slot's seed would.
+     */
+    private void decideAll() {
+        SessionRandom random = new SessionRandom(seed);
+        long gamma = random.getGamma();
+        for (int slot = from; slot < to; slot++) {
+            long slotSeed = SessionRandom.deriveSeed(seed, slot);
+            random.restore(slotSeed, slotSeed, gamma);
+            Opponent opponent = opponents.get(slot);
+            moves[slot] = opponent.getPolicy().decide(opponent, player, pressure, random);
+        }
+    }
+}
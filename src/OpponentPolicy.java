@@ -0,0 +1,96 @@
+/**
+ * Enum of opponent campaign styles, each a table of how likely every action is.
+ *
+ * An opponent draws one action per turn from its style's weights, adjusted for
+ * the state of the race: attacks are more likely while the player is ahead of it,
+ * and the actions aimed at the player are scaled by the pressure the game allows.
+ * Deciding only reads the opponent and the player, so every opponent can decide
+ * at the same time.
+ *
+ * @author Abdur Rahim
+ * @version 1.0
+ */
+public enum OpponentPolicy {
+    /** Mostly campaigns, rarely goes negative */
+    STEADY("steady", 6, 1, 1, 1, 1),
+
+    /** Runs attack ads and press stories against the player */
+    ATTACKER("attacker", 3, 4, 0, 2, 1),
+
+    /** Works behind the scenes, buying off the player's backers */
+    SCHEMER("schemer", 3, 1, 3, 2, 1);
+
+    private static final OpponentPolicy[] ALL = values();
+
+    private final String label;
+    private final double campaign;
+    private final double counter;
+    private final double bribe;
+    private final double media;
+    private final double defend;
+
+    OpponentPolicy(String label, double campaign, double counter, double bribe, double media, double defend) {
+        this.label = label;
+        this.campaign = campaign;
+        this.counter = counter;
+        this.bribe = bribe;
+        this.media = media;
+        this.defend = defend;
+    }
+
+    /**
+     * Gets the style of the opponent in a world's opponent slot. Styles take
+     * turns, so every world with three or more opponents has all of them.
+     *
+     * @param slot the opponent's index in the world's opponent list
+     * @return the style
+     */
+    public static OpponentPolicy forSlot(int slot) {
+        return ALL[slot % ALL.length];
+    }
+
+    /**
+     * Gets the style's name.
+     * @return the label, e.g. "attacker"
+     */
+    public String getLabel() { return label; }
+
+    /**
+     * Chooses an opponent's action for this turn and rolls its effects.
+     *
+     * @param opponent the opponent deciding
+     * @param player the player it campaigns against; only read
+     * @param pressure how hard actions against the player hit, 0 for none
+     * @param random the opponent's own random source for this turn
+     * @return the move
+     */
+    public OpponentMove decide(Opponent opponent, Player player, double pressure, SessionRandom random) {
+        boolean trailing = player.getPopularity() > opponent.getPopularity();
+        double campaignWeight = campaign;
+        double counterWeight = counter * pressure * (trailing ? 2 : 0.5);
+        double bribeWeight = player.getInfluence() > 0 ? bribe * pressure : 0;
+        double mediaWeight = media * pressure;
+        double defendWeight = opponent.getDefenseLevel() >= Opponent.MAX_DEFENSE ? 0
+                : opponent.getPopularity() < 40 ? defend * 2 : defend;
+
+        double roll = random.nextDouble()
+                * (campaignWeight + counterWeight + bribeWeight + mediaWeight + defendWeight);
+        double decay = opponent.getDefenseLevel() > Opponent.BASE_DEFENSE ? -1 : 0;
+        if ((roll -= campaignWeight) < 0) {
+            return new OpponentMove(OpponentAction.CAMPAIGN, 2 + random.nextDouble() * 3, decay, 0, 0, 0);
+        }
+        if ((roll -= counterWeight) < 0) {
+            return new OpponentMove(OpponentAction.COUNTER_CAMPAIGN, 1 + random.nextDouble(), decay,
+                    -(1 + random.nextDouble() * 2) * pressure, 0, 0);
+        }
+        if ((roll -= bribeWeight) < 0) {
+            return new OpponentMove(OpponentAction.BRIBE, 1 + random.nextDouble(), decay,
+                    0, -(1 + random.nextDouble() * 2) * pressure, 0);
+        }
+        if ((roll -= mediaWeight) < 0) {
+            return new OpponentMove(OpponentAction.MEDIA_PUSH, 1 + random.nextDouble(), decay,
+                    0, 0, (2 + random.nextDouble() * 2) * pressure);
+        }
+        return new OpponentMove(OpponentAction.DEFEND, 1, 5, 0, 0, 0);
+    }
+}
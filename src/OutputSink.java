@@ -0,0 +1,54 @@
+/**
+ * Destination for all game narration.
+ * Lets the same game logic print to the console, buffer text per session,
+ * collect structured events, or discard everything.
+ *
+ * Call sites that build text dynamically should check isEnabled() first so that
+ * a disabled sink costs no string building at all.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public interface OutputSink {
+    /**
+     * Writes a line of text.
+     *
+     * @param text the text to write
+     */
+    void println(String text);
+
+    /**
+     * Writes text without a line break (used for prompts).
+     *
+     * @param text the text to write
+     */
+    void print(String text);
+
+    /**
+     * Writes an empty line.
+     */
+    default void println() {
+        println("");
+    }
+
+    /**
+     * Returns whether this sink wants text at all.
+     * When false, callers skip building messages.
+     *
+     * @return true if text output is consumed
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records a structured game event alongside (or instead of) the text narration.
+     * Ignored by default.
+     *
+     * @param kind what happened
+     * @param subject who or what it happened to (a name, never built on the fly)
+     * @param value the new value or amount involved
+     */
+    default void record(NarrationKind kind, String subject, double value) {
+    }
+}
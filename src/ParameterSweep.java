@@ -0,0 +1,301 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Explores balance settings by simulating many games under each of them.
+ *
+ * Each swept rule gets a range; the points tried are either the full grid over
+ * the ranges or a Latin hypercube sample, which covers every range evenly with
+ * far fewer points when several rules are swept. Every point plays the same
+ * batch seed, so differences between points come from the rules and not from
+ * luck. All points are queued on the common fork-join pool at once and their
+ * games share its workers, so small points still keep every core busy.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class ParameterSweep {
+    private static final long MAX_POINTS = 1_000_000;
+
+    private BotStrategy strategy;
+    private CharacterType characterType;
+    private WorldTemplate world;
+    private GameRules baseRules;
+    private List<String> names;
+    private List<double[]> ranges;
+
+    /**
+     * One setting of the swept rules and the result of playing under it.
+     */
+    private static class Point {
+        private double[] values;
+        private GameRules rules;
+        private SimulationReport report;
+    }
+
+    /**
+     * Constructs a ParameterSweep that starts from the standard rules.
+     *
+     * @param strategy the bot that plays every game
+     * @param characterType the character type to play, or null to rotate through all types
+     * @param world the world the games are played in
+     */
+    public ParameterSweep(BotStrategy strategy, CharacterType characterType, WorldTemplate world) {
+        this.strategy = strategy;
+        this.characterType = characterType;
+        this.world = world;
+        this.baseRules = GameRules.standard();
+        this.names = new ArrayList<>();
+        this.ranges = new ArrayList<>();
+    }
+
+    /**
+     * Adds a rule to sweep.
+     *
+     * @param name the rule's name, see GameRules.getNames()
+     * @param low the smallest value tried
+     * @param high the largest value tried
+     * @param steps the number of evenly spaced grid values from low to high
+     * @throws IllegalArgumentException if the rule does not exist or the range is empty
+     */
+    public void addRange(String name, double low, double high, int steps) {
+        GameRules.isWhole(name); // rejects unknown names
+        if (names.contains(name)) throw new IllegalArgumentException(name + " is swept twice");
+        if (!(low <= high) || steps < 1 || (steps == 1 && low != high)) {
+            throw new IllegalArgumentException("Bad range for " + name + ": " + low + ":" + high + ":" + steps);
+        }
+        names.add(name);
+        ranges.add(new double[] {low, high, steps});
+    }
+
+    /**
+     * Adds rules to sweep from a specification such as
+     * "speechCost=10:20:3,winPopularity=65:80:4" (low:high:steps per rule).
+     * A single value, as in "electionDay=12", fixes the rule instead of sweeping it.
+     *
+     * @param spec the comma-separated ranges
+     * @throws IllegalArgumentException if the specification cannot be parsed
+     */
+    public void addRanges(String spec) {
+        for (String part : spec.split(",")) {
+            int equals = part.indexOf('=');
+            if (equals <= 0) throw new IllegalArgumentException("Expected name=low:high:steps, got '" + part + "'");
+            String name = part.substring(0, equals).trim();
+            String[] range = part.substring(equals + 1).split(":");
+            try {
+                if (range.length == 1) {
+                    baseRules = baseRules.with(name, Double.parseDouble(range[0]));
+                } else if (range.length == 3) {
+                    addRange(name, Double.parseDouble(range[0]), Double.parseDouble(range[1]),
+                            Integer.parseInt(range[2]));
+                } else {
+                    throw new IllegalArgumentException("Expected name=low:high:steps, got '" + part + "'");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad number in '" + part + "'");
+            }
+        }
+    }
+
+    /**
+     * Gets the number of grid points the ranges span.
+     *
+     * @return the product of the step counts
+     */
+    public long getGridSize() {
+        long size = 1;
+        for (double[] range : ranges) {
+            size *= (long) range[2];
+        }
+        return size;
+    }
+
+    /**
+     * Lists every combination of grid values, the first rule varying slowest.
+     *
+     * @return the points
+     */
+    private List<Point> grid() {
+        List<Point> points = new ArrayList<>();
+        int[] step = new int[ranges.size()];
+        while (true) {
+            double[] values = new double[ranges.size()];
+            for (int i = 0; i < values.length; i++) {
+                double[] range = ranges.get(i);
+                values[i] = range[2] == 1 ? range[0] : range[0] + (range[1] - range[0]) * step[i] / (range[2] - 1);
+            }
+            points.add(point(values));
+
+            int i = step.length - 1;
+            while (i >= 0 && ++step[i] == (int) ranges.get(i)[2]) {
+                step[i--] = 0;
+            }
+            if (i < 0) return points;
+        }
+    }
+
+    /**
+     * Draws a Latin hypercube sample: each range is cut into as many equal strata
+     * as there are samples, and every stratum of every rule is used exactly once.
+     *
+     * @param samples the number of points
+     * @param random the source of the stratum order and the jitter within strata
+     * @return the points
+     */
+    private List<Point> latinHypercube(int samples, SessionRandom random) {
+        double[][] columns = new double[ranges.size()][samples];
+        for (int i = 0; i < columns.length; i++) {
+            double[] range = ranges.get(i);
+            int[] order = new int[samples];
+            for (int s = 0; s < samples; s++) {
+                order[s] = s;
+            }
+            for (int s = samples - 1; s > 0; s--) {
+                int j = random.nextInt(s + 1);
+                int swap = order[s];
+                order[s] = order[j];
+                order[j] = swap;
+            }
+            for (int s = 0; s < samples; s++) {
+                columns[i][s] = range[0] + (range[1] - range[0]) * (order[s] + random.nextDouble()) / samples;
+            }
+        }
+
+        List<Point> points = new ArrayList<>(samples);
+        for (int s = 0; s < samples; s++) {
+            double[] values = new double[ranges.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = columns[i][s];
+            }
+            points.add(point(values));
+        }
+        return points;
+    }
+
+    /**
+     * Builds the rules for one setting of the swept values.
+     *
+     * @param values the value of each swept rule
+     * @return the point, with whole-number rules rounded
+     */
+    private Point point(double[] values) {
+        Point point = new Point();
+        point.rules = baseRules;
+        for (int i = 0; i < values.length; i++) {
+            point.rules = point.rules.with(names.get(i), values[i]);
+            values[i] = point.rules.get(names.get(i));
+        }
+        point.values = values;
+        return point;
+    }
+
+    /**
+     * Plays every point of the grid, or of a Latin hypercube sample, and writes
+     * one CSV row per point.
+     *
+     * @param samples the number of Latin hypercube points, or 0 for the full grid
+     * @param gamesPerPoint the number of games simulated under each setting
+     * @param seed the batch seed every point plays
+     * @param csv where the table is written
+     * @param out where progress and the totals are printed
+     * @throws IOException if the table cannot be written
+     * @throws IllegalArgumentException if the grid is too large to play
+     */
+    public void run(int samples, int gamesPerPoint, long seed, Writer csv, PrintStream out) throws IOException {
+        if (samples == 0 && getGridSize() > MAX_POINTS) {
+            throw new IllegalArgumentException("The grid has " + getGridSize() + " points; use fewer steps or --samples");
+        }
+        List<Point> points = samples > 0 ? latinHypercube(samples, new SessionRandom(seed)) : grid();
+        out.println("Sweeping " + points.size() + " points x " + gamesPerPoint + " games on "
+                + Runtime.getRuntime().availableProcessors() + " cores...");
+
+        long start = System.nanoTime();
+        List<ForkJoinTask<SimulationReport>> tasks = new ArrayList<>(points.size());
+        for (Point point : points) {
+            BatchSimulator simulator = new BatchSimulator(strategy, characterType);
+            simulator.setWorld(world);
+            simulator.setRules(point.rules);
+            tasks.add(ForkJoinTask.adapt(() -> simulator.run(gamesPerPoint, seed)).fork());
+        }
+        for (int i = 0; i < points.size(); i++) {
+            points.get(i).report = tasks.get(i).join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        writeCsv(points, csv);
+        long games = (long) points.size() * gamesPerPoint;
+        Point best = points.get(0);
+        for (Point point : points) {
+            if (point.report.getWinRate() > best.report.getWinRate()) best = point;
+        }
+        out.printf("Played %d games in %.3f s (%.0f games/s)%n", games, elapsed / 1e9, games / (elapsed / 1e9));
+        out.printf("Highest win rate %.2f%% at %s%n", 100 * best.report.getWinRate(), describe(best));
+    }
+
+    /**
+     * Writes the result table: the swept values, then the game count, the count
+     * of each outcome and the win rate.
+     *
+     * @param points the played points
+     * @param csv where the table is written
+     * @throws IOException if the table cannot be written
+     */
+    private void writeCsv(List<Point> points, Writer csv) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (String name : names) {
+            line.append(name).append(',');
+        }
+        line.append("games");
+        for (GameOutcome outcome : GameOutcome.values()) {
+            line.append(',').append(outcome.name().toLowerCase(Locale.ROOT));
+        }
+        line.append(",win_rate\n");
+        csv.write(line.toString());
+
+        for (Point point : points) {
+            line.setLength(0);
+            for (double value : point.values) {
+                line.append(format(value)).append(',');
+            }
+            line.append(point.report.getGames());
+            for (GameOutcome outcome : GameOutcome.values()) {
+                line.append(',').append(point.report.getCount(outcome));
+            }
+            line.append(',').append(String.format(Locale.ROOT, "%.4f", point.report.getWinRate())).append('\n');
+            csv.write(line.toString());
+        }
+        csv.flush();
+    }
+
+    /**
+     * Describes a point's setting as name=value pairs.
+     *
+     * @param point the point
+     * @return the description
+     */
+    private String describe(Point point) {
+        if (names.isEmpty()) return "the base rules";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) text.append(", ");
+            text.append(names.get(i)).append('=').append(format(point.values[i]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Formats a rule value without a trailing ".0" for whole numbers.
+     *
+     * @param value the value
+     * @return the text
+     */
+    private static String format(double value) {
+        if (value == Math.rint(value)) return Long.toString((long) value);
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -18,7 +19,24 @@ public class Player {
 
     private List<Ally> alliances;
     private List<Item> inventory;
+    private NameIndex<Item> inventoryIndex;
+    private List<Ally> alliancesView;
+    private List<Item> inventoryView;
+    private boolean sharedAlliances;
+    private boolean sharedInventory;
     private Location currentLocation;
+    private OutputSink output;
+    private SessionRandom random;
+    private GameRules rules;
+
+    private static final String[] BACKFIRE_REASONS = {
+            "You stumbled over your words and appeared unprepared!",
+            "A heckler disrupted your speech and you lost your composure!",
+            "Your speech contradicted previous statements - the media noticed!",
+            "Technical difficulties made you look incompetent!",
+            "You accidentally insulted a key demographic!",
+            "Your speech was boring and people walked out!"
+    };
 
     /**
      * Constructs a new Player with specified name and character type.
@@ -28,43 +46,87 @@ public class Player {
      * @param type the character type affecting initial stats
      */
     public Player(String name, CharacterType type) {
+        this(name, type, GameRules.standard());
+    }
+
+    /**
+     * Constructs a new Player who plays by the given rules.
+     * The starting stats and action costs come from the rules, and so do the
+     * win and loss conditions of the game the player is in.
+     *
+     * @param name the player's name
+     * @param type the character type affecting initial stats
+     * @param rules the balance constants
+     */
+    public Player(String name, CharacterType type, GameRules rules) {
         this.name = name;
         this.type = type;
         this.alliances = new ArrayList<>();
         this.inventory = new ArrayList<>();
+        this.inventoryIndex = new NameIndex<>(Item::getName);
+        this.alliancesView = Collections.unmodifiableList(alliances);
+        this.inventoryView = Collections.unmodifiableList(inventory);
+        this.output = ConsoleSink.INSTANCE;
+        this.random = new SessionRandom();
+        this.rules = rules;
+        this.money = rules.getStartingMoney(type);
+        this.popularity = rules.getStartingPopularity(type);
+        this.influence = rules.getStartingInfluence(type);
+        this.scandalRisk = rules.getStartingScandalRisk(type);
+    }
 
-        // Different starting stats based on character type (increased difficulty)
-        switch (type) {
-            case BUSINESS_TYCOON:
-                this.money = 150.0;
-                this.popularity = 35.0;
-                this.influence = 25.0;
-                this.scandalRisk = 10.0;
-                break;
-            case CAREER_POLITICIAN:
-                this.money = 100.0;
-                this.popularity = 45.0;
-                this.influence = 30.0;
-                this.scandalRisk = 20.0;
-                break;
-            case OUTSIDER:
-                this.money = 80.0;
-                this.popularity = 40.0;
-                this.influence = 15.0;
-                this.scandalRisk = 5.0;
-                break;
-            case MAFIA_LEADER:
-                this.money = 200.0;
-                this.popularity = 25.0;
-                this.influence = 35.0;
-                this.scandalRisk = 40.0;
-                break;
-            default:
-                this.money = 100.0;
-                this.popularity = 40.0;
-                this.influence = 20.0;
-                this.scandalRisk = 10.0;
+    /**
+     * Constructs a copy of a player for a forked game. The copy shares the
+     * original's alliance and inventory lists until either of them changes one.
+     *
+     * @param original the player to copy
+     * @param output where the copy's narration is written
+     * @param random the copy's random source
+     */
+    Player(Player original, OutputSink output, SessionRandom random) {
+        this.name = original.name;
+        this.type = original.type;
+        this.rules = original.rules;
+        this.money = original.money;
+        this.popularity = original.popularity;
+        this.influence = original.influence;
+        this.scandalRisk = original.scandalRisk;
+        this.alliances = original.alliances;
+        this.inventory = original.inventory;
+        this.inventoryIndex = original.inventoryIndex;
+        this.alliancesView = original.alliancesView;
+        this.inventoryView = original.inventoryView;
+        this.currentLocation = original.currentLocation;
+        this.output = output;
+        this.random = random;
+        this.sharedAlliances = true;
+        this.sharedInventory = true;
+        original.sharedAlliances = true;
+        original.sharedInventory = true;
+    }
+
+    /**
+     * Gives this player its own alliance list if it is shared with a fork.
+     */
+    private void ownAlliances() {
+        if (!sharedAlliances) return;
+        alliances = new ArrayList<>(alliances);
+        alliancesView = Collections.unmodifiableList(alliances);
+        sharedAlliances = false;
+    }
+
+    /**
+     * Gives this player its own inventory if it is shared with a fork.
+     */
+    private void ownInventory() {
+        if (!sharedInventory) return;
+        inventory = new ArrayList<>(inventory);
+        inventoryIndex = new NameIndex<>(Item::getName);
+        for (Item item : inventory) {
+            inventoryIndex.add(item);
         }
+        inventoryView = Collections.unmodifiableList(inventory);
+        sharedInventory = false;
     }
 
     /**
@@ -74,8 +136,8 @@ public class Player {
      * @param target the opponent to bribe
      */
     public void bribe(Opponent target) {
-        System.out.println(name + " is attempting to bribe " + target.getName());
-        double bribeCost = 25 + (Math.random() * 15); // 25-40 dollars
+        if (output.isEnabled()) output.println(name + " is attempting to bribe " + target.getName());
+        double bribeCost = 25 + (random.nextDouble() * 15); // 25-40 dollars
 
         if (money >= bribeCost) {
             money -= bribeCost;
@@ -83,21 +145,29 @@ public class Player {
             // Success chance based on opponent's defense and your influence
             double successChance = 0.6 + (influence / 200.0) - (target.getDefenseLevel() / 100.0);
 
-            if (Math.random() < successChance) {
+            if (random.nextDouble() < successChance) {
                 influence += 3;
                 target.loseSupport();
                 scandalRisk += 10;
-                System.out.println("Bribe successful! Cost: $" + String.format("%.2f", bribeCost));
-                System.out.println("Warning: Scandal risk increased!");
+                output.record(NarrationKind.ACTION, "bribe", 1);
+                GameMetrics.count("bribe.success");
+                if (output.isEnabled()) {
+                    output.println("Bribe successful! Cost: $" + String.format("%.2f", bribeCost));
+                    output.println("Warning: Scandal risk increased!");
+                }
             } else {
-                System.out.println("Bribe failed! " + target.getName() + " rejected your offer.");
-                System.out.println("Cost: $" + String.format("%.2f", bribeCost));
                 scandalRisk += 20;
                 popularity -= 30;
-                System.out.println("Your reputation took a hit! Scandal risk significantly increased!");
+                output.record(NarrationKind.ACTION, "bribe", 0);
+                GameMetrics.count("bribe.failure");
+                if (output.isEnabled()) {
+                    output.println("Bribe failed! " + target.getName() + " rejected your offer.");
+                    output.println("Cost: $" + String.format("%.2f", bribeCost));
+                    output.println("Your reputation took a hit! Scandal risk significantly increased!");
+                }
             }
-        } else {
-            System.out.println("Not enough money to bribe! Need: $" + String.format("%.2f", bribeCost));
+        } else if (output.isEnabled()) {
+            output.println("Not enough money to bribe! Need: $" + String.format("%.2f", bribeCost));
         }
     }
 
@@ -108,23 +178,30 @@ public class Player {
      * @param target the ally to negotiate with
      */
     public void negotiateAlliance(Ally target) {
-        System.out.println(name + " is negotiating alliance with " + target.getName());
+        if (output.isEnabled()) output.println(name + " is negotiating alliance with " + target.getName());
 
         if (alliances.contains(target)) {
-            System.out.println("Already allied with " + target.getName());
+            if (output.isEnabled()) output.println("Already allied with " + target.getName());
             return;
         }
 
         // Alliance success based on influence vs loyalty requirement
         double successChance = influence / (target.getLoyalty() + 10);
 
-        if (Math.random() < successChance) {
+        if (random.nextDouble() < successChance) {
+            ownAlliances();
             alliances.add(target);
             influence += target.getInfluenceBoost();
-            System.out.println("Alliance formed! Influence increased by " + target.getInfluenceBoost());
+            output.record(NarrationKind.ALLIANCE, target.getName(), target.getInfluenceBoost());
+            GameMetrics.count("alliance.formed");
+            if (output.isEnabled()) output.println("Alliance formed! Influence increased by " + target.getInfluenceBoost());
         } else {
-            System.out.println("Alliance negotiation failed! " + target.getName() + " needs more convincing.");
-            System.out.println("Hint: Increase your influence before trying again.");
+            output.record(NarrationKind.ACTION, "alliance", 0);
+            GameMetrics.count("alliance.refused");
+            if (output.isEnabled()) {
+                output.println("Alliance negotiation failed! " + target.getName() + " needs more convincing.");
+                output.println("Hint: Increase your influence before trying again.");
+            }
         }
     }
 
@@ -134,46 +211,46 @@ public class Player {
      * WARNING: Speeches can backfire and hurt your popularity!
      */
     public void giveSpeech() {
-        System.out.println(name + " gives a campaign speech.");
+        if (output.isEnabled()) output.println(name + " gives a campaign speech.");
 
-        double speechCost = 15.0;
+        double speechCost = rules.getSpeechCost();
         if (money < speechCost) {
-            System.out.println("Not enough money to organize a speech event! Need: $" + speechCost);
+            if (output.isEnabled()) output.println("Not enough money to organize a speech event! Need: $" + speechCost);
             return;
         }
 
         money -= speechCost;
 
         // 20% chance speech backfires
-        if (Math.random() < 0.20) {
-            double damage = 5 + (Math.random() * 15); // 5-20 popularity loss
+        if (random.nextDouble() < 0.20) {
+            double damage = 5 + (random.nextDouble() * 15); // 5-20 popularity loss
             popularity -= damage;
             if (popularity < 0) popularity = 0;
 
-            String[] backfireReasons = {
-                    "You stumbled over your words and appeared unprepared!",
-                    "A heckler disrupted your speech and you lost your composure!",
-                    "Your speech contradicted previous statements - the media noticed!",
-                    "Technical difficulties made you look incompetent!",
-                    "You accidentally insulted a key demographic!",
-                    "Your speech was boring and people walked out!"
-            };
-
-            System.out.println("\n*** SPEECH BACKFIRED! ***");
-            System.out.println(backfireReasons[(int)(Math.random() * backfireReasons.length)]);
-            System.out.println("Popularity decreased by " + String.format("%.1f", damage) + "!");
+            String reason = BACKFIRE_REASONS[random.nextInt(BACKFIRE_REASONS.length)];
             scandalRisk += 5;
-            System.out.println("Scandal risk increased by 5");
+            output.record(NarrationKind.ACTION, "speech", 0);
+            GameMetrics.count("speech.backfire");
+            if (output.isEnabled()) {
+                output.println("\n*** SPEECH BACKFIRED! ***");
+                output.println(reason);
+                output.println("Popularity decreased by " + String.format("%.1f", damage) + "!");
+                output.println("Scandal risk increased by 5");
+            }
         } else {
             // Speech effectiveness varies
-            double effectiveness = 10 + (Math.random() * 15); // 10-25 popularity
+            double effectiveness = 10 + (random.nextDouble() * 15); // 10-25 popularity
             popularity += effectiveness;
 
-            System.out.println("The speech was well received!");
-            System.out.println("Popularity increased by " + String.format("%.1f", effectiveness) + "!");
+            output.record(NarrationKind.ACTION, "speech", 1);
+            GameMetrics.count("speech.success");
+            if (output.isEnabled()) {
+                output.println("The speech was well received!");
+                output.println("Popularity increased by " + String.format("%.1f", effectiveness) + "!");
+            }
         }
 
-        System.out.println("Speech cost: $" + speechCost);
+        if (output.isEnabled()) output.println("Speech cost: $" + speechCost);
     }
 
     /**
@@ -183,11 +260,11 @@ public class Player {
      * @param opponent the opponent to sabotage
      */
     public void sabotage(Opponent opponent) {
-        System.out.println(name + " attempts to sabotage " + opponent.getName());
+        if (output.isEnabled()) output.println(name + " attempts to sabotage " + opponent.getName());
 
-        double sabotageCost = 30.0;
+        double sabotageCost = rules.getSabotageCost();
         if (money < sabotageCost) {
-            System.out.println("Not enough money to execute sabotage! Need: $" + sabotageCost);
+            if (output.isEnabled()) output.println("Not enough money to execute sabotage! Need: $" + sabotageCost);
             return;
         }
 
@@ -196,20 +273,26 @@ public class Player {
         // Sabotage success chance
         double successChance = 0.5 + (influence / 150.0);
 
-        if (Math.random() < successChance) {
+        if (random.nextDouble() < successChance) {
             opponent.reactToSabotage();
             scandalRisk += 25;
             popularity += 5;
-            System.out.println("Sabotage successful! Cost: $" + sabotageCost);
+            output.record(NarrationKind.ACTION, "sabotage", 1);
+            GameMetrics.count("sabotage.success");
+            if (output.isEnabled()) output.println("Sabotage successful! Cost: $" + sabotageCost);
         } else {
             scandalRisk += 40;
             popularity -= 20;
-            System.out.println("Sabotage backfired! You've been exposed!");
-            System.out.println("Cost: $" + sabotageCost);
+            output.record(NarrationKind.ACTION, "sabotage", 0);
+            GameMetrics.count("sabotage.backfire");
+            if (output.isEnabled()) {
+                output.println("Sabotage backfired! You've been exposed!");
+                output.println("Cost: $" + sabotageCost);
+            }
         }
 
         if (scandalRisk > 100) scandalRisk = 100;
-        System.out.println("Scandal risk: " + String.format("%.1f", scandalRisk));
+        if (output.isEnabled()) output.println("Scandal risk: " + String.format("%.1f", scandalRisk));
     }
 
     /**
@@ -217,18 +300,22 @@ public class Player {
      * Costs money but helps maintain reputation.
      */
     public void manageMedia() {
-        System.out.println(name + " is managing the media...");
+        if (output.isEnabled()) output.println(name + " is managing the media...");
 
-        double mediaCost = 15.0;
+        double mediaCost = rules.getMediaCost();
         if (money >= mediaCost) {
             money -= mediaCost;
             popularity += 4;
             scandalRisk -= 8;
             if (scandalRisk < 0) scandalRisk = 0;
-            System.out.println("Media managed successfully!");
-            System.out.println("Cost: $" + mediaCost + " | Popularity +4 | Scandal Risk -8");
-        } else {
-            System.out.println("Not enough money to manage media! Need: $" + mediaCost);
+            output.record(NarrationKind.ACTION, "media", 1);
+            GameMetrics.count("media.managed");
+            if (output.isEnabled()) {
+                output.println("Media managed successfully!");
+                output.println("Cost: $" + mediaCost + " | Popularity +4 | Scandal Risk -8");
+            }
+        } else if (output.isEnabled()) {
+            output.println("Not enough money to manage media! Need: $" + mediaCost);
         }
     }
 
@@ -239,11 +326,14 @@ public class Player {
      */
     public void takeItem(Item item) {
         if (inventory.size() >= 10) {
-            System.out.println("Inventory full! Drop something first.");
+            output.println("Inventory full! Drop something first.");
             return;
         }
+        ownInventory();
         inventory.add(item);
-        System.out.println(name + " picked up " + item.getName());
+        inventoryIndex.add(item);
+        output.record(NarrationKind.ITEM_TAKEN, item.getName(), item.getValue());
+        if (output.isEnabled()) output.println(name + " picked up " + item.getName());
     }
 
     /**
@@ -252,36 +342,37 @@ public class Player {
      * @param item the item to drop
      */
     public void dropItem(Item item) {
-        inventory.remove(item);
-        System.out.println(name + " dropped " + item.getName());
+        if (inventory.contains(item)) {
+            ownInventory();
+            inventory.remove(item);
+            inventoryIndex.remove(item, inventory);
+        }
+        output.record(NarrationKind.ITEM_DROPPED, item.getName(), item.getValue());
+        if (output.isEnabled()) output.println(name + " dropped " + item.getName());
     }
 
     /**
-     * Finds an item in the player's inventory by name.
+     * Finds an item in the player's inventory by name, ignoring case.
      *
      * @param itemName the name of the item to find
      * @return the Item object or null if not found
      */
     public Item findInventoryItem(String itemName) {
-        for (Item i : inventory) {
-            if (i.getName().equalsIgnoreCase(itemName)) {
-                return i;
-            }
-        }
-        return null;
+        return inventoryIndex.find(itemName);
     }
 
     /**
-     * Uses an item from inventory.
+     * Uses an item from inventory. Outside a game there are no opponents,
+     * so evidence only affects the player.
      *
      * @param itemName the name of the item to use
      */
     public void useItem(String itemName) {
         Item item = findInventoryItem(itemName);
         if (item != null) {
-            item.use(this);
-        } else {
-            System.out.println("Item not found: " + itemName);
+            item.use(this, List.of(), random);
+        } else if (output.isEnabled()) {
+            output.println("Item not found: " + itemName);
         }
     }
 
@@ -294,7 +385,8 @@ public class Player {
         this.popularity += amount;
         if (popularity > 100) popularity = 100;
         if (popularity < 0) popularity = 0;
-        System.out.println(name + " popularity: " + String.format("%.1f", popularity) + "%");
+        output.record(NarrationKind.POPULARITY, name, popularity);
+        if (output.isEnabled()) output.println(name + " popularity: " + String.format("%.1f", popularity) + "%");
     }
 
     /**
@@ -305,28 +397,88 @@ public class Player {
     public void addMoney(double amount) {
         this.money += amount;
         if (money < 0) money = 0;
+        output.record(NarrationKind.MONEY, name, money);
+    }
+
+    /**
+     * Adds or removes influence.
+     *
+     * @param amount the amount to add (positive) or subtract (negative)
+     */
+    public void addInfluence(double amount) {
+        this.influence += amount;
+        if (influence < 0) influence = 0;
+        output.record(NarrationKind.INFLUENCE, name, influence);
+    }
+
+    /**
+     * Raises or lowers the scandal risk, which stays between 0 and 100.
+     *
+     * @param amount the amount to add (positive) or subtract (negative)
+     */
+    public void addScandalRisk(double amount) {
+        this.scandalRisk += amount;
+        if (scandalRisk > 100) scandalRisk = 100;
+        if (scandalRisk < 0) scandalRisk = 0;
+        output.record(NarrationKind.SCANDAL_RISK, name, scandalRisk);
     }
 
     /**
      * Displays the player's current statistics.
      */
     public void updateStats() {
-        System.out.println("\n========== STATS ==========");
-        System.out.println("Name: " + name);
-        System.out.println("Character Type: " + type);
-        System.out.println("Money: $" + String.format("%.2f", money));
-        System.out.println("Popularity: " + String.format("%.1f", popularity) + "%");
-        System.out.println("Influence: " + String.format("%.1f", influence));
-        System.out.println("Scandal Risk: " + String.format("%.1f", scandalRisk) + "%");
-        System.out.println("Allies: " + alliances.size());
+        if (!output.isEnabled()) return;
+
+        output.println("\n========== STATS ==========");
+        output.println("Name: " + name);
+        output.println("Character Type: " + type);
+        output.println("Money: $" + String.format("%.2f", money));
+        output.println("Popularity: " + String.format("%.1f", popularity) + "%");
+        output.println("Influence: " + String.format("%.1f", influence));
+        output.println("Scandal Risk: " + String.format("%.1f", scandalRisk) + "%");
+        output.println("Allies: " + alliances.size());
 
         if (!alliances.isEmpty()) {
-            System.out.println("\nCurrent Allies:");
+            output.println("\nCurrent Allies:");
             for (Ally ally : alliances) {
-                System.out.println("  - " + ally.getName() + " (Influence: +" + ally.getInfluenceBoost() + ")");
+                output.println("  - " + ally.getName() + " (Influence: +" + ally.getInfluenceBoost() + ")");
             }
         }
-        System.out.println("===========================\n");
+        output.println("===========================\n");
+    }
+
+    /**
+     * Replaces the player's identity, rules, stats, alliances and inventory with those of a saved game.
+     *
+     * @param name the name
+     * @param type the character type
+     * @param rules the rules the saved game was played by
+     * @param money the money
+     * @param popularity the popularity
+     * @param influence the influence
+     * @param scandalRisk the scandal risk
+     * @param alliances the allies, in the order they joined
+     * @param inventory the items carried, in the order they were taken
+     */
+    void restore(String name, CharacterType type, GameRules rules, double money, double popularity,
+                 double influence, double scandalRisk, List<Ally> alliances, List<Item> inventory) {
+        this.name = name;
+        this.type = type;
+        this.rules = rules;
+        this.money = money;
+        this.popularity = popularity;
+        this.influence = influence;
+        this.scandalRisk = scandalRisk;
+        ownAlliances();
+        ownInventory();
+        this.alliances.clear();
+        this.alliances.addAll(alliances);
+        this.inventory.clear();
+        this.inventoryIndex.clear();
+        for (Item item : inventory) {
+            this.inventory.add(item);
+            this.inventoryIndex.add(item);
+        }
     }
 
     // Getters
@@ -368,15 +520,27 @@ public class Player {
 
     /**
      * Gets the list of allied characters.
-     * @return a new ArrayList containing all allies
+     * @return a read-only view of all allies
+     */
+    public List<Ally> getAlliances() { return alliancesView; }
+
+    /**
+     * Gets the number of allies without building a list.
+     * @return the number of allies
      */
-    public List<Ally> getAlliances() { return new ArrayList<>(alliances); }
+    public int allianceCount() { return alliances.size(); }
 
     /**
      * Gets the player's inventory.
-     * @return a new ArrayList containing all items
+     * @return a read-only view of all items
      */
-    public List<Item> getInventory() { return new ArrayList<>(inventory); }
+    public List<Item> getInventory() { return inventoryView; }
+
+    /**
+     * Gets the number of items carried without building a list.
+     * @return the number of items in the inventory
+     */
+    public int itemCount() { return inventory.size(); }
 
     /**
      * Gets the player's current location.
@@ -389,4 +553,34 @@ public class Player {
      * @param location the new location
      */
     public void setCurrentLocation(Location location) { this.currentLocation = location; }
-}
\ No newline at end of file
+
+    /**
+     * Gets the sink the player's narration is written to.
+     * @return the OutputSink
+     */
+    public OutputSink getOutput() { return output; }
+
+    /**
+     * Sets the sink the player's narration is written to.
+     * @param output the new OutputSink
+     */
+    public void setOutput(OutputSink output) { this.output = output; }
+
+    /**
+     * Gets the random source used for the player's actions.
+     * @return the SessionRandom
+     */
+    public SessionRandom getRandom() { return random; }
+
+    /**
+     * Sets the random source used for the player's actions.
+     * @param random the session's SessionRandom
+     */
+    public void setRandom(SessionRandom random) { this.random = random; }
+
+    /**
+     * Gets the rules this player's game is played by.
+     * @return the balance constants
+     */
+    public GameRules getRules() { return rules; }
+}
@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bot strategy that picks a random legal-looking action each step.
+ * Used by the batch simulator as a baseline player for balance testing.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class RandomBotStrategy implements BotStrategy {
+    private static final String[] DIRECTIONS = {"north", "south", "east", "west"};
+
+    private double endTurnChance;
+
+    /**
+     * Constructs a RandomBotStrategy that ends its turn 30% of the time.
+     */
+    public RandomBotStrategy() {
+        this(0.3);
+    }
+
+    /**
+     * Constructs a RandomBotStrategy with a custom chance of ending the turn.
+     *
+     * @param endTurnChance probability (0-1) of choosing "end" on any step
+     */
+    public RandomBotStrategy(double endTurnChance) {
+        this.endTurnChance = endTurnChance;
+    }
+
+    @Override
+    public String nextCommand(GameManager game, SessionRandom random) {
+        if (random.nextDouble() < endTurnChance) {
+            return "end";
+        }
+
+        Player player = game.getPlayer();
+        Location location = game.getCurrentLocation();
+        List<String> options = new ArrayList<>();
+
+        options.add("speech");
+        options.add("media");
+        options.add("move " + DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+
+        for (Item item : location.getItems()) {
+            options.add("take " + item.getName());
+        }
+        for (Item item : player.getInventory()) {
+            options.add("use " + item.getName());
+        }
+        for (Map.Entry<String, String> npc : location.getNPCs().entrySet()) {
+            if (npc.getValue().equals("neutral")) {
+                options.add("talk " + npc.getKey());
+            }
+        }
+        for (Ally ally : game.getAvailableAllies()) {
+            options.add("ally " + ally.getName());
+        }
+        List<Opponent> opponents = game.getOpponents();
+        if (!opponents.isEmpty()) {
+            Opponent target = opponents.get(random.nextInt(opponents.size()));
+            options.add("bribe " + target.getName());
+            options.add("sabotage " + target.getName());
+        }
+
+        return options.get(random.nextInt(options.size()));
+    }
+}
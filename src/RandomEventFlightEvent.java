@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a random game event being applied by Event.trigger().
+ *
+ * @author Usman
+ * @version 1.0
+ */
+@Name("democraticprocess.RandomEvent")
+@Label("Random Event")
+@Description("A random game event and its impacts")
+@Category({"Democratic Process", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public class RandomEventFlightEvent extends jdk.jfr.Event {
+    @Label("Event")
+    String name;
+
+    @Label("Popularity Impact")
+    double popularityImpact;
+
+    @Label("Scandal Risk Impact")
+    double scandalRiskImpact;
+}
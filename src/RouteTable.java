@@ -0,0 +1,219 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest routes between locations, as a next-hop table over a WorldGraph.
+ *
+ * The table has one row per destination. A row holds, for every location,
+ * which of its exits is the first step of a shortest walk to that destination,
+ * so a whole route can be followed from a single row. Exits are one-way, so
+ * each row is built by a breadth-first search from the destination over the
+ * reversed exits.
+ *
+ * Rows are built the first time a destination is asked for and kept until the
+ * memory budget is used up; after that, further rows are computed but not kept.
+ * precomputeAll() builds every row up front in parallel.
+ * One table is shared by all sessions of a world (see WorldTemplate.getRoutes()).
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class RouteTable {
+    /** Default memory budget for cached rows */
+    public static final long DEFAULT_BUDGET_BYTES = 64L << 20;
+
+    private static final byte NO_ROUTE = -1;
+    private static final byte DESTINATION = -2;
+
+    private WorldGraph graph;
+    private int[] reverseOffsets;
+    private int[] reverseEdges;
+    private int[] reverseSources;
+    private AtomicReferenceArray<byte[]> rows;
+    private AtomicInteger cachedRows;
+    private int maxRows;
+
+    /**
+     * Constructs a RouteTable with the default memory budget.
+     *
+     * @param graph the world's adjacency
+     */
+    public RouteTable(WorldGraph graph) {
+        this(graph, DEFAULT_BUDGET_BYTES);
+    }
+
+    /**
+     * Constructs a RouteTable that caches at most budgetBytes of rows.
+     *
+     * @param graph the world's adjacency
+     * @param budgetBytes memory allowed for cached rows
+     */
+    public RouteTable(WorldGraph graph, long budgetBytes) {
+        int count = graph.getLocationCount();
+        for (int id = 0; id < count; id++) {
+            if (graph.degree(id) > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Location " + id + " has more than "
+                        + Byte.MAX_VALUE + " exits");
+            }
+        }
+
+        this.graph = graph;
+        this.rows = new AtomicReferenceArray<>(count);
+        this.cachedRows = new AtomicInteger();
+        this.maxRows = (int) Math.max(1, Math.min(count, budgetBytes / Math.max(1, count)));
+        buildReverse();
+    }
+
+    /**
+     * Builds the reversed adjacency: for each location, the edges that lead into it
+     * and the locations they leave from.
+     */
+    private void buildReverse() {
+        int count = graph.getLocationCount();
+        reverseOffsets = new int[count + 1];
+        for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+            reverseOffsets[graph.target(edge) + 1]++;
+        }
+        for (int id = 0; id < count; id++) {
+            reverseOffsets[id + 1] += reverseOffsets[id];
+        }
+
+        int[] fill = reverseOffsets.clone();
+        reverseEdges = new int[graph.getEdgeCount()];
+        reverseSources = new int[graph.getEdgeCount()];
+        for (int id = 0; id < count; id++) {
+            for (int edge = graph.edgeStart(id); edge < graph.edgeEnd(id); edge++) {
+                int slot = fill[graph.target(edge)]++;
+                reverseEdges[slot] = edge;
+                reverseSources[slot] = id;
+            }
+        }
+    }
+
+    /**
+     * Gets the first step of a shortest route.
+     *
+     * @param from the starting location id
+     * @param to the destination location id
+     * @return the WorldGraph edge to take, or -1 if from is to or there is no route
+     */
+    public int nextHop(int from, int to) {
+        byte exit = row(to)[from];
+        return exit < 0 ? -1 : graph.edgeStart(from) + exit;
+    }
+
+    /**
+     * Gets the locations along a shortest route.
+     *
+     * @param from the starting location id
+     * @param to the destination location id
+     * @return the location ids visited after from, ending with to; empty if from
+     *         is to, or null if there is no route
+     */
+    public int[] route(int from, int to) {
+        byte[] row = row(to);
+        if (from != to && row[from] == NO_ROUTE) return null;
+
+        int length = 0;
+        for (int at = from; at != to; at = graph.target(graph.edgeStart(at) + row[at])) {
+            length++;
+        }
+        int[] route = new int[length];
+        int at = from;
+        for (int i = 0; i < length; i++) {
+            at = graph.target(graph.edgeStart(at) + row[at]);
+            route[i] = at;
+        }
+        return route;
+    }
+
+    /**
+     * Builds and caches the rows of every destination, in parallel, as far as
+     * the memory budget allows.
+     *
+     * @return the number of rows now cached
+     */
+    public int precomputeAll() {
+        IntStream.range(0, Math.min(maxRows, graph.getLocationCount())).parallel().forEach(this::row);
+        return cachedRows.get();
+    }
+
+    /**
+     * Gets the row of a destination, building it if needed.
+     *
+     * @param to the destination location id
+     * @return for each location, the index of its exit towards to (within its own exits)
+     */
+    private byte[] row(int to) {
+        byte[] row = rows.get(to);
+        if (row != null) return row;
+
+        row = search(to);
+        if (cachedRows.get() < maxRows) {
+            byte[] existing = rows.compareAndExchange(to, null, row);
+            if (existing != null) return existing;
+            cachedRows.incrementAndGet();
+        }
+        return row;
+    }
+
+    /**
+     * Breadth-first search from a destination over the reversed exits.
+     *
+     * @param to the destination location id
+     * @return the destination's row
+     */
+    private byte[] search(int to) {
+        int count = graph.getLocationCount();
+        byte[] row = new byte[count];
+        Arrays.fill(row, NO_ROUTE);
+        row[to] = DESTINATION;
+
+        int[] queue = new int[count];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = to;
+        while (head < tail) {
+            int at = queue[head++];
+            for (int i = reverseOffsets[at]; i < reverseOffsets[at + 1]; i++) {
+                int source = reverseSources[i];
+                if (row[source] != NO_ROUTE) continue;
+                row[source] = (byte) (reverseEdges[i] - graph.edgeStart(source));
+                queue[tail++] = source;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Gets the number of rows currently cached.
+     *
+     * @return the cached row count
+     */
+    public int getCachedRows() {
+        return cachedRows.get();
+    }
+
+    /**
+     * Gets the most rows the memory budget allows to be cached.
+     *
+     * @return the row limit
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Estimates the memory held by the table: the reversed adjacency, the row
+     * slots and every cached row.
+     *
+     * @return size in bytes
+     */
+    public long getMemoryBytes() {
+        int count = graph.getLocationCount();
+        return 4L * reverseOffsets.length + 8L * reverseEdges.length + 4L * count
+                + (long) cachedRows.get() * (16 + count);
+    }
+}
@@ -0,0 +1,247 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Plays games from command scripts instead of the keyboard.
+ *
+ * A script is a text file with one command per line; blank lines and lines
+ * starting with '#' are skipped. The player's name, character type and seed
+ * come from the runner, so nothing is prompted for and the same script and
+ * seed always play the same game. Scripts are streamed through a
+ * ChannelLineReader, so a script of any length is read in 64 KB chunks and
+ * never held in memory. A directory of scripts is played concurrently, one
+ * fork-join task per script.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class ScriptRunner {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int COMMANDS_PER_FLUSH = 256;
+
+    private WorldTemplate world;
+    private String playerName;
+    private CharacterType characterType;
+    private long seed;
+    private GameJournal journal;
+
+    /**
+     * How one script played out.
+     */
+    public static class Result {
+        private String script;
+        private GameManager game;
+        private long commands;
+        private boolean stoppedEarly;
+
+        /**
+         * Gets the script's name.
+         * @return the file name, or "-" for standard input
+         */
+        public String getScript() { return script; }
+
+        /**
+         * Gets the game in its final state.
+         * @return the game
+         */
+        public GameManager getGame() { return game; }
+
+        /**
+         * Gets the number of commands played.
+         * @return the command count, not counting skipped lines
+         */
+        public long getCommands() { return commands; }
+
+        /**
+         * Gets whether the game ended before the script did.
+         * @return true if lines were left unplayed
+         */
+        public boolean isStoppedEarly() { return stoppedEarly; }
+
+        /**
+         * Describes the result in one line.
+         * @return the summary
+         */
+        public String summarize() {
+            Player player = game.getPlayer();
+            return String.format("%s: %s on turn %d after %d commands%s (popularity %.1f, money %.2f, allies %d)",
+                    script, game.getOutcome(), game.getCurrentTurn(), commands,
+                    stoppedEarly ? ", rest of script skipped" : "",
+                    player.getPopularity(), player.getMoney(), player.allianceCount());
+        }
+    }
+
+    /**
+     * Constructs a ScriptRunner.
+     *
+     * @param world the world every script is played in
+     * @param playerName the player's name
+     * @param characterType the character type played
+     * @param seed the seed every script's game starts from
+     */
+    public ScriptRunner(WorldTemplate world, String playerName, CharacterType characterType, long seed) {
+        this.world = world;
+        this.playerName = playerName;
+        this.characterType = characterType;
+        this.seed = seed;
+    }
+
+    /**
+     * Records every scripted game to a journal.
+     *
+     * @param journal the journal, or null for none
+     */
+    public void setJournal(GameJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Plays one script.
+     *
+     * @param name the script's name, for the result
+     * @param script where the commands are read from; not closed
+     * @param output where the narration is written, or null for none
+     * @return how the script played out
+     * @throws IOException if the script cannot be read, has a line over 64 KB, or the output or
+     *         journal cannot be written
+     */
+    public Result run(String name, ReadableByteChannel script, WritableByteChannel output) throws IOException {
+        ChannelSink sink = output == null ? null : new ChannelSink(output);
+        OutputSink out = sink == null ? NullSink.INSTANCE : sink;
+        GameManager game = new GameManager(new Player(playerName, characterType), out,
+                new SessionRandom(seed), world);
+        SessionJournal session = journal == null ? null : journal.begin(game);
+        game.printIntro();
+        game.printWelcome();
+
+        Result result = new Result();
+        result.script = name;
+        result.game = game;
+        ChannelLineReader in = new ChannelLineReader(script, READ_BUFFER_BYTES, MAX_LINE_BYTES);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (isSkipped(line)) continue;
+                if (!game.isAcceptingCommands()) {
+                    result.stoppedEarly = true;
+                    break;
+                }
+                game.executeCommand(line);
+                result.commands++;
+                if (sink != null && result.commands % COMMANDS_PER_FLUSH == 0 && !sink.flush()) {
+                    throw new IOException("Could not write the output of " + name);
+                }
+            }
+        } finally {
+            if (session != null) session.end(game);
+        }
+        if (sink != null && !sink.flush()) throw new IOException("Could not write the output of " + name);
+        return result;
+    }
+
+    /**
+     * Plays a script file, or standard input for "-".
+     *
+     * @param script the script
+     * @param output where the narration is written, or null for none
+     * @return how the script played out
+     * @throws IOException if the script cannot be read or the output cannot be written
+     */
+    public Result run(Path script, WritableByteChannel output) throws IOException {
+        if (script.toString().equals("-")) {
+            return run("-", Channels.newChannel(System.in), output);
+        }
+        try (FileChannel in = FileChannel.open(script, StandardOpenOption.READ)) {
+            return run(script.getFileName().toString(), in, output);
+        }
+    }
+
+    /**
+     * Plays every file in a directory concurrently, in a fresh game each.
+     *
+     * @param directory the scripts
+     * @param transcripts where to write each script's narration as NAME.out, or null for none
+     * @return the results, in file name order
+     * @throws IOException if a script cannot be read or a transcript cannot be written
+     */
+    public List<Result> runDirectory(Path directory, Path transcripts) throws IOException {
+        List<Path> scripts;
+        try (Stream<Path> files = Files.list(directory)) {
+            scripts = files.filter(Files::isRegularFile).sorted().toList();
+        }
+        if (transcripts != null) Files.createDirectories(transcripts);
+
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>(scripts.size());
+        for (Path script : scripts) {
+            tasks.add(ForkJoinTask.adapt(() -> runWithTranscript(script, transcripts)).fork());
+        }
+        List<Result> results = new ArrayList<>(tasks.size());
+        try {
+            for (ForkJoinTask<Result> task : tasks) {
+                results.add(task.join());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return results;
+    }
+
+    /**
+     * Plays one script of a directory, writing its transcript if asked to.
+     *
+     * @param script the script
+     * @param transcripts the transcript directory, or null for none
+     * @return how the script played out
+     */
+    private Result runWithTranscript(Path script, Path transcripts) {
+        try {
+            if (transcripts == null) return run(script, null);
+            Path transcript = transcripts.resolve(script.getFileName() + ".out");
+            try (FileChannel out = FileChannel.open(transcript, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                return run(script, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets a channel to standard output that bypasses System.out's locking and encoding.
+     * It is not closed, since the process still needs its standard output.
+     *
+     * @return the channel
+     */
+    public static WritableByteChannel standardOutput() {
+        return new FileOutputStream(FileDescriptor.out).getChannel();
+    }
+
+    /**
+     * Returns whether a script line is not a command.
+     *
+     * @param line the line
+     * @return true for blank lines and comments
+     */
+    private static boolean isSkipped(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '#') return true;
+            if (c != ' ' && c != '\t') return false;
+        }
+        return true;
+    }
+}
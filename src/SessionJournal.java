@@ -0,0 +1,331 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records one game session into a GameJournal.
+ *
+ * Commands are encoded into the session's own buffer as they are recorded and
+ * the buffer is handed to the shared journal with flush() or commit(), so
+ * recording does no I/O. A command is encoded as its registry id and its
+ * arguments, so a command without arguments takes two bytes. Texts are written
+ * inline, which needs no lookup shared with other sessions. Not thread-safe;
+ * each session has its own, and its buffer goes back to the journal when the
+ * game ends.
+ *
+ * Record kinds and their payloads:
+ * <pre>
+ *   START    seed (long), character type (text), player name (text), world location count (int),
+ *            the rules: how many constants there are and how many differ from the standard
+ *            rules (varints), then each differing one's index (varint) and value (double),
+ *            and the electorate: voters per district (varint, 0 if none) and seed (long)
+ *   COMMANDS the commands accepted since the previous flush, each a varint command id
+ *            and its arguments (text)
+ *   END      outcome (text), turn (int), popularity, money, influence, scandal risk (doubles),
+ *            location id, alliance count, item count (ints)
+ *   NAMES    the command count (varint) and each command's name (text) in id order; written
+ *            by GameJournal each time it opens the file
+ * </pre>
+ * A text is a varint byte count followed by the UTF-8 bytes.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class SessionJournal {
+    static final byte START = 1;
+    static final byte COMMANDS = 2;
+    static final byte END = 3;
+    static final byte NAMES = 4;
+    static final int RECORD_HEADER_SIZE = 13;
+
+    private GameJournal journal;
+    private long gameId;
+    private byte[] buffer;
+    private int size;
+    private int recordStart;
+    private boolean recordingCommands;
+
+    /**
+     * Constructs a SessionJournal; use GameJournal.begin().
+     *
+     * @param journal the shared journal
+     * @param gameId the id written with every record of this game
+     * @param buffer the buffer to record into, empty or left over from an earlier session
+     */
+    SessionJournal(GameJournal journal, long gameId, byte[] buffer) {
+        this.journal = journal;
+        this.gameId = gameId;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Records how a game starts: everything replay needs besides the commands.
+     *
+     * @param game the game, before its first command
+     */
+    void start(GameManager game) {
+        Player player = game.getPlayer();
+        beginRecord(START);
+        putLong(game.getRandom().getSeed());
+        putText(player.getType().name());
+        putText(player.getName());
+        putInt(game.getWorld().getLocationCount());
+        putRules(player.getRules());
+        Electorate electorate = game.getWorld().getElectorate();
+        if (electorate == null) {
+            putVarint(0);
+        } else {
+            putVarint(electorate.getVotersPerDistrict());
+            putLong(electorate.getSeed());
+        }
+        endRecord();
+    }
+
+    /**
+     * Writes the rules a game is played by as their differences from the standard
+     * rules, so a standard game spends two bytes on them.
+     *
+     * @param rules the game's rules
+     */
+    private void putRules(GameRules rules) {
+        GameRules standard = GameRules.standard();
+        int count = GameRules.getCount();
+        putVarint(count);
+        int changed = 0;
+        if (rules != standard) {
+            for (int i = 0; i < count; i++) {
+                if (rules.getValue(i) != standard.getValue(i)) changed++;
+            }
+        }
+        putVarint(changed);
+        if (changed == 0) return;
+        for (int i = 0; i < count; i++) {
+            if (rules.getValue(i) != standard.getValue(i)) {
+                putVarint(i);
+                putLong(Double.doubleToRawLongBits(rules.getValue(i)));
+            }
+        }
+    }
+
+    /**
+     * Encodes the names of a registry's commands, so ids can be turned back into commands.
+     *
+     * @param registry the registry whose ids the following records use
+     * @return the NAMES record
+     */
+    static ByteBuffer names(CommandRegistry registry) {
+        SessionJournal names = new SessionJournal(null, 0, new byte[256]);
+        List<GameCommand> all = registry.getCommands();
+        names.beginRecord(NAMES);
+        names.putVarint(all.size());
+        for (GameCommand command : all) {
+            names.putText(command.getName());
+        }
+        names.endRecord();
+        return ByteBuffer.wrap(names.buffer, 0, names.size);
+    }
+
+    /**
+     * Records a command the game accepted. Does no I/O and takes no lock.
+     *
+     * @param command the command, from the standard registry
+     * @param args its trimmed arguments (empty if none)
+     */
+    public void record(GameCommand command, String args) {
+        if (!recordingCommands) {
+            beginRecord(COMMANDS);
+            recordingCommands = true;
+        }
+        putVarint(command.getId());
+        putText(args);
+    }
+
+    /**
+     * Closes the record of the commands recorded since the last flush, if there are any.
+     */
+    private void endCommands() {
+        if (!recordingCommands) return;
+        endRecord();
+        recordingCommands = false;
+    }
+
+    /**
+     * Records the game's final state, hands the session's records to the journal
+     * and stops recording the game.
+     *
+     * @param game the finished (or abandoned) game
+     * @throws IOException if the journal had to write and failed
+     */
+    public void end(GameManager game) throws IOException {
+        Player player = game.getPlayer();
+        endCommands();
+        beginRecord(END);
+        putText(game.getOutcome().name());
+        putInt(game.getCurrentTurn());
+        putLong(Double.doubleToRawLongBits(player.getPopularity()));
+        putLong(Double.doubleToRawLongBits(player.getMoney()));
+        putLong(Double.doubleToRawLongBits(player.getInfluence()));
+        putLong(Double.doubleToRawLongBits(player.getScandalRisk()));
+        putInt(game.getCurrentLocation().getId());
+        putInt(player.allianceCount());
+        putInt(player.itemCount());
+        endRecord();
+        flush();
+        game.setJournal(null);
+        journal.recycle(buffer);
+        buffer = null;
+    }
+
+    /**
+     * Hands the records made so far to the journal without waiting for them to be written.
+     *
+     * @return the journal position after this session's records
+     * @throws IOException if the journal had to write and failed
+     */
+    public long flush() throws IOException {
+        endCommands();
+        long position = journal.append(buffer, size);
+        size = 0;
+        return position;
+    }
+
+    /**
+     * Hands the records made so far to the journal and waits until they are written.
+     *
+     * @throws IOException if the write fails
+     */
+    public void commit() throws IOException {
+        journal.commit(flush());
+    }
+
+    /**
+     * Gets the id this game's records carry.
+     *
+     * @return the game id
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Starts a record; its length is filled in by endRecord().
+     *
+     * @param kind the record kind
+     */
+    private void beginRecord(byte kind) {
+        ensure(RECORD_HEADER_SIZE);
+        recordStart = size;
+        buffer[size] = kind;
+        setLong(size + 1, gameId);
+        size += RECORD_HEADER_SIZE;
+    }
+
+    /**
+     * Fills in the length of the record started last.
+     */
+    private void endRecord() {
+        setInt(recordStart + 9, size - recordStart - RECORD_HEADER_SIZE);
+    }
+
+    /**
+     * Stores a big-endian int at a position already in the buffer.
+     *
+     * @param at the position
+     * @param value the value
+     */
+    private void setInt(int at, int value) {
+        buffer[at] = (byte) (value >>> 24);
+        buffer[at + 1] = (byte) (value >>> 16);
+        buffer[at + 2] = (byte) (value >>> 8);
+        buffer[at + 3] = (byte) value;
+    }
+
+    /**
+     * Stores a big-endian long at a position already in the buffer.
+     *
+     * @param at the position
+     * @param value the value
+     */
+    private void setLong(int at, long value) {
+        setInt(at, (int) (value >>> 32));
+        setInt(at + 4, (int) value);
+    }
+
+    /**
+     * Writes a big-endian int.
+     *
+     * @param value the value
+     */
+    private void putInt(int value) {
+        ensure(4);
+        setInt(size, value);
+        size += 4;
+    }
+
+    /**
+     * Writes a big-endian long.
+     *
+     * @param value the value
+     */
+    private void putLong(long value) {
+        ensure(8);
+        setLong(size, value);
+        size += 8;
+    }
+
+    /**
+     * Writes a varint: seven bits per byte, low bits first.
+     *
+     * @param value the value, not negative
+     */
+    private void putVarint(int value) {
+        ensure(5);
+        while (value >= 0x80) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    /**
+     * Writes a text: its UTF-8 byte count (varint) and bytes. ASCII text, which is
+     * nearly all of it, is copied char by char without encoding it first.
+     *
+     * @param text the string
+     */
+    private void putText(String text) {
+        int length = text.length();
+        int start = size;
+        putVarint(length);
+        ensure(length);
+        byte[] out = buffer;
+        int at = size;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+                size = start;
+                putVarint(encoded.length);
+                ensure(encoded.length);
+                System.arraycopy(encoded, 0, buffer, size, encoded.length);
+                size += encoded.length;
+                return;
+            }
+            out[at++] = (byte) c;
+        }
+        size = at;
+    }
+
+    /**
+     * Grows the buffer so that the given number of bytes fit.
+     *
+     * @param bytes the bytes about to be written
+     */
+    private void ensure(int bytes) {
+        if (buffer.length - size < bytes) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+}
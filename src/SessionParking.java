@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Server-owned storage for parked sessions, so a long-running game can leave one
+ * server process and carry on in another.
+ *
+ * Parking a game writes its snapshot to the parking directory under a random
+ * token, which the player uses to resume it on any server process that shares
+ * the directory and plays the same world. Resuming claims the file by renaming
+ * it, so a token can only be resumed once, and deletes it. The directory holds
+ * at most a fixed number of games; past that, parking is refused.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class SessionParking {
+    public static final int DEFAULT_MAX_GAMES = 10_000;
+
+    private static final int TOKEN_BYTES = 12;
+    private static final String SUFFIX = ".dps";
+
+    private Path directory;
+    private int maxGames;
+    private SecureRandom random;
+
+    /**
+     * Constructs a SessionParking over a directory, created on first use.
+     *
+     * @param directory where parked games are kept
+     * @param maxGames how many games the directory may hold
+     */
+    public SessionParking(Path directory, int maxGames) {
+        this.directory = directory;
+        this.maxGames = maxGames;
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * Parks a game: writes its snapshot under a new token. The game itself is
+     * not changed; the caller ends the session.
+     *
+     * @param game the game to park
+     * @return the token to resume it with
+     * @throws IOException if the directory is full or cannot be written
+     */
+    public String park(GameManager game) throws IOException {
+        Files.createDirectories(directory);
+        if (countParked() >= maxGames) {
+            throw new IOException("the server has no room for more parked games");
+        }
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        random.nextBytes(tokenBytes);
+        String token = HexFormat.of().formatHex(tokenBytes);
+
+        Path partial = directory.resolve(token + ".tmp");
+        Files.write(partial, GameSnapshot.save(game));
+        move(partial, directory.resolve(token + SUFFIX));
+        return token;
+    }
+
+    /**
+     * Resumes a parked game and removes it from the directory.
+     *
+     * @param token the token the game was parked under
+     * @param world the world this server plays
+     * @param output where the resumed game narrates to
+     * @return the game, or null if no game is parked under the token
+     * @throws IOException if the parked game cannot be read or belongs to another world;
+     *         it then stays parked
+     */
+    public GameManager resume(String token, WorldTemplate world, OutputSink output) throws IOException {
+        if (!isToken(token)) return null;
+        Path parked = directory.resolve(token + SUFFIX);
+        Path claimed = directory.resolve(token + ".resuming");
+        try {
+            move(parked, claimed);
+        } catch (NoSuchFileException e) {
+            return null; // never parked, or already resumed
+        }
+        try {
+            GameManager game = GameSnapshot.restore(Files.readAllBytes(claimed), world, output);
+            Files.delete(claimed);
+            return game;
+        } catch (IOException | IllegalArgumentException e) {
+            move(claimed, parked);
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Counts the games parked in the directory.
+     */
+    private int countParked() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Renames a file within the directory, atomically where the file system allows.
+     */
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to);
+        }
+    }
+
+    /**
+     * Checks that a token has the form park() gives it, so it cannot name another file.
+     */
+    private static boolean isToken(String token) {
+        if (token.length() != TOKEN_BYTES * 2) return false;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) return false;
+        }
+        return true;
+    }
+}
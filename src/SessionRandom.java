@@ -0,0 +1,188 @@
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-session source of randomness.
+ * Uses the same SplitMix64 algorithm as java.util.SplittableRandom: each game owns
+ * its own generator, so parallel games never contend on a shared one, and a game
+ * started from the same seed with the same commands replays exactly.
+ *
+ * Not thread-safe; use split() to hand an independent stream to another thread.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class SessionRandom {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final AtomicLong SEEDER = new AtomicLong(new SecureRandom().nextLong());
+
+    private long initialSeed;
+    private long seed;
+    private long gamma;
+
+    /**
+     * Constructs a SessionRandom with an unpredictable seed.
+     */
+    public SessionRandom() {
+        this(mix64(SEEDER.getAndAdd(2 * GOLDEN_GAMMA)));
+    }
+
+    /**
+     * Constructs a SessionRandom from a seed.
+     * Two generators with the same seed produce the same sequence.
+     *
+     * @param seed the seed value
+     */
+    public SessionRandom(long seed) {
+        this.initialSeed = seed;
+        this.seed = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Constructs a generator with an explicit internal state (used by split).
+     */
+    private SessionRandom(long seed, long gamma) {
+        this.initialSeed = seed;
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a generator at the same point in the same sequence as this one.
+     * The two produce the same values from here on, independently.
+     *
+     * @return the copy
+     */
+    public SessionRandom copy() {
+        SessionRandom copy = new SessionRandom(seed, gamma);
+        copy.initialSeed = initialSeed;
+        return copy;
+    }
+
+    /**
+     * Gets the seed this generator was created with.
+     *
+     * @return the initial seed
+     */
+    public long getSeed() {
+        return initialSeed;
+    }
+
+    /**
+     * Gets the generator's current position in its sequence, for snapshots.
+     *
+     * @return the internal state
+     */
+    long getState() {
+        return seed;
+    }
+
+    /**
+     * Gets the generator's stream increment, for snapshots.
+     *
+     * @return the gamma value
+     */
+    long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Puts the generator back into a state saved with getSeed(), getState() and getGamma().
+     *
+     * @param initialSeed the seed the generator was created with
+     * @param state the internal state
+     * @param gamma the stream increment, which must be odd
+     */
+    void restore(long initialSeed, long state, long gamma) {
+        this.initialSeed = initialSeed;
+        this.seed = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Returns the next pseudorandom long.
+     *
+     * @return a random long
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Returns a pseudorandom double between 0 (inclusive) and 1 (exclusive).
+     * Drop-in replacement for Math.random().
+     *
+     * @return a random double in [0, 1)
+     */
+    public double nextDouble() {
+        return (mix64(nextSeed()) >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns a pseudorandom int between 0 (inclusive) and bound (exclusive).
+     *
+     * @param bound the upper bound, must be positive
+     * @return a random int in [0, bound)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+            // reject values from the biased tail
+        }
+        return r;
+    }
+
+    /**
+     * Creates a new generator whose stream is independent of this one.
+     * Advances this generator, so splitting is itself deterministic.
+     *
+     * @return the child generator
+     */
+    public SessionRandom split() {
+        return new SessionRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Derives a well-mixed seed for the n-th item of a batch.
+     * Used to give every game in a batch its own reproducible seed.
+     *
+     * @param baseSeed the batch seed
+     * @param index the item number
+     * @return the derived seed
+     */
+    public static long deriveSeed(long baseSeed, long index) {
+        return mix64(baseSeed + GOLDEN_GAMMA * (index + 1));
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
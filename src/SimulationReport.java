@@ -0,0 +1,99 @@
+import java.io.PrintStream;
+
+/**
+ * Aggregated results of a batch of simulated games.
+ * Counts how many games ended with each GameOutcome and how fast they ran.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class SimulationReport {
+    private long[] outcomeCounts;
+    private long games;
+    private long elapsedNanos;
+    private long seed;
+
+    /**
+     * Constructs a new SimulationReport.
+     *
+     * @param outcomeCounts number of games per outcome, indexed by GameOutcome ordinal
+     * @param elapsedNanos wall-clock time taken by the batch
+     * @param seed the batch seed, for reproducing the run
+     */
+    public SimulationReport(long[] outcomeCounts, long elapsedNanos, long seed) {
+        this.outcomeCounts = outcomeCounts.clone();
+        this.elapsedNanos = elapsedNanos;
+        this.seed = seed;
+        for (long count : outcomeCounts) {
+            games += count;
+        }
+    }
+
+    /**
+     * Gets the number of games that ended with the given outcome.
+     *
+     * @param outcome the outcome to look up
+     * @return the number of games
+     */
+    public long getCount(GameOutcome outcome) {
+        return outcomeCounts[outcome.ordinal()];
+    }
+
+    /**
+     * Gets the total number of games played.
+     * @return the game count
+     */
+    public long getGames() { return games; }
+
+    /**
+     * Gets the wall-clock time of the batch.
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * Gets the batch seed.
+     * @return the seed that reproduces this batch
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * Gets the simulation throughput.
+     *
+     * @return games completed per second
+     */
+    public double getGamesPerSecond() {
+        if (elapsedNanos == 0) return 0;
+        return games / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Gets the fraction of games that were won.
+     *
+     * @return win rate between 0 and 1
+     */
+    public double getWinRate() {
+        if (games == 0) return 0;
+        return (double) getCount(GameOutcome.WON) / games;
+    }
+
+    /**
+     * Prints a summary table of the batch.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        out.println("\n========== SIMULATION REPORT ==========");
+        out.println("Games played: " + games);
+        out.println("Seed: " + seed);
+        out.println("Elapsed: " + String.format("%.3f", elapsedNanos / 1_000_000_000.0) + " s");
+        out.println("Throughput: " + String.format("%.1f", getGamesPerSecond()) + " games/s");
+        out.println();
+        for (GameOutcome outcome : GameOutcome.values()) {
+            long count = getCount(outcome);
+            double percent = games == 0 ? 0 : 100.0 * count / games;
+            out.println(String.format("  %-15s %10d  (%5.1f%%)", outcome, count, percent));
+        }
+        out.println("=======================================\n");
+    }
+}
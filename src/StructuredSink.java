@@ -0,0 +1,58 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Output sink that keeps structured events and ignores the text narration.
+ * Useful for analysis tools that want to know what happened rather than read about it.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class StructuredSink implements OutputSink {
+    private List<NarrationRecord> records;
+
+    /**
+     * Constructs an empty StructuredSink.
+     */
+    public StructuredSink() {
+        this.records = new ArrayList<>();
+    }
+
+    @Override
+    public void println(String text) {
+    }
+
+    @Override
+    public void print(String text) {
+    }
+
+    @Override
+    public void println() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void record(NarrationKind kind, String subject, double value) {
+        records.add(new NarrationRecord(kind, subject, value));
+    }
+
+    /**
+     * Gets all recorded events in order.
+     * @return a read-only view of the records
+     */
+    public List<NarrationRecord> getRecords() {
+        return Collections.unmodifiableList(records);
+    }
+
+    /**
+     * Removes all recorded events.
+     */
+    public void clear() {
+        records.clear();
+    }
+}
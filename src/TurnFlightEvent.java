@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for GameManager.endTurn(): opponent moves, alliance
+ * upkeep, the status check and the end-of-turn event roll.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+@Name("democraticprocess.Turn")
+@Label("Turn End")
+@Description("A turn ending, with the opponent moves it made")
+@Category({"Democratic Process", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public class TurnFlightEvent extends jdk.jfr.Event {
+    @Label("Turn")
+    @Description("The turn that starts")
+    int turn;
+
+    @Label("Opponents Updated")
+    int opponentsUpdated;
+
+    @Label("Opponent Popularity Gain")
+    @Description("Popularity added across all opponents")
+    double opponentPopularityGain;
+
+    @Label("Player Popularity Loss")
+    @Description("Popularity the player lost to opponents' attack ads")
+    double playerPopularityLoss;
+
+    @Label("Alliance Upkeep")
+    double allianceUpkeep;
+}
@@ -0,0 +1,326 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A game's running vote totals, per district and overall, for the player and
+ * every opponent, so vote share, lead and rank can be read in constant time
+ * however many voters there are.
+ *
+ * The totals are kept per segment of the Electorate (one district's backers of
+ * one opponent). When a popularity or a district swing changes, only the
+ * segments it affects are recounted, each by one binary search: the player's
+ * popularity touches every segment, an opponent's only its own in each district,
+ * and a swing only its district's. The difference is added to the district and
+ * overall totals. GameManager passes every change on after each command and each
+ * turn, so the totals are current whenever they can be read. check() recounts
+ * everything voter by voter and compares.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class VoteCount {
+    private static final double TOLERANCE = 1e-9; // of the turnout, for rounding in the running sums
+
+    private Electorate electorate;
+    private int opponents;
+    private double playerPopularity;
+    private double[] opponentPopularity;
+    private double[] swing;
+    private double[] segmentPlayerVotes;
+    private double[] districtVotes;
+    private double[] districtTotal; // votes cast per district; fixed, since recounts only move votes within one
+    private double[] votes;
+    private double total;
+    private int leader;
+    private int rank;
+
+    /**
+     * Constructs the totals for a game, counting every segment once.
+     *
+     * @param electorate the world's voters
+     * @param player the player
+     * @param opponents the opponents, in slot order
+     */
+    public VoteCount(Electorate electorate, Player player, List<Opponent> opponents) {
+        this.electorate = electorate;
+        this.opponents = electorate.getOpponentCount();
+        this.playerPopularity = player.getPopularity();
+        this.opponentPopularity = new double[this.opponents];
+        for (int slot = 0; slot < this.opponents; slot++) {
+            opponentPopularity[slot] = opponents.get(slot).getPopularity();
+        }
+        this.swing = new double[electorate.getDistrictCount()];
+        this.segmentPlayerVotes = new double[swing.length * this.opponents];
+        this.districtVotes = new double[swing.length * (this.opponents + 1)];
+        this.districtTotal = new double[swing.length];
+        this.votes = new double[this.opponents + 1];
+        recountAll();
+    }
+
+    /**
+     * Constructs a copy of the totals for a forked game.
+     *
+     * @param original the totals to copy
+     */
+    VoteCount(VoteCount original) {
+        this.electorate = original.electorate;
+        this.opponents = original.opponents;
+        this.playerPopularity = original.playerPopularity;
+        this.opponentPopularity = original.opponentPopularity.clone();
+        this.swing = original.swing.clone();
+        this.segmentPlayerVotes = original.segmentPlayerVotes.clone();
+        this.districtVotes = original.districtVotes.clone();
+        this.districtTotal = original.districtTotal.clone();
+        this.votes = original.votes.clone();
+        this.total = original.total;
+        this.leader = original.leader;
+        this.rank = original.rank;
+    }
+
+    /**
+     * Counts every segment from its sorted leans and rebuilds the totals from them,
+     * which also clears any rounding the running sums have gathered.
+     */
+    private void recountAll() {
+        Arrays.fill(districtVotes, 0);
+        Arrays.fill(districtTotal, 0);
+        Arrays.fill(votes, 0);
+        total = 0;
+        for (int district = 0; district < swing.length; district++) {
+            int row = district * (opponents + 1);
+            for (int slot = 0; slot < opponents; slot++) {
+                int segment = district * opponents + slot;
+                double player = electorate.playerVotes(segment,
+                        Electorate.gap(opponentPopularity[slot], playerPopularity), swing[district]);
+                double all = electorate.segmentVotes(segment);
+                segmentPlayerVotes[segment] = player;
+                districtVotes[row] += player;
+                districtVotes[row + slot + 1] = all - player;
+                districtTotal[district] += all;
+                total += all;
+            }
+            for (int candidate = 0; candidate <= opponents; candidate++) {
+                votes[candidate] += districtVotes[row + candidate];
+            }
+        }
+        rankPlayer();
+    }
+
+    /**
+     * Passes on every popularity that changed since the last update.
+     *
+     * @param player the player
+     * @param opponents the opponents, in slot order
+     */
+    public void update(Player player, List<Opponent> opponents) {
+        setPlayerPopularity(player.getPopularity());
+        for (int slot = 0; slot < this.opponents; slot++) {
+            setOpponentPopularity(slot, opponents.get(slot).getPopularity());
+        }
+    }
+
+    /**
+     * Recounts every segment for a new player popularity.
+     *
+     * @param popularity the player's popularity
+     */
+    public void setPlayerPopularity(double popularity) {
+        if (popularity == playerPopularity) return;
+        playerPopularity = popularity;
+        for (int segment = 0; segment < segmentPlayerVotes.length; segment++) {
+            recount(segment);
+        }
+        rankPlayer();
+    }
+
+    /**
+     * Recounts an opponent's segment in every district for its new popularity.
+     *
+     * @param slot the opponent's slot
+     * @param popularity the opponent's popularity
+     */
+    public void setOpponentPopularity(int slot, double popularity) {
+        if (popularity == opponentPopularity[slot]) return;
+        opponentPopularity[slot] = popularity;
+        for (int segment = slot; segment < segmentPlayerVotes.length; segment += opponents) {
+            recount(segment);
+        }
+        rankPlayer();
+    }
+
+    /**
+     * Recounts a district's segments for its new swing.
+     *
+     * @param district the district id
+     * @param value the district's swing towards the player
+     */
+    public void setSwing(int district, double value) {
+        if (value == swing[district]) return;
+        swing[district] = value;
+        for (int segment = district * opponents; segment < (district + 1) * opponents; segment++) {
+            recount(segment);
+        }
+        rankPlayer();
+    }
+
+    /**
+     * Sets every district's swing from a saved game and recounts.
+     *
+     * @param swings the swings; copied
+     */
+    void restoreSwings(double[] swings) {
+        System.arraycopy(swings, 0, swing, 0, swing.length);
+        recountAll();
+    }
+
+    /**
+     * Recounts one segment and moves the votes that changed hands between the
+     * player and the segment's opponent.
+     *
+     * @param segment the segment, district * opponents + opponent slot
+     */
+    private void recount(int segment) {
+        int district = segment / opponents;
+        int slot = segment % opponents;
+        double player = electorate.playerVotes(segment,
+                Electorate.gap(opponentPopularity[slot], playerPopularity), swing[district]);
+        double change = player - segmentPlayerVotes[segment];
+        if (change == 0) return;
+        segmentPlayerVotes[segment] = player;
+        int row = district * (opponents + 1);
+        districtVotes[row] += change;
+        districtVotes[row + slot + 1] -= change;
+        votes[0] += change;
+        votes[slot + 1] -= change;
+    }
+
+    /**
+     * Finds the strongest opponent and the player's place after a change.
+     */
+    private void rankPlayer() {
+        leader = 0;
+        rank = 1;
+        for (int slot = 0; slot < opponents; slot++) {
+            if (votes[slot + 1] > votes[leader + 1]) leader = slot;
+            if (votes[slot + 1] > votes[0]) rank++;
+        }
+    }
+
+    /**
+     * Recounts everything voter by voter from the game's current state and compares
+     * it with the running totals, district by district and overall.
+     *
+     * @param player the player
+     * @param opponents the opponents, in slot order
+     * @return the largest difference found, in votes
+     * @throws IllegalStateException if a total is off by more than rounding
+     */
+    public double check(Player player, List<Opponent> opponents) {
+        double[] gap = new double[this.opponents];
+        for (int slot = 0; slot < gap.length; slot++) {
+            gap[slot] = Electorate.gap(opponents.get(slot).getPopularity(), player.getPopularity());
+        }
+        double limit = TOLERANCE * Math.max(1, total);
+        double worst = 0;
+        for (int district = 0; district < swing.length; district++) {
+            double[] fresh = electorate.countDistrict(district, gap, swing);
+            for (int candidate = 0; candidate <= this.opponents; candidate++) {
+                double difference = Math.abs(fresh[candidate] - districtVotes[district * (this.opponents + 1) + candidate]);
+                worst = Math.max(worst, difference);
+                if (difference > limit) {
+                    throw new IllegalStateException("District " + district + ", candidate " + candidate
+                            + ": running total " + districtVotes[district * (this.opponents + 1) + candidate]
+                            + ", recounted " + fresh[candidate]);
+                }
+            }
+        }
+        Electorate.Tally tally = electorate.tally(player.getPopularity(), opponents, swing);
+        for (int candidate = 0; candidate <= this.opponents; candidate++) {
+            double fresh = candidate == 0 ? tally.getPlayerVotes() : tally.getOpponentVotes(candidate - 1);
+            double difference = Math.abs(fresh - votes[candidate]);
+            worst = Math.max(worst, difference);
+            if (difference > limit) {
+                throw new IllegalStateException("Candidate " + candidate + ": running total " + votes[candidate]
+                        + ", recounted " + fresh);
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Gets the player's votes.
+     * @return the votes
+     */
+    public double getPlayerVotes() { return votes[0]; }
+
+    /**
+     * Gets an opponent's votes.
+     *
+     * @param slot the opponent's slot
+     * @return the votes
+     */
+    public double getOpponentVotes(int slot) { return votes[slot + 1]; }
+
+    /**
+     * Gets the votes cast for anyone.
+     * @return the turnout
+     */
+    public double getTotal() { return total; }
+
+    /**
+     * Gets the player's share of the votes cast.
+     * @return the share between 0 and 1
+     */
+    public double getPlayerShare() { return total == 0 ? 0 : votes[0] / total; }
+
+    /**
+     * Gets an opponent's share of the votes cast.
+     *
+     * @param slot the opponent's slot
+     * @return the share between 0 and 1
+     */
+    public double getOpponentShare(int slot) { return total == 0 ? 0 : votes[slot + 1] / total; }
+
+    /**
+     * Gets the player's share of a district's votes.
+     *
+     * @param district the district id
+     * @return the share between 0 and 1
+     */
+    public double getDistrictPlayerShare(int district) {
+        double cast = districtTotal[district];
+        return cast == 0 ? 0 : districtVotes[district * (opponents + 1)] / cast;
+    }
+
+    /**
+     * Gets the opponent with the most votes.
+     * @return its slot; the lowest one on a tie
+     */
+    public int getLeader() { return leader; }
+
+    /**
+     * Gets how far the player leads the strongest opponent.
+     * @return the difference in vote share, negative if the player trails
+     */
+    public double getLeadMargin() { return getPlayerShare() - getOpponentShare(leader); }
+
+    /**
+     * Gets the player's place in the vote.
+     * @return 1 if no opponent has more votes, and one more for each that has
+     */
+    public int getRank() { return rank; }
+
+    /**
+     * Gets a district's swing towards the player.
+     *
+     * @param district the district id
+     * @return the swing
+     */
+    public double getSwing(int district) { return swing[district]; }
+
+    /**
+     * Gets every district's swing, for snapshots.
+     * @return the swings, indexed by location id; not a copy
+     */
+    double[] getSwings() { return swing; }
+}
@@ -0,0 +1,227 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a WorldTemplate into the binary format read by CompiledWorld.
+ * Each distinct string is stored once.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class WorldCompiler {
+    private DataOutputStream strings;
+    private ByteArrayOutputStream stringBytes;
+    private Map<String, Integer> stringRefs;
+
+    /**
+     * Constructs a WorldCompiler.
+     */
+    private WorldCompiler() {
+        this.stringBytes = new ByteArrayOutputStream();
+        this.strings = new DataOutputStream(stringBytes);
+        this.stringRefs = new HashMap<>();
+    }
+
+    /**
+     * Compiles a world and writes it to a file.
+     *
+     * @param world the world to compile
+     * @param out the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void compile(WorldTemplate world, Path out) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16)) {
+            new WorldCompiler().write(world, file);
+        }
+    }
+
+    /**
+     * Computes a world's fingerprint: a hash of its compiled form, so worlds with
+     * the same locations, items, exits, opponents, allies and events have the same
+     * fingerprint and any change to them gives another one.
+     *
+     * @param world the world
+     * @return the first eight bytes of the SHA-256 of the compiled world
+     */
+    static long fingerprint(WorldTemplate world) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (OutputStream out = new BufferedOutputStream(
+                new DigestOutputStream(OutputStream.nullOutputStream(), digest), 1 << 16)) {
+            new WorldCompiler().write(world, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * Writes the compiled form of a world.
+     *
+     * @param world the world to compile
+     * @param file where to write
+     * @throws IOException if writing fails
+     */
+    private void write(WorldTemplate world, OutputStream file) throws IOException {
+        int count = world.getLocationCount();
+        int slots = Integer.highestOneBit(Math.max(2, count) * 2 - 1) * 2;
+        int locationTable = CompiledWorld.HEADER_SIZE;
+        int nameTable = locationTable + count * 4;
+        int recordStart = nameTable + slots * 4;
+
+        int[] recordOffsets = new int[count];
+        int[] names = new int[slots];
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        for (int id = 0; id < count; id++) {
+            Location location = world.getLocation(id);
+            recordOffsets[id] = recordStart + records.size();
+            writeLocation(location, records);
+
+            int mask = slots - 1;
+            int slot = CompiledWorld.hash(NameIndex.fold(location.getName())) & mask;
+            while (names[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            names[slot] = id + 1;
+        }
+
+        ByteArrayOutputStream catalogBytes = new ByteArrayOutputStream();
+        writeCatalog(world, new DataOutputStream(catalogBytes));
+
+        int catalog = recordStart + records.size();
+        int stringStart = catalog + catalogBytes.size();
+
+        DataOutputStream out = new DataOutputStream(file);
+        out.writeInt(CompiledWorld.MAGIC);
+        out.writeInt(CompiledWorld.VERSION);
+        out.writeInt(count);
+        out.writeInt(world.getStartId());
+        out.writeInt(locationTable);
+        out.writeInt(nameTable);
+        out.writeInt(slots);
+        out.writeInt(catalog);
+        out.writeInt(stringStart);
+        for (int offset : recordOffsets) {
+            out.writeInt(offset);
+        }
+        for (int entry : names) {
+            out.writeInt(entry);
+        }
+        recordBytes.writeTo(out);
+        catalogBytes.writeTo(out);
+        stringBytes.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Writes one location record.
+     *
+     * @param location the location
+     * @param out where to write
+     * @throws IOException if writing fails
+     */
+    private void writeLocation(Location location, DataOutputStream out) throws IOException {
+        out.writeInt(ref(location.getName()));
+        out.writeInt(ref(location.getDescription()));
+
+        Map<String, String> npcs = location.getNPCs();
+        out.writeInt(npcs.size());
+        for (Map.Entry<String, String> npc : npcs.entrySet()) {
+            out.writeInt(ref(npc.getKey()));
+            out.writeInt(ref(npc.getValue()));
+        }
+
+        List<Item> items = location.getItems();
+        out.writeInt(items.size());
+        for (Item item : items) {
+            out.writeInt(ref(item.getName()));
+            out.writeInt(ref(item.getDescription()));
+            out.writeInt(ref(item.getType()));
+            out.writeDouble(item.getValue());
+        }
+
+        out.writeInt(location.getExitCount());
+        for (Direction direction : Direction.values()) {
+            int target = location.getExit(direction);
+            if (target < 0) continue;
+            out.writeInt(ref(direction.getName()));
+            out.writeInt(target);
+        }
+        for (int i = 0; i < location.getNamedExitCount(); i++) {
+            out.writeInt(ref(location.getNamedExit(i)));
+            out.writeInt(location.getNamedExitTarget(i));
+        }
+    }
+
+    /**
+     * Writes the opponents, allies and events.
+     *
+     * @param world the world
+     * @param out where to write
+     * @throws IOException if writing fails
+     */
+    private void writeCatalog(WorldTemplate world, DataOutputStream out) throws IOException {
+        List<String> opponents = world.getOpponentNames();
+        out.writeInt(opponents.size());
+        for (String name : opponents) {
+            out.writeInt(ref(name));
+        }
+
+        List<Ally> allies = world.getAllies();
+        out.writeInt(allies.size());
+        for (Ally ally : allies) {
+            out.writeInt(ref(ally.getName()));
+            out.writeDouble(ally.getLoyalty());
+            out.writeDouble(ally.getInfluenceBoost());
+        }
+
+        List<Event> events = world.getEvents();
+        out.writeInt(events.size());
+        for (Event event : events) {
+            out.writeInt(ref(event.getName()));
+            out.writeInt(ref(event.getDescription()));
+            out.writeDouble(event.getPopularityImpact());
+            out.writeDouble(event.getScandalRiskImpact());
+            out.writeDouble(event.getWeight());
+            out.writeInt(event.getCondition() == null ? -1 : ref(event.getCondition().getText()));
+        }
+    }
+
+    /**
+     * Gets the reference of a string, adding it to the string section the first time.
+     *
+     * @param value the string
+     * @return its offset within the string section
+     * @throws IOException if writing fails
+     */
+    private int ref(String value) throws IOException {
+        Integer ref = stringRefs.get(value);
+        if (ref == null) {
+            ref = strings.size();
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            strings.writeInt(bytes.length);
+            strings.write(bytes);
+            stringRefs.put(value, ref);
+        }
+        return ref;
+    }
+}
@@ -0,0 +1,253 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads world definitions from text files.
+ *
+ * Each line is a keyword followed by fields separated by '|'. Blank lines and
+ * lines starting with '#' are ignored. Location names are matched ignoring case,
+ * and exits may name locations defined further down the file.
+ * <pre>
+ *   location NAME | DESCRIPTION
+ *   npc LOCATION | NAME | TYPE                  (TYPE is ally, opponent or neutral)
+ *   item LOCATION | NAME | DESCRIPTION | TYPE | VALUE
+ *   exit LOCATION | DIRECTION | TARGET LOCATION     (north, south, east, west, up, down or any exit name)
+ *   start LOCATION                              (defaults to the first location)
+ *   opponent NAME
+ *   ally NAME | LOYALTY | INFLUENCE
+ *   event NAME | DESCRIPTION | POPULARITY IMPACT | SCANDAL RISK IMPACT [| WEIGHT [| CONDITION]]
+ * </pre>
+ * Event weights default to 1. A condition such as "scandalRisk &gt;= 40" limits
+ * when the event can occur; see EventCondition.
+ * See worlds/standard.world for the built-in campaign written in this format.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class WorldFile {
+    private Path path;
+    private WorldTemplate world;
+    private List<String[]> exits;
+    private List<Integer> exitLines;
+    private String start;
+    private int startLine;
+    private int lineNumber;
+
+    /**
+     * Constructs a reader for one file.
+     *
+     * @param path the file being read
+     */
+    private WorldFile(Path path) {
+        this.path = path;
+        this.world = new WorldTemplate();
+        this.exits = new ArrayList<>();
+        this.exitLines = new ArrayList<>();
+    }
+
+    /**
+     * Reads a text world file.
+     *
+     * @param path the file to read
+     * @return the world it defines
+     * @throws IOException if the file cannot be read or has an error
+     */
+    public static WorldTemplate read(Path path) throws IOException {
+        WorldFile file = new WorldFile(path);
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                file.lineNumber++;
+                file.parseLine(line.trim());
+            }
+        }
+        return file.finish();
+    }
+
+    /**
+     * Parses one line.
+     *
+     * @param line the trimmed line
+     * @throws IOException if the line has an error
+     */
+    private void parseLine(String line) throws IOException {
+        if (line.isEmpty() || line.startsWith("#")) return;
+
+        int space = line.indexOf(' ');
+        String keyword = space < 0 ? line : line.substring(0, space);
+        String[] fields = space < 0 ? new String[0] : line.substring(space + 1).split("\\|", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+
+        switch (keyword) {
+            case "location":
+                expect(fields, 2);
+                if (world.findLocation(fields[0]) >= 0) {
+                    throw error("Location '" + fields[0] + "' is defined twice");
+                }
+                world.addLocation(new Location(fields[0], fields[1]));
+                break;
+            case "npc":
+                expect(fields, 3);
+                location(fields[0]).addNPC(fields[1], fields[2]);
+                break;
+            case "item":
+                expect(fields, 5);
+                location(fields[0]).addItem(new Item(world.getItemCatalog().kind(fields[1], fields[2],
+                        itemType(fields[3]), number(fields[4]))));
+                break;
+            case "exit":
+                expect(fields, 3);
+                exits.add(fields);
+                exitLines.add(lineNumber);
+                break;
+            case "start":
+                expect(fields, 1);
+                start = fields[0];
+                startLine = lineNumber;
+                break;
+            case "opponent":
+                expect(fields, 1);
+                world.addOpponent(fields[0]);
+                break;
+            case "ally":
+                expect(fields, 3);
+                world.addAlly(new Ally(fields[0], number(fields[1]), number(fields[2])));
+                break;
+            case "event":
+                expect(fields, 4, 6);
+                double weight = fields.length > 4 ? number(fields[4]) : 1;
+                if (weight < 0) throw error("Event weight cannot be negative");
+                world.addEvent(new Event(fields[0], fields[1], number(fields[2]), number(fields[3]),
+                        weight, fields.length > 5 ? condition(fields[5]) : null));
+                break;
+            default:
+                throw error("Unknown keyword '" + keyword + "'");
+        }
+    }
+
+    /**
+     * Resolves exits and the start location once every location is known.
+     *
+     * @return the finished world
+     * @throws IOException if an exit or the start names an unknown location
+     */
+    private WorldTemplate finish() throws IOException {
+        if (world.getLocationCount() == 0) {
+            lineNumber = 0;
+            throw error("No locations defined");
+        }
+        for (int i = 0; i < exits.size(); i++) {
+            String[] exit = exits.get(i);
+            lineNumber = exitLines.get(i);
+            location(exit[0]).setConnection(exit[1], location(exit[2]));
+        }
+        if (start != null) {
+            lineNumber = startLine;
+            world.setStart(location(start));
+        }
+        return world;
+    }
+
+    /**
+     * Looks up a location by name.
+     *
+     * @param name the location name
+     * @return the location
+     * @throws IOException if there is no such location
+     */
+    private Location location(String name) throws IOException {
+        int id = world.findLocation(name);
+        if (id < 0) throw error("Unknown location '" + name + "'");
+        return world.getLocation(id);
+    }
+
+    /**
+     * Checks the number of fields on a line.
+     *
+     * @param fields the fields
+     * @param count the expected number
+     * @throws IOException if the count is wrong
+     */
+    private void expect(String[] fields, int count) throws IOException {
+        if (fields.length != count) {
+            throw error("Expected " + count + " fields separated by '|' but found " + fields.length);
+        }
+    }
+
+    /**
+     * Checks the number of fields on a line that has optional trailing fields.
+     *
+     * @param fields the fields
+     * @param min the fewest fields allowed
+     * @param max the most fields allowed
+     * @throws IOException if the count is outside the range
+     */
+    private void expect(String[] fields, int min, int max) throws IOException {
+        if (fields.length < min || fields.length > max) {
+            throw error("Expected " + min + " to " + max + " fields separated by '|' but found " + fields.length);
+        }
+    }
+
+    /**
+     * Parses an event condition field.
+     *
+     * @param field the field, which may be empty for none
+     * @return the condition, or null if the field is empty
+     * @throws IOException if it is not a valid condition
+     */
+    private EventCondition condition(String field) throws IOException {
+        if (field.isEmpty()) return null;
+        try {
+            return EventCondition.parse(field);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    /**
+     * Parses a numeric field.
+     *
+     * @param field the field
+     * @return its value
+     * @throws IOException if it is not a number
+     */
+    private double number(String field) throws IOException {
+        try {
+            return Double.parseDouble(field);
+        } catch (NumberFormatException e) {
+            throw error("'" + field + "' is not a number");
+        }
+    }
+
+    /**
+     * Parses an item type field.
+     *
+     * @param field the field
+     * @return the item type
+     * @throws IOException if it is not an item type
+     */
+    private ItemType itemType(String field) throws IOException {
+        try {
+            return ItemType.fromLabel(field);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    /**
+     * Creates an error that points at the current line.
+     *
+     * @param message what is wrong
+     * @return the exception to throw
+     */
+    private IOException error(String message) {
+        return new IOException(path + ":" + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Compact adjacency of a whole world for graph algorithms, in compressed
+ * sparse row form: the exits of location i are edges offsets[i] to
+ * offsets[i + 1] - 1, each with a target location id and the Direction it
+ * leaves by (or none, for named exits).
+ *
+ * Obtain one from WorldTemplate.getGraph(), which builds it once per template.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class WorldGraph {
+    /** Direction code used for named exits */
+    static final byte NAMED_EXIT = -1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private int[] offsets;
+    private int[] targets;
+    private byte[] directions;
+
+    /**
+     * Constructs a WorldGraph from filled arrays.
+     *
+     * @param offsets first edge of each location, plus the total edge count at the end
+     * @param targets target location id of each edge
+     * @param directions Direction ordinal of each edge, or NAMED_EXIT
+     */
+    WorldGraph(int[] offsets, int[] targets, byte[] directions) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.directions = directions;
+    }
+
+    /**
+     * Builds the graph of a template whose locations are all in memory.
+     *
+     * @param world the template
+     * @return the graph
+     */
+    static WorldGraph fromLocations(WorldTemplate world) {
+        int count = world.getLocationCount();
+        int[] offsets = new int[count + 1];
+        for (int id = 0; id < count; id++) {
+            offsets[id + 1] = offsets[id] + world.getLocation(id).getExitCount();
+        }
+
+        int[] targets = new int[offsets[count]];
+        byte[] directions = new byte[offsets[count]];
+        for (int id = 0; id < count; id++) {
+            Location location = world.getLocation(id);
+            int edge = offsets[id];
+            for (Direction direction : DIRECTIONS) {
+                int target = location.getExit(direction);
+                if (target < 0) continue;
+                targets[edge] = target;
+                directions[edge] = (byte) direction.ordinal();
+                edge++;
+            }
+            for (int i = 0; i < location.getNamedExitCount(); i++) {
+                targets[edge] = location.getNamedExitTarget(i);
+                directions[edge] = NAMED_EXIT;
+                edge++;
+            }
+        }
+        return new WorldGraph(offsets, targets, directions);
+    }
+
+    /**
+     * Gets the number of locations.
+     *
+     * @return the location count
+     */
+    public int getLocationCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets the total number of exits in the world.
+     *
+     * @return the edge count
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the first edge of a location.
+     *
+     * @param id the location id
+     * @return the index of its first edge
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * Gets the end of a location's edges.
+     *
+     * @param id the location id
+     * @return one past the index of its last edge
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gets where an edge leads.
+     *
+     * @param edge the edge index
+     * @return the target location id
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Gets the direction an edge leaves by.
+     *
+     * @param edge the edge index
+     * @return the Direction, or null for a named exit
+     */
+    public Direction direction(int edge) {
+        byte code = directions[edge];
+        return code == NAMED_EXIT ? null : DIRECTIONS[code];
+    }
+
+    /**
+     * Gets the number of exits of a location.
+     *
+     * @param id the location id
+     * @return the out-degree
+     */
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Estimates the memory held by the graph's arrays.
+     *
+     * @return size in bytes
+     */
+    public long getMemoryBytes() {
+        return 4L * offsets.length + 4L * targets.length + directions.length;
+    }
+}
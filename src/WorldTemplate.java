@@ -0,0 +1,547 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The fixed part of a game world: locations with their descriptions, NPCs,
+ * connections and starting items, the opponents, the allies that can be
+ * recruited, and the random events.
+ *
+ * A template is built once and shared by every game session. Each session gets
+ * its own LocationTable from newLocations() and its own Opponent objects,
+ * so nothing a player does changes the template.
+ *
+ * Templates come from the built-in standard world, a text world file (WorldFile)
+ * or a compiled world (CompiledWorld). The locations of a compiled world are only
+ * decoded when first visited, so very large maps load in constant time.
+ *
+ * @author Usman
+ * @version 1.0
+ */
+public class WorldTemplate {
+    private static final WorldTemplate STANDARD = createStandard();
+
+    private List<Location> locations;
+    private NameIndex<Location> locationIndex;
+    private CompiledWorld compiled;
+    private AtomicReferenceArray<Location> decoded;
+    private int startId;
+    private WorldGraph graph;
+    private RouteTable routes;
+    private EventTable eventTable;
+    private List<String> opponentNames;
+    private List<String> opponentNamesView;
+    private NameIndex<Integer> opponentIndex;
+    private List<Ally> allies;
+    private List<Ally> alliesView;
+    private NameIndex<Ally> allyIndex;
+    private List<Event> events;
+    private List<Event> eventsView;
+    private NameIndex<Event> eventIndex;
+    private ItemCatalog itemCatalog;
+    private Electorate electorate;
+    private volatile long fingerprint;
+
+    /**
+     * Constructs an empty WorldTemplate.
+     */
+    public WorldTemplate() {
+        this.locations = new ArrayList<>();
+        this.locationIndex = new NameIndex<>(Location::getName);
+        this.opponentNames = new ArrayList<>();
+        this.opponentNamesView = Collections.unmodifiableList(opponentNames);
+        this.opponentIndex = new NameIndex<>(opponentNames::get);
+        this.allies = new ArrayList<>();
+        this.alliesView = Collections.unmodifiableList(allies);
+        this.allyIndex = new NameIndex<>(Ally::getName);
+        this.events = new ArrayList<>();
+        this.eventsView = Collections.unmodifiableList(events);
+        this.eventIndex = new NameIndex<>(Event::getName);
+        this.itemCatalog = new ItemCatalog();
+    }
+
+    /**
+     * Constructs a template whose locations are decoded from a compiled world on demand.
+     * Opponents, allies and events are read straight away.
+     *
+     * @param compiled the opened compiled world
+     */
+    WorldTemplate(CompiledWorld compiled) {
+        this();
+        this.compiled = compiled;
+        this.decoded = new AtomicReferenceArray<>(compiled.getLocationCount());
+        this.startId = compiled.getStartId();
+        compiled.readCatalog(this);
+    }
+
+    /**
+     * Constructs a template that shares everything with another one but its electorate.
+     * Routes the original has already built are shared too.
+     *
+     * @param original the template to share
+     * @param electorate the voters of this template's games
+     */
+    private WorldTemplate(WorldTemplate original, Electorate electorate) {
+        this.locations = original.locations;
+        this.locationIndex = original.locationIndex;
+        this.compiled = original.compiled;
+        this.decoded = original.decoded;
+        this.startId = original.startId;
+        synchronized (original) {
+            this.graph = original.graph;
+            this.routes = original.routes;
+            this.eventTable = original.eventTable;
+        }
+        this.opponentNames = original.opponentNames;
+        this.opponentNamesView = original.opponentNamesView;
+        this.opponentIndex = original.opponentIndex;
+        this.allies = original.allies;
+        this.alliesView = original.alliesView;
+        this.allyIndex = original.allyIndex;
+        this.events = original.events;
+        this.eventsView = original.eventsView;
+        this.eventIndex = original.eventIndex;
+        this.itemCatalog = original.itemCatalog;
+        this.fingerprint = original.fingerprint;
+        this.electorate = electorate;
+    }
+
+    /**
+     * Makes a template for games decided by an electorate instead of by popularity
+     * alone. This template is not changed, so the standard world can be given
+     * voters too.
+     *
+     * @param electorate the voters, generated for this world
+     * @return a template sharing this one's locations, opponents, allies and events
+     */
+    public WorldTemplate withElectorate(Electorate electorate) {
+        return new WorldTemplate(this, electorate);
+    }
+
+    /**
+     * Loads a world from a file, either a compiled world or a text world file.
+     *
+     * @param path the file to load
+     * @return the loaded template
+     * @throws IOException if the file cannot be read or is not a valid world
+     */
+    public static WorldTemplate load(Path path) throws IOException {
+        if (CompiledWorld.isCompiled(path)) {
+            return new WorldTemplate(CompiledWorld.open(path));
+        }
+        return WorldFile.read(path);
+    }
+
+    /**
+     * Gets the standard campaign world, built once per JVM.
+     *
+     * @return the shared standard template
+     */
+    public static WorldTemplate standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Builds the standard world with 8 locations, 5 opponents, 8 allies and 12 events.
+     *
+     * @return the new template
+     */
+    private static WorldTemplate createStandard() {
+        WorldTemplate world = new WorldTemplate();
+
+        // Create locations with directional connections
+        Location townSquare = new Location("Town Square",
+                "The heart of the city. Citizens gather here for important announcements.");
+        Location parliament = new Location("Parliament Building",
+                "The center of political power. Opponents and allies gather here.");
+        Location mediaCentre = new Location("Media Centre",
+                "Where journalists and media influence opinions.");
+        Location slums = new Location("Downtown Slums",
+                "Where the working class lives. Building grassroots support here is valuable.");
+        Location mansion = new Location("Political Mansion",
+                "Your campaign headquarters. Plan strategy and manage finances here.");
+        Location university = new Location("University Campus",
+                "Young voters and intellectuals gather here. A key demographic.");
+        Location industryPark = new Location("Industry Park",
+                "Corporate headquarters and business leaders. Deep pockets but tough negotiations.");
+        Location suburbs = new Location("Suburban District",
+                "Middle-class families live here. Swing voters who could go either way.");
+
+        world.addLocation(townSquare);
+        world.addLocation(parliament);
+        world.addLocation(mediaCentre);
+        world.addLocation(slums);
+        world.addLocation(mansion);
+        world.addLocation(university);
+        world.addLocation(industryPark);
+        world.addLocation(suburbs);
+        world.setStart(townSquare);
+
+        // Add NPCs to locations
+        townSquare.addNPC("Local Business Owner", "ally");
+        townSquare.addNPC("Concerned Citizen", "neutral");
+        parliament.addNPC("Prime Minister", "opponent");
+        parliament.addNPC("Union Leader", "ally");
+        parliament.addNPC("Conservative Senator", "opponent");
+        mediaCentre.addNPC("Media Magnate", "ally");
+        mediaCentre.addNPC("Investigative Journalist", "neutral");
+        slums.addNPC("Opposition Leader", "opponent");
+        slums.addNPC("Community Activist", "ally");
+        mansion.addNPC("Industry Baron", "opponent");
+        mansion.addNPC("Campaign Manager", "ally");
+        university.addNPC("Student Leader", "ally");
+        university.addNPC("Professor", "neutral");
+        industryPark.addNPC("Corporate CEO", "opponent");
+        industryPark.addNPC("Tech Entrepreneur", "ally");
+        suburbs.addNPC("Local Mayor", "neutral");
+        suburbs.addNPC("Soccer Mom", "neutral");
+
+        // Add items to locations
+        townSquare.addItem(world.newItem("Flyer", "Campaign flyers to distribute", "political", 5));
+        townSquare.addItem(world.newItem("Coffee", "Energy boost", "consumable", 3));
+        parliament.addItem(world.newItem("Political Document", "Classified government memo", "evidence", 15));
+        parliament.addItem(world.newItem("Voting Records", "Opponent voting history", "evidence", 12));
+        mediaCentre.addItem(world.newItem("Recording Device", "Record evidence of corruption", "tool", 20));
+        mediaCentre.addItem(world.newItem("Press Pass", "Access to exclusive events", "tool", 15));
+        mansion.addItem(world.newItem("Briefcase", "Contains campaign funds", "valuable", 50));
+        mansion.addItem(world.newItem("Strategy Guide", "Campaign tips", "document", 8));
+        slums.addItem(world.newItem("Petition", "Support from residents", "document", 10));
+        university.addItem(world.newItem("Research Paper", "Policy insights", "document", 7));
+        industryPark.addItem(world.newItem("Business Card", "Corporate connections", "tool", 10));
+        suburbs.addItem(world.newItem("Survey Results", "Voter preferences", "document", 12));
+
+        // Set up directional connections (more complex map)
+        townSquare.setConnection("north", parliament);
+        townSquare.setConnection("south", slums);
+        townSquare.setConnection("east", mediaCentre);
+        townSquare.setConnection("west", mansion);
+
+        parliament.setConnection("south", townSquare);
+        parliament.setConnection("east", university);
+
+        slums.setConnection("north", townSquare);
+        slums.setConnection("west", suburbs);
+
+        mediaCentre.setConnection("west", townSquare);
+        mediaCentre.setConnection("north", university);
+
+        mansion.setConnection("east", townSquare);
+        mansion.setConnection("south", suburbs);
+
+        university.setConnection("south", mediaCentre);
+        university.setConnection("west", parliament);
+        university.setConnection("east", industryPark);
+
+        industryPark.setConnection("west", university);
+        industryPark.setConnection("south", suburbs);
+
+        suburbs.setConnection("north", mansion);
+        suburbs.setConnection("east", slums);
+        suburbs.setConnection("north", industryPark);
+
+        // Opponents with varying difficulty levels
+        world.addOpponent("Prime Minister");
+        world.addOpponent("Opposition Leader");
+        world.addOpponent("Industry Baron");
+        world.addOpponent("Conservative Senator");
+        world.addOpponent("Corporate CEO");
+
+        // Allies with different loyalty and influence values
+        world.addAlly(new Ally("Local Business Owner", 60, 12));
+        world.addAlly(new Ally("Union Leader", 65, 18));
+        world.addAlly(new Ally("Media Magnate", 50, 22));
+        world.addAlly(new Ally("Community Organizer", 75, 8));
+        world.addAlly(new Ally("Student Leader", 70, 10));
+        world.addAlly(new Ally("Tech Entrepreneur", 55, 15));
+        world.addAlly(new Ally("Campaign Manager", 80, 20));
+        world.addAlly(new Ally("Community Activist", 68, 14));
+
+        // Random events
+        world.addEvent(new Event("Journalist Discovery",
+                "A journalist discovers evidence of questionable dealings", -15, -10));
+        world.addEvent(new Event("Public Support",
+                "Your policies resonate with the public", 12, 0));
+        world.addEvent(new Event("Scandal Exposed",
+                "A scandal from your past is exposed", -25, 20));
+        world.addEvent(new Event("Ally Betrayal",
+                "One of your allies withdraws support", -8, -15));
+        world.addEvent(new Event("Media Boost",
+                "Positive media coverage increases your popularity", 18, -3));
+        world.addEvent(new Event("Funding Received",
+                "Anonymous donor provides funds", 40, 5));
+        world.addEvent(new Event("Opponent Scandal",
+                "Your opponent is caught in a scandal", 15, 0));
+        world.addEvent(new Event("Economic Crisis",
+                "Economic downturn affects campaign funding", -30, 0));
+        world.addEvent(new Event("Viral Speech",
+                "Your speech goes viral on social media", 20, 0));
+        world.addEvent(new Event("Debate Win",
+                "You dominate in the televised debate", 16, -5));
+        world.addEvent(new Event("Policy Backlash",
+                "One of your policies receives harsh criticism", -12, 8));
+        world.addEvent(new Event("Grassroots Support",
+                "Grassroots movement rallies behind you", 10, -3));
+
+        return world;
+    }
+
+    /**
+     * Adds a location. Its connections may point at any location added to this template.
+     *
+     * @param location the location to add
+     */
+    void addLocation(Location location) {
+        location.attach(this, locations.size());
+        locations.add(location);
+        locationIndex.add(location);
+    }
+
+    /**
+     * Sets the location where players start.
+     *
+     * @param location a location already added to this template
+     */
+    void setStart(Location location) {
+        this.startId = location.getId();
+    }
+
+    /**
+     * Adds an opponent by name.
+     *
+     * @param name the opponent's name
+     */
+    void addOpponent(String name) {
+        opponentNames.add(name);
+        opponentIndex.add(opponentNames.size() - 1);
+    }
+
+    /**
+     * Makes an item of this world. Its kind comes from the world's ItemCatalog,
+     * so it is shared with every equal item in the world.
+     *
+     * @param name the item's name
+     * @param description what the item is
+     * @param type the item type's label
+     * @param value the numerical value/effect of the item
+     * @return the item
+     * @throws IllegalArgumentException if the type is not one of the item types
+     */
+    Item newItem(String name, String description, String type, double value) {
+        return new Item(itemCatalog.kind(name, description, ItemType.fromLabel(type), value));
+    }
+
+    /**
+     * Gets the catalog this world's item kinds are shared through.
+     *
+     * @return the item catalog
+     */
+    ItemCatalog getItemCatalog() {
+        return itemCatalog;
+    }
+
+    /**
+     * Adds an ally that players can recruit.
+     *
+     * @param ally the ally, shared by every session and never modified
+     */
+    void addAlly(Ally ally) {
+        ally.setId(allies.size());
+        allies.add(ally);
+        allyIndex.add(ally);
+    }
+
+    /**
+     * Adds a random event.
+     *
+     * @param event the event
+     */
+    void addEvent(Event event) {
+        events.add(event);
+        eventIndex.add(event);
+        eventTable = null;
+    }
+
+    /**
+     * Gets a template location by id. Locations of a compiled world are decoded
+     * on first use; concurrent sessions all get the same instance.
+     *
+     * @param id the location id
+     * @return the template location
+     */
+    public Location getLocation(int id) {
+        if (compiled == null) return locations.get(id);
+
+        Location location = decoded.get(id);
+        if (location == null) {
+            Location fresh = compiled.readLocation(this, id);
+            location = decoded.compareAndExchange(id, null, fresh);
+            if (location == null) location = fresh;
+        }
+        return location;
+    }
+
+    /**
+     * Gets the compact adjacency of the whole world, building it on first use.
+     * For a compiled world it is read straight from the file.
+     *
+     * @return the world graph
+     */
+    public synchronized WorldGraph getGraph() {
+        if (graph == null) {
+            graph = compiled != null ? compiled.readGraph() : WorldGraph.fromLocations(this);
+        }
+        return graph;
+    }
+
+    /**
+     * Gets the shortest-route table of the world, creating it on first use.
+     * Its rows are built lazily as destinations are asked for.
+     *
+     * @return the route table
+     */
+    public synchronized RouteTable getRoutes() {
+        if (routes == null) {
+            routes = new RouteTable(getGraph());
+        }
+        return routes;
+    }
+
+    /**
+     * Finds a location's id by name, ignoring case.
+     *
+     * @param name the location name
+     * @return the id, or -1 if there is no such location
+     */
+    public int findLocation(String name) {
+        if (compiled != null) return compiled.findLocation(name);
+        Location location = locationIndex.find(name);
+        return location == null ? -1 : location.getId();
+    }
+
+    /**
+     * Creates the location table for one session. Locations are copied into it
+     * when first reached.
+     *
+     * @return the session's location table
+     */
+    public LocationTable newLocations() {
+        return new LocationTable(this);
+    }
+
+    /**
+     * Gets the id of the location where players start.
+     *
+     * @return the starting location's id
+     */
+    public int getStartId() {
+        return startId;
+    }
+
+    /**
+     * Gets the number of locations.
+     *
+     * @return the location count
+     */
+    public int getLocationCount() {
+        return compiled == null ? locations.size() : compiled.getLocationCount();
+    }
+
+    /**
+     * Gets the names of the opponents, in order.
+     *
+     * @return a read-only list of opponent names
+     */
+    public List<String> getOpponentNames() {
+        return opponentNamesView;
+    }
+
+    /**
+     * Finds an opponent's position in getOpponentNames(), ignoring case.
+     *
+     * @param name the opponent's name
+     * @return the position, or -1 if there is no such opponent
+     */
+    public int findOpponent(String name) {
+        Integer slot = opponentIndex.find(name);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Gets the allies that can be recruited.
+     * The same Ally objects are handed to every session.
+     *
+     * @return a read-only list of allies
+     */
+    public List<Ally> getAllies() {
+        return alliesView;
+    }
+
+    /**
+     * Finds an ally by name, ignoring case.
+     *
+     * @param name the ally's name
+     * @return the Ally or null if not found
+     */
+    public Ally findAlly(String name) {
+        return allyIndex.find(name);
+    }
+
+    /**
+     * Gets the random events.
+     *
+     * @return a read-only list of events
+     */
+    public List<Event> getEvents() {
+        return eventsView;
+    }
+
+    /**
+     * Gets the events grouped by condition for weighted drawing, building the
+     * groups on first use.
+     *
+     * @return the event table
+     */
+    public synchronized EventTable getEventTable() {
+        if (eventTable == null) {
+            eventTable = new EventTable(events);
+        }
+        return eventTable;
+    }
+
+    /**
+     * Gets the voters whose tally decides the election.
+     *
+     * @return the electorate, or null if the election is decided by popularity
+     */
+    public Electorate getElectorate() {
+        return electorate;
+    }
+
+    /**
+     * Gets a hash of the world's compiled form, which saved games are checked
+     * against. Computed the first time it is asked for; the electorate is not part of it.
+     *
+     * @return the fingerprint
+     */
+    public long getFingerprint() {
+        long value = fingerprint;
+        if (value == 0) {
+            value = WorldCompiler.fingerprint(this);
+            fingerprint = value;
+        }
+        return value;
+    }
+
+    /**
+     * Finds an event by name, ignoring case.
+     *
+     * @param name the event name
+     * @return the Event or null if not found
+     */
+    public Event findEvent(String name) {
+        return eventIndex.find(name);
+    }
+}